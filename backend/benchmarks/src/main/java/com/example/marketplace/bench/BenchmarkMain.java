@@ -0,0 +1,45 @@
+package com.example.marketplace.bench;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs JMH as usual, but unless {@code -rf}/{@code -rff} say otherwise writes results as JSON to
+ * {@code jmh-results/marketplace-<version>.json}, so runs of successive releases sit side by side and can
+ * be compared (e.g. with JMH Visualizer). Unless other profilers are given with {@code -prof}, the GC profiler
+ * is attached so every run also records {@code gc.alloc.rate.norm} (bytes allocated per operation).
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams()
+                || options.shouldListProfilers() || options.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+        if (options.getProfilers().isEmpty()) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        if (!options.getResultFormat().hasValue() && !options.getResult().hasValue()) {
+            String version = BenchmarkMain.class.getPackage().getImplementationVersion();
+            Path result = Path.of("jmh-results", "marketplace-" + (version != null ? version : "dev") + ".json");
+            Files.createDirectories(result.getParent());
+            builder.resultFormat(ResultFormatType.JSON).result(result.toString());
+        }
+        new Runner(builder.build()).run();
+    }
+}
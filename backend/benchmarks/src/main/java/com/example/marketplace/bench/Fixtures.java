@@ -0,0 +1,58 @@
+package com.example.marketplace.bench;
+
+import com.example.marketplace.cache.ListingDetailCache;
+import com.example.marketplace.domain.item.Item;
+import com.example.marketplace.domain.item.ItemStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data shaped like the demo catalogue: a mix of demo-asset photos and uploaded images.
+ */
+final class Fixtures {
+
+    private static final String[] CATEGORIES = {"phone", "laptop", "book", "appliance", "bike"};
+
+    private Fixtures() {
+    }
+
+    static ListingDetailCache listingDetailCache() {
+        return new ListingDetailCache(true, 10_000, 60, new SimpleMeterRegistry());
+    }
+
+    static String[] images(int index) {
+        String category = CATEGORIES[index % CATEGORIES.length];
+        String photo = String.format("/demo-assets/photo/%s_%02d.webp", category, index % 12 + 1);
+        String upload = "/api/images/" + String.format("%064x", index * 7919L + 1);
+        return index % 3 == 0
+                ? new String[]{upload, photo}
+                : new String[]{photo, String.format("/demo-assets/photo/%s_%02d.webp", category, index % 12 + 2)};
+    }
+
+    static List<Item> items(int count) {
+        Field idField = ReflectionUtils.findField(Item.class, "itemId");
+        ReflectionUtils.makeAccessible(idField);
+        Instant now = Instant.now();
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Item item = new Item();
+            ReflectionUtils.setField(idField, item, (long) (i + 1));
+            item.setSellerId((long) (i % 50 + 1));
+            item.setTitle("二手 " + CATEGORIES[i % CATEGORIES.length] + " #" + i + " 九成新 自提优先");
+            item.setDescription("benchmark item " + i);
+            item.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            item.setPrice(BigDecimal.valueOf(100 + i * 13L, 2));
+            item.setStatus(ItemStatus.active.name());
+            item.setImages(images(i));
+            item.setCreatedAt(now.minusSeconds(i));
+            items.add(item);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.marketplace.bench;
+
+import com.example.marketplace.service.ImageStyleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageStyleBenchmark {
+
+    @Param({ImageStyleService.STYLE_PHOTO, ImageStyleService.STYLE_CARTOON})
+    public String style;
+
+    private ImageStyleService imageStyleService;
+    private String[] images;
+    private String externalUrl;
+
+    @Setup
+    public void setUp() {
+        imageStyleService = new ImageStyleService(Fixtures.listingDetailCache());
+        imageStyleService.setStyle(style);
+        images = new String[]{
+                "/demo-assets/photo/phone_01.webp",
+                "/demo-assets/photo/phone_02.webp",
+                "/demo-assets/photo/laptop_03.webp",
+                "/api/images/" + "ab".repeat(32),
+                "https://cdn.example.com/u/123/cover.jpg"};
+        externalUrl = images[4];
+    }
+
+    @Benchmark
+    public String[] rewriteImageUrls() {
+        return imageStyleService.rewriteImageUrls(images);
+    }
+
+    @Benchmark
+    public String rewriteUnrelatedUrl() {
+        return imageStyleService.rewriteImageUrl(externalUrl);
+    }
+}
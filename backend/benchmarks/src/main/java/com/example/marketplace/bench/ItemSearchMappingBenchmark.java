@@ -0,0 +1,71 @@
+package com.example.marketplace.bench;
+
+import com.example.marketplace.cache.ListingDetailCache;
+import com.example.marketplace.domain.item.Item;
+import com.example.marketplace.dto.item.ItemSearchResponse;
+import com.example.marketplace.repository.ItemRepository;
+import com.example.marketplace.service.ImageStyleService;
+import com.example.marketplace.service.ItemService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ItemService.searchItems} with the database taken out: the repository returns a ready page, so
+ * what is measured is argument handling plus mapping each row to its search DTO (thumbnail and image
+ * style rewriting included).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchMappingBenchmark {
+
+    @Param({"20", "100"})
+    public int size;
+
+    @Param({ImageStyleService.STYLE_PHOTO, ImageStyleService.STYLE_CARTOON})
+    public String style;
+
+    private ItemService itemService;
+
+    @Setup
+    public void setUp() {
+        List<Item> rows = Fixtures.items(size);
+        ItemRepository repository = (ItemRepository) Proxy.newProxyInstance(
+                ItemRepository.class.getClassLoader(),
+                new Class<?>[]{ItemRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "searchActiveItems" -> new PageImpl<>(rows, (Pageable) args[3], 10_000);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "ItemRepository(benchmark)";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        ListingDetailCache cache = Fixtures.listingDetailCache();
+        ImageStyleService imageStyleService = new ImageStyleService(cache);
+        imageStyleService.setStyle(style);
+        itemService = new ItemService(repository, false, null, null, imageStyleService, cache);
+    }
+
+    @Benchmark
+    public ItemSearchResponse searchPage() {
+        return itemService.searchItems(null, null, null, null, 1, size, null);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.marketplace.bench;
+
+import com.example.marketplace.domain.item.Item;
+import com.example.marketplace.dto.item.ItemSearchResponse;
+import com.example.marketplace.dto.item.ItemSearchResultItem;
+import com.example.marketplace.dto.thread.ThreadListItem;
+import com.example.marketplace.dto.thread.ThreadListResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response bodies of the two busiest list endpoints, written with an ObjectMapper configured the way
+ * Spring Boot configures the one behind its message converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ItemSearchResponse itemSearchResponse;
+    private ThreadListResponse threadListResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<ItemSearchResultItem> results = new ArrayList<>(size);
+        for (Item item : Fixtures.items(size)) {
+            ItemSearchResultItem dto = new ItemSearchResultItem();
+            dto.setItemId(item.getItemId());
+            dto.setTitle(item.getTitle());
+            dto.setPrice(item.getPrice());
+            dto.setStatus(item.getStatus());
+            dto.setThumbnailUrl(item.getImages()[0]);
+            results.add(dto);
+        }
+        itemSearchResponse = new ItemSearchResponse();
+        itemSearchResponse.setTotal(10_000L);
+        itemSearchResponse.setItems(results);
+
+        Instant now = Instant.now();
+        List<ThreadListItem> threads = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ThreadListItem thread = new ThreadListItem();
+            thread.setThreadId((long) i + 1);
+            thread.setTargetType("item");
+            thread.setTargetId((long) i * 3 + 1);
+            thread.setOtherUserId((long) i % 40 + 1);
+            thread.setOtherUsername("user_" + (i % 40));
+            thread.setLastMessageId((long) i * 10 + 7);
+            thread.setLastMessageContent("你好，这个还在吗？可以小刀吗 " + i);
+            thread.setLastMessageSenderUserId((long) i % 40 + 1);
+            thread.setLastMessageStatus("active");
+            thread.setLastMessageCreatedAt(now.minusSeconds(i * 60L));
+            thread.setUnreadCount(i % 4);
+            thread.setHasUnread(i % 4 != 0);
+            threads.add(thread);
+        }
+        threadListResponse = new ThreadListResponse();
+        threadListResponse.setTotal(size);
+        threadListResponse.setThreads(threads);
+    }
+
+    @Benchmark
+    public byte[] itemSearchResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(itemSearchResponse);
+    }
+
+    @Benchmark
+    public byte[] threadListResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(threadListResponse);
+    }
+}
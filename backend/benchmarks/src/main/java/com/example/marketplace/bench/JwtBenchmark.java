@@ -0,0 +1,72 @@
+package com.example.marketplace.bench;
+
+import com.example.marketplace.domain.user.User;
+import com.example.marketplace.domain.user.UserRole;
+import com.example.marketplace.security.AuthenticatedUser;
+import com.example.marketplace.security.JwtProperties;
+import com.example.marketplace.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code parseToken} is the full HS256 verification every request paid before the verified-token cache;
+ * {@code authenticateCached} is what a repeat request pays now, and {@code authenticateCachedContended} the same
+ * with 8 threads hitting the cache at once, as concurrent requests do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("ThisIsABenchmarkJwtSecretKeyOfEnoughLength!!");
+        provider = new JwtTokenProvider(properties);
+
+        User user = new User();
+        Field idField = ReflectionUtils.findField(User.class, "userId");
+        ReflectionUtils.makeAccessible(idField);
+        ReflectionUtils.setField(idField, user, 42L);
+        user.setUsername("bench_user");
+        user.setRole(UserRole.MEMBER);
+        token = provider.generateToken(user);
+        provider.authenticate(token);
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return provider.parseToken(token);
+    }
+
+    @Benchmark
+    public AuthenticatedUser authenticateCached() {
+        return provider.authenticate(token);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public AuthenticatedUser authenticateCachedContended() {
+        return provider.authenticate(token);
+    }
+}
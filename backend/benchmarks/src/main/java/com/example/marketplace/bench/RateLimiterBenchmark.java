@@ -0,0 +1,65 @@
+package com.example.marketplace.bench;
+
+import com.example.marketplace.ratelimit.InMemoryRateLimitStore;
+import com.example.marketplace.service.IpRateLimiter;
+import com.example.marketplace.service.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The in-memory limiter under contention: every thread on one key (one hot client) versus each thread on
+ * its own key (many clients). The policy is generous enough that no request is ever rejected, so only the
+ * bookkeeping is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final String POLICY = "benchmark";
+
+    private IpRateLimiter limiter;
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private static final AtomicInteger NEXT = new AtomicInteger();
+
+        final String key = "ip:10.0.0." + NEXT.incrementAndGet();
+    }
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setPolicies(Map.of(POLICY, new RateLimitProperties.Policy(Integer.MAX_VALUE, 3600)));
+        limiter = new IpRateLimiter(properties, new InMemoryRateLimitStore(properties), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public void sharedKey() {
+        limiter.checkRateLimit(POLICY, "ip:10.0.0.1");
+    }
+
+    @Benchmark
+    public void keyPerThread(Client client) {
+        limiter.checkRateLimit(POLICY, client.key);
+    }
+}
@@ -0,0 +1,363 @@
+package com.example.marketplace.loadtest;
+
+import com.example.marketplace.search.SearchTokenizer;
+import org.postgresql.PGConnection;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.SplittableRandom;
+
+/**
+ * Fills a migrated database with a marketplace-shaped dataset: users, listings, chat threads with their
+ * messages and inbox rows, and orders. Volumes are configurable; the defaults are the scale the list
+ * endpoints are meant to hold up at (100k users, 1M items, 10M messages).
+ * <p>
+ * Activity is skewed the way real marketplaces are: users are picked with a density that falls off with
+ * their index, so a few hundred "power users" own thousands of threads and orders each while most users
+ * have a handful. Those heavy inboxes are what {@code listMyThreads} and {@code listMyOrders} have to page
+ * through quickly.
+ * <p>
+ * Generated users are named {@code load_1 .. load_N} and share one password, so {@link LoadDriver} can log
+ * in as any of them. Ids are assigned above the current maximum of each table and the id sequences are moved
+ * past them afterwards, so the application keeps working normally on the seeded database.
+ */
+final class DataGenerator {
+
+    static final String USERNAME_PREFIX = "load_";
+    static final String DEFAULT_PASSWORD = "loadtest-pass";
+
+    private static final String[] CATEGORIES = {
+            "electronics", "furniture", "clothing", "books", "sports", "beauty", "appliance", "others"};
+    private static final String[][] PRODUCTS = {
+            {"iPhone 13 128G", "小米 13 Pro", "华为 MatePad 平板", "索尼 降噪耳机", "任天堂 Switch", "机械键盘 青轴", "罗技 无线鼠标", "27寸 4K 显示器"},
+            {"宜家 实木书桌", "人体工学椅", "北欧风 落地灯", "布艺 三人沙发", "折叠 餐桌", "四层 置物架", "床头柜 两件套", "懒人 沙发"},
+            {"优衣库 羽绒服", "Nike AF1 空军一号", "始祖鸟 抓绒外套", "李宁 运动裤", "Levi's 牛仔裤", "羊毛 围巾", "匡威 帆布鞋", "冲锋衣"},
+            {"考研 数学 全书", "三体 全集", "英语 四六级 真题", "算法导论 第三版", "线性代数 教材", "红楼梦 精装", "雅思 词汇", "Java 编程思想"},
+            {"尤尼克斯 羽毛球拍", "迪卡侬 山地自行车", "瑜伽垫 加厚", "哑铃 一对", "斯伯丁 篮球", "滑板 双翘", "跳绳 计数", "登山杖"},
+            {"迪奥 999 口红", "雅诗兰黛 小棕瓶", "兰蔻 粉水", "科颜氏 面霜", "香奈儿 香水", "SK-II 神仙水", "资生堂 防晒", "MAC 眼影盘"},
+            {"美的 电饭煲", "戴森 吹风机", "小熊 电煮锅", "飞利浦 电动牙刷", "格力 电风扇", "九阳 豆浆机", "小米 空气净化器", "海尔 迷你冰箱"},
+            {"猫爬架 三层", "星巴克 星礼卡", "吉他 民谣 41寸", "乐高 积木", "拍立得 相纸", "行李箱 24寸", "宿舍 小台灯", "多肉 盆栽"}};
+    private static final String[] TITLE_SUFFIXES = {"九成新", "几乎全新", "自提优先", "毕业清仓", "低价转让", "可小刀", "包邮", "原价购入"};
+    private static final String[] DESCRIPTIONS = {
+            "使用不到半年，功能完好，外观有轻微使用痕迹。",
+            "毕业搬家出，价格可小刀，同城可面交。",
+            "买来没怎么用，配件齐全，带原包装盒。",
+            "正常使用痕迹，不影响使用，介意勿拍。",
+            "个人闲置，非诚勿扰，支持当面验货。"};
+    private static final String[] CONDITIONS = {"new", "like_new", "good", "fair"};
+    private static final String[] MESSAGES = {
+            "你好，这个还在吗？", "还在的，可以看看", "能便宜一点吗？", "最低多少可以出？", "可以小刀，诚心要的话",
+            "什么时候方便面交？", "明天下午可以吗", "好的，到时候联系", "有没有划痕？", "发几张实拍图看看",
+            "已经发你了", "可以包邮吗？", "同城的话可以自提", "我考虑一下", "那就这么定了"};
+
+    private final Options options;
+    private final SplittableRandom random;
+    private final Instant now = Instant.now();
+
+    private long userBase;
+    private int users;
+    private long itemBase;
+    private long[] itemSeller;
+    private int[] itemPriceCents;
+
+    private DataGenerator(Options options) {
+        this.options = options;
+        this.random = new SplittableRandom(options.getLong("seed", 42));
+    }
+
+    static void run(Options options) throws SQLException {
+        options.requireOnly("jdbc-url", "db-user", "db-password", "users", "items", "threads", "messages", "orders",
+                "password", "seed");
+        new DataGenerator(options).generate();
+    }
+
+    private void generate() throws SQLException {
+        String url = options.get("jdbc-url", "jdbc:postgresql://localhost:5432/marketplace");
+        try (Connection connection = DriverManager.getConnection(url,
+                options.get("db-user", "marketplace"), options.get("db-password", "change-me"))) {
+            connection.setAutoCommit(false);
+            boolean postgres = connection.isWrapperFor(PGConnection.class);
+            if (postgres) {
+                try (Statement statement = connection.createStatement()) {
+                    // Losing the tail of a bulk load on a crash is fine; waiting for WAL flushes per commit is not.
+                    statement.execute("SET synchronous_commit = off");
+                }
+            }
+            if (count(connection, "SELECT count(*) FROM users WHERE username LIKE 'load\\_%'") > 0) {
+                throw new IllegalStateException("this database already holds generated users; seed a fresh database");
+            }
+
+            users = options.getInt("users", 100_000);
+            int items = options.getInt("items", 1_000_000);
+            long messages = options.getLong("messages", 10_000_000);
+            int threads = options.getInt("threads", (int) Math.max(1, messages / 20));
+            int orders = options.getInt("orders", 200_000);
+
+            generateUsers(connection);
+            generateItems(connection, items);
+            generateThreads(connection, threads, messages);
+            generateOrders(connection, orders);
+
+            resetSequence(connection, postgres, "users", "user_id");
+            resetSequence(connection, postgres, "items", "item_id");
+            resetSequence(connection, postgres, "threads", "thread_id");
+            resetSequence(connection, postgres, "messages", "message_id");
+            resetSequence(connection, postgres, "thread_participants", "participant_id");
+            resetSequence(connection, postgres, "orders", "order_id");
+            resetSequence(connection, postgres, "order_items", "order_item_id");
+            connection.commit();
+
+            if (postgres) {
+                connection.setAutoCommit(true);
+                long started = System.nanoTime();
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ANALYZE");
+                }
+                log("analyze", 0, started);
+            }
+        }
+    }
+
+    private void generateUsers(Connection connection) throws SQLException {
+        userBase = max(connection, "users", "user_id");
+        // One hash for everyone: BCrypt is deliberately slow, hashing 100k passwords would take minutes.
+        String passwordHash = new BCryptPasswordEncoder().encode(options.get("password", DEFAULT_PASSWORD));
+        long started = System.nanoTime();
+        try (RowSink sink = RowSink.open(connection, "users",
+                "user_id", "username", "password_hash", "contact_phone", "contact_email", "status", "role", "created_at")) {
+            for (int n = 1; n <= users; n++) {
+                sink.add(userBase + n, USERNAME_PREFIX + n, passwordHash, String.format("139%08d", n),
+                        USERNAME_PREFIX + n + "@example.com", "active", "MEMBER", pastInstant(Duration.ofDays(730)));
+            }
+        }
+        connection.commit();
+        log("users", users, started);
+    }
+
+    private void generateItems(Connection connection, int items) throws SQLException {
+        itemBase = max(connection, "items", "item_id");
+        itemSeller = new long[items];
+        itemPriceCents = new int[items];
+        long started = System.nanoTime();
+        try (RowSink sink = RowSink.open(connection, "items",
+                "item_id", "seller_id", "title", "description", "category", "price", "condition", "status", "images",
+                "search_tokens", "created_at", "updated_at")) {
+            for (int i = 0; i < items; i++) {
+                int category = random.nextInt(CATEGORIES.length);
+                String[] products = PRODUCTS[category];
+                String title = products[random.nextInt(products.length)] + " "
+                        + TITLE_SUFFIXES[random.nextInt(TITLE_SUFFIXES.length)];
+                String description = DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)];
+                itemSeller[i] = pickUser();
+                itemPriceCents[i] = 500 + random.nextInt(1_000_000);
+                Instant createdAt = pastInstant(Duration.ofDays(365));
+                String image = String.format("/demo-assets/photo/%s_%02d.webp", CATEGORIES[category], random.nextInt(15) + 1);
+                sink.add(itemBase + i + 1, itemSeller[i], title, description, CATEGORIES[category],
+                        BigDecimal.valueOf(itemPriceCents[i], 2), CONDITIONS[random.nextInt(CONDITIONS.length)],
+                        itemStatus(), new String[]{image}, SearchTokenizer.documentTokens(title, description),
+                        createdAt, createdAt);
+                progress("items", sink.rows(), started);
+            }
+        }
+        connection.commit();
+        log("items", items, started);
+    }
+
+    /**
+     * Threads are generated in three passes because each table references the previous one and a single
+     * connection can only run one COPY at a time: thread rows, then their messages (recording each
+     * thread's last message and unread counts), then the two inbox rows per thread.
+     */
+    private void generateThreads(Connection connection, int threads, long messages) throws SQLException {
+        long threadBase = max(connection, "threads", "thread_id");
+        long[] buyer = new long[threads];
+        long[] seller = new long[threads];
+        long[] createdAt = new long[threads];
+
+        long started = System.nanoTime();
+        try (RowSink sink = RowSink.open(connection, "threads",
+                "thread_id", "target_type", "target_id", "created_by_user_id", "status", "created_at", "updated_at")) {
+            for (int t = 0; t < threads; t++) {
+                int item = random.nextInt(itemSeller.length);
+                seller[t] = itemSeller[item];
+                buyer[t] = pickUser();
+                if (buyer[t] == seller[t]) {
+                    buyer[t] = userBase + (buyer[t] - userBase) % users + 1;
+                }
+                Instant created = pastInstant(Duration.ofDays(180));
+                createdAt[t] = created.toEpochMilli();
+                sink.add(threadBase + t + 1, "item", itemBase + item + 1, buyer[t], "active", created, created);
+            }
+        }
+        connection.commit();
+        log("threads", threads, started);
+
+        long messageBase = max(connection, "messages", "message_id");
+        long[] lastMessageId = new long[threads];
+        long[] lastMessageAt = new long[threads];
+        int[] buyerUnread = new int[threads];
+        int[] sellerUnread = new int[threads];
+        long average = Math.max(1, messages / threads);
+        long remaining = messages;
+        long messageId = messageBase;
+
+        started = System.nanoTime();
+        try (RowSink sink = RowSink.open(connection, "messages",
+                "message_id", "thread_id", "sender_user_id", "recipient_user_id", "content", "is_read", "read_at",
+                "status", "created_at", "updated_at")) {
+            for (int t = 0; t < threads; t++) {
+                long threadsLeft = threads - t;
+                long count = remaining <= threadsLeft ? 1 : Math.min(remaining - (threadsLeft - 1),
+                        1 + random.nextLong(2 * average - 1));
+                remaining -= count;
+                // The last few messages of a conversation are the ones the recipient has not read yet.
+                long unread = random.nextInt(4) == 0 ? Math.min(count, 1 + random.nextInt(3)) : 0;
+                long at = createdAt[t];
+                for (long m = 0; m < count; m++) {
+                    boolean fromBuyer = m % 2 == 0;
+                    at += 1_000L + random.nextInt(3_600_000);
+                    Instant sentAt = Instant.ofEpochMilli(Math.min(at, now.toEpochMilli()));
+                    boolean read = m < count - unread;
+                    sink.add(++messageId, threadBase + t + 1, fromBuyer ? buyer[t] : seller[t],
+                            fromBuyer ? seller[t] : buyer[t], MESSAGES[random.nextInt(MESSAGES.length)], read,
+                            read ? sentAt : null, "active", sentAt, sentAt);
+                    if (!read) {
+                        if (fromBuyer) {
+                            sellerUnread[t]++;
+                        } else {
+                            buyerUnread[t]++;
+                        }
+                    }
+                    lastMessageAt[t] = sentAt.toEpochMilli();
+                }
+                lastMessageId[t] = messageId;
+                progress("messages", sink.rows(), started);
+            }
+        }
+        connection.commit();
+        log("messages", messageId - messageBase, started);
+
+        long participantId = max(connection, "thread_participants", "participant_id");
+        started = System.nanoTime();
+        try (RowSink sink = RowSink.open(connection, "thread_participants",
+                "participant_id", "thread_id", "user_id", "counterpart_user_id", "last_message_id", "last_message_at",
+                "unread_count", "created_at", "updated_at")) {
+            for (int t = 0; t < threads; t++) {
+                Instant created = Instant.ofEpochMilli(createdAt[t]);
+                Instant last = Instant.ofEpochMilli(lastMessageAt[t]);
+                sink.add(++participantId, threadBase + t + 1, buyer[t], seller[t], lastMessageId[t], last,
+                        buyerUnread[t], created, last);
+                sink.add(++participantId, threadBase + t + 1, seller[t], buyer[t], lastMessageId[t], last,
+                        sellerUnread[t], created, last);
+            }
+        }
+        connection.commit();
+        log("thread_participants", 2L * threads, started);
+    }
+
+    private void generateOrders(Connection connection, int orders) throws SQLException {
+        long orderBase = max(connection, "orders", "order_id");
+        int[] orderItem = new int[orders];
+        Instant[] orderCreatedAt = new Instant[orders];
+
+        long started = System.nanoTime();
+        try (RowSink sink = RowSink.open(connection, "orders",
+                "order_id", "buyer_id", "seller_id", "total_amount", "status", "shipping_name", "shipping_phone",
+                "shipping_address", "payment_method", "created_at", "updated_at")) {
+            for (int o = 0; o < orders; o++) {
+                int item = random.nextInt(itemSeller.length);
+                long buyer = pickUser();
+                orderItem[o] = item;
+                orderCreatedAt[o] = pastInstant(Duration.ofDays(365));
+                sink.add(orderBase + o + 1, buyer, itemSeller[item], BigDecimal.valueOf(itemPriceCents[item], 2),
+                        orderStatus(), "收件人" + (buyer - userBase), String.format("139%08d", buyer - userBase),
+                        "某某市某某区学府路 " + (1 + random.nextInt(300)) + " 号", "wechat",
+                        orderCreatedAt[o], orderCreatedAt[o]);
+            }
+        }
+        connection.commit();
+
+        long orderItemBase = max(connection, "order_items", "order_item_id");
+        try (RowSink sink = RowSink.open(connection, "order_items",
+                "order_item_id", "order_id", "target_type", "target_id", "quantity", "price", "created_at")) {
+            for (int o = 0; o < orders; o++) {
+                int item = orderItem[o];
+                sink.add(orderItemBase + o + 1, orderBase + o + 1, "item", itemBase + item + 1, 1,
+                        BigDecimal.valueOf(itemPriceCents[item], 2), orderCreatedAt[o]);
+            }
+        }
+        connection.commit();
+        log("orders", orders, started);
+    }
+
+    /**
+     * A user id whose probability falls off with its index (the square of a uniform variable): the first 0.1%
+     * of users receive about 3% of all picks, the first 1% about 10%.
+     */
+    private long pickUser() {
+        double u = random.nextDouble();
+        return userBase + 1 + Math.min(users - 1, (long) (users * u * u));
+    }
+
+    private String itemStatus() {
+        int roll = random.nextInt(100);
+        return roll < 80 ? "active" : roll < 90 ? "off" : roll < 95 ? "deleted" : "draft";
+    }
+
+    private String orderStatus() {
+        int roll = random.nextInt(100);
+        return roll < 50 ? "completed" : roll < 75 ? "paid" : roll < 90 ? "created" : "canceled";
+    }
+
+    private Instant pastInstant(Duration within) {
+        return now.minusMillis(random.nextLong(within.toMillis()));
+    }
+
+    /**
+     * Moves the id sequence behind the column past the generated ids. On PostgreSQL {@code setval} to the
+     * maximum is enough: the next pooled block starts right above it whatever the increment. H2 has no
+     * {@code setval} for identity columns, so it is restarted one allocation block (50) higher.
+     */
+    private static void resetSequence(Connection connection, boolean postgres, String table, String column)
+            throws SQLException {
+        long max = max(connection, table, column);
+        try (Statement statement = connection.createStatement()) {
+            if (postgres) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', '" + column + "'), "
+                        + Math.max(1, max) + ")");
+            } else {
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN " + column + " RESTART WITH " + (max + 50));
+            }
+        }
+    }
+
+    private static long max(Connection connection, String table, String column) throws SQLException {
+        return count(connection, "SELECT coalesce(max(" + column + "), 0) FROM " + table);
+    }
+
+    private static long count(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void progress(String table, long rows, long started) {
+        if (rows % 1_000_000 == 0) {
+            log(table + " ...", rows, started);
+        }
+    }
+
+    private static void log(String table, long rows, long started) {
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("%-20s %,12d rows  %8.1f s  %,10.0f rows/s%n", table, rows, seconds,
+                seconds > 0 ? rows / seconds : 0);
+    }
+}
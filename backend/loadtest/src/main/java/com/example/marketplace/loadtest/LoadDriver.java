@@ -0,0 +1,338 @@
+package com.example.marketplace.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Drives the HTTP API of a running backend with a fixed number of virtual users. Each virtual user logs in
+ * once as one of the users created by {@link DataGenerator} and then loops over a weighted mix of read
+ * endpoints until the run ends, waiting {@code --think} between requests.
+ * <p>
+ * This is a closed model: a slow server also slows the offered load, so latencies under saturation read
+ * optimistic. Compare runs at the same concurrency and watch throughput together with the percentiles.
+ * Latencies recorded during {@code --warmup} are discarded. With {@code --metrics-url} the backend's own
+ * thread and memory gauges are sampled over the same window (see {@link ServerSampler}).
+ */
+final class LoadDriver {
+
+    private static final String[] KEYWORDS = {"小米", "耳机", "书桌", "Switch", "羽绒服", "口红", "考研", "自行车", "吹风机", "乐高"};
+    private static final String[] CATEGORIES = {
+            "electronics", "furniture", "clothing", "books", "sports", "beauty", "appliance", "others"};
+    // app.jwt.cookie-name
+    private static final String SESSION_COOKIE = "sid";
+    private static final long HIGHEST_TRACKABLE_MICROS = Duration.ofMinutes(1).toNanos() / 1000;
+
+    private final Options options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client;
+    private final String baseUrl;
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final int totalWeight;
+    // Item ids seen in search results, so that detail requests hit rows that exist.
+    private final AtomicLongArray itemIds = new AtomicLongArray(4096);
+    private final AtomicLong itemIdsSeen = new AtomicLong();
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    private LoadDriver(Options options) {
+        this.options = options;
+        this.baseUrl = options.get("base-url", "http://localhost:8080");
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        int weight = 0;
+        for (String entry : options.get("mix", "items.latest=30,items.keyword=20,items.category=15,items.detail=15,"
+                + "threads.mine=10,orders.mine=10").split(",")) {
+            String[] parts = entry.trim().split("=");
+            Endpoint endpoint = new Endpoint(parts[0], Integer.parseInt(parts[1]));
+            weight += endpoint.weight;
+            endpoints.add(endpoint);
+        }
+        this.totalWeight = weight;
+    }
+
+    static void run(Options options) throws Exception {
+        options.requireOnly("base-url", "concurrency", "duration", "warmup", "think", "users", "password", "mix", "out",
+                "metrics-url");
+        new LoadDriver(options).execute();
+    }
+
+    private void execute() throws Exception {
+        int concurrency = options.getInt("concurrency", 64);
+        Duration duration = options.getDuration("duration", Duration.ofSeconds(60));
+        Duration warmup = options.getDuration("warmup", Duration.ofSeconds(10));
+        long thinkMillis = options.getDuration("think", Duration.ZERO).toMillis();
+        int users = options.getInt("users", 100_000);
+        String password = options.get("password", DataGenerator.DEFAULT_PASSWORD);
+
+        System.out.printf("logging in %d virtual users against %s%n", concurrency, baseUrl);
+        String[] sessions = new String[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            sessions[i] = login(DataGenerator.USERNAME_PREFIX + pickUser(users), password);
+        }
+
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            String session = sessions[i];
+            Thread thread = new Thread(() -> {
+                try {
+                    virtualUser(session, thinkMillis);
+                } finally {
+                    done.countDown();
+                }
+            }, "vu-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        System.out.printf("warming up for %ds, then measuring for %ds%n", warmup.toSeconds(), duration.toSeconds());
+        Thread.sleep(warmup.toMillis());
+        String metricsUrl = options.get("metrics-url", null);
+        ServerSampler sampler = metricsUrl == null ? null : new ServerSampler(client, metricsUrl);
+        if (sampler != null) {
+            sampler.start();
+        }
+        recording = true;
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        long lastCount = 0;
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(Math.min(10_000, Math.max(1, (deadline - System.nanoTime()) / 1_000_000)));
+            long count = endpoints.stream().mapToLong(e -> e.histogram.getTotalCount() + e.errors.get()).sum();
+            System.out.printf("  %5ds  %,10d requests%n", (System.nanoTime() - started) / 1_000_000_000, count - lastCount);
+            lastCount = count;
+        }
+        recording = false;
+        double seconds = (System.nanoTime() - started) / 1e9;
+        if (sampler != null) {
+            sampler.stop();
+        }
+        running = false;
+        done.await();
+
+        report(seconds, concurrency, sampler);
+    }
+
+    private void virtualUser(String session, long thinkMillis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            Endpoint endpoint = pick(random.nextInt(totalWeight));
+            HttpRequest request = endpoint.factory.build(random)
+                    .header("Cookie", SESSION_COOKIE + "=" + session)
+                    .header("Accept", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+            long start = System.nanoTime();
+            try {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                long micros = (System.nanoTime() - start) / 1000;
+                if (response.statusCode() / 100 == 2) {
+                    if (recording) {
+                        endpoint.histogram.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                    }
+                    if (endpoint.name.startsWith("items.") && !endpoint.name.equals("items.detail")) {
+                        rememberItemIds(response.body());
+                    }
+                } else if (recording) {
+                    endpoint.errors.incrementAndGet();
+                    endpoint.statuses.merge(response.statusCode(), 1L, Long::sum);
+                }
+            } catch (IOException ex) {
+                if (recording) {
+                    endpoint.errors.incrementAndGet();
+                    endpoint.statuses.merge(-1, 1L, Long::sum);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (thinkMillis > 0) {
+                try {
+                    Thread.sleep(thinkMillis);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private Endpoint pick(int roll) {
+        for (Endpoint endpoint : endpoints) {
+            roll -= endpoint.weight;
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    private String login(String username, String password) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", password));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("login as " + username + " failed with status " + response.statusCode()
+                    + ": " + response.body() + " (is the backend running with the loadtest profile?)");
+        }
+        for (String cookie : response.headers().allValues("Set-Cookie")) {
+            if (cookie.startsWith(SESSION_COOKIE + "=")) {
+                int end = cookie.indexOf(';');
+                return cookie.substring(SESSION_COOKIE.length() + 1, end < 0 ? cookie.length() : end);
+            }
+        }
+        throw new IllegalStateException("login as " + username + " returned no session cookie");
+    }
+
+    private void rememberItemIds(byte[] body) {
+        try {
+            for (JsonNode item : objectMapper.readTree(body).path("items")) {
+                long slot = itemIdsSeen.getAndIncrement() % itemIds.length();
+                itemIds.set((int) slot, item.path("itemId").asLong());
+            }
+        } catch (IOException ignored) {
+            // A malformed body already shows up as a failed search; detail requests just fall back to the list.
+        }
+    }
+
+    // Same skew as the generator, so sessions include the heavy inboxes.
+    private static long pickUser(int users) {
+        double u = ThreadLocalRandom.current().nextDouble();
+        return 1 + Math.min(users - 1, (long) (users * u * u));
+    }
+
+    private void report(double seconds, int concurrency, ServerSampler sampler) throws IOException {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("baseUrl", baseUrl);
+        summary.put("concurrency", concurrency);
+        summary.put("durationSeconds", Math.round(seconds));
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long totalErrors = 0;
+
+        System.out.println();
+        System.out.printf("%-16s %10s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Endpoint endpoint : endpoints) {
+            rows.add(printRow(endpoint.name, endpoint.histogram, endpoint.errors.get(), seconds, endpoint.statuses));
+            total.add(endpoint.histogram);
+            totalErrors += endpoint.errors.get();
+        }
+        rows.add(printRow("total", total, totalErrors, seconds, Map.of()));
+        summary.put("endpoints", rows);
+        if (sampler != null) {
+            summary.put("server", sampler.report());
+        }
+
+        Path out = Path.of(options.get("out", "loadtest-results"),
+                "run-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        Files.createDirectories(out.getParent());
+        objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), summary);
+        System.out.println();
+        System.out.println("results written to " + out);
+    }
+
+    private static Map<String, Object> printRow(String name, Histogram histogram, long errors, double seconds,
+                                                Map<Integer, Long> statuses) {
+        long count = histogram.getTotalCount();
+        double throughput = (count + errors) / seconds;
+        double p50 = millis(histogram, 50);
+        double p90 = millis(histogram, 90);
+        double p99 = millis(histogram, 99);
+        double max = histogram.getMaxValue() / 1000.0;
+        System.out.printf("%-16s %,10d %,8d %,10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, count, errors, throughput, p50, p90, p99, max);
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("endpoint", name);
+        row.put("requests", count);
+        row.put("errors", errors);
+        if (!statuses.isEmpty()) {
+            // -1 counts connection failures and timeouts.
+            row.put("errorStatuses", statuses);
+        }
+        row.put("throughputPerSecond", throughput);
+        row.put("p50Ms", p50);
+        row.put("p90Ms", p90);
+        row.put("p99Ms", p99);
+        row.put("p999Ms", millis(histogram, 99.9));
+        row.put("maxMs", max);
+        return row;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private interface RequestFactory {
+        HttpRequest.Builder build(ThreadLocalRandom random);
+    }
+
+    private final class Endpoint {
+
+        final String name;
+        final int weight;
+        final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final AtomicLong errors = new AtomicLong();
+        final Map<Integer, Long> statuses = new ConcurrentHashMap<>();
+        final RequestFactory factory;
+
+        Endpoint(String name, int weight) {
+            this.name = name;
+            this.weight = weight;
+            this.factory = factoryFor(name);
+        }
+
+        private RequestFactory factoryFor(String name) {
+            return switch (name) {
+                case "items.latest" -> random -> get("/api/items?size=20");
+                case "items.keyword" -> random -> get("/api/items?size=20&keywords="
+                        + URLEncoder.encode(KEYWORDS[random.nextInt(KEYWORDS.length)], StandardCharsets.UTF_8));
+                case "items.category" -> random -> get("/api/items?size=20&category="
+                        + CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                case "items.detail" -> random -> {
+                    long seen = Math.min(itemIdsSeen.get(), itemIds.length());
+                    return seen == 0 ? get("/api/items?size=20")
+                            : get("/api/items/" + itemIds.get(random.nextInt((int) seen)));
+                };
+                case "threads.mine" -> random -> get("/api/threads?size=20");
+                case "orders.mine" -> random -> get("/api/orders?size=20&role=" + (random.nextBoolean() ? "buyer" : "seller"));
+                default -> throw new IllegalArgumentException("unknown endpoint in --mix: " + name
+                        + "; known: items.latest, items.keyword, items.category, items.detail, threads.mine, orders.mine");
+            };
+        }
+
+        private HttpRequest.Builder get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+        }
+    }
+}
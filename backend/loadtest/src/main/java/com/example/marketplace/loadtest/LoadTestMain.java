@@ -0,0 +1,27 @@
+package com.example.marketplace.loadtest;
+
+/**
+ * Entry point of the load-test jar: {@code seed} fills a database with generated data, {@code run} drives
+ * the HTTP API of a running backend against it.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String command = args.length > 0 ? args[0] : "help";
+        switch (command) {
+            case "seed" -> DataGenerator.run(new Options(args, 1));
+            case "run" -> LoadDriver.run(new Options(args, 1));
+            default -> {
+                System.out.println("usage: java -jar loadtest.jar seed [--jdbc-url=... --users=100000 --items=1000000 ...]");
+                System.out.println("       java -jar loadtest.jar run  [--base-url=http://localhost:8080 --concurrency=64 --duration=60s ...]");
+                System.out.println("see backend/loadtest/README.md for all options");
+                if (!"help".equals(command)) {
+                    System.exit(2);
+                }
+            }
+        }
+    }
+}
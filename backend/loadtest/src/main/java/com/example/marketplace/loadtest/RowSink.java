@@ -0,0 +1,167 @@
+package com.example.marketplace.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+/**
+ * Streams generated rows into one table. On PostgreSQL rows go through {@code COPY ... FROM STDIN}, which
+ * loads millions of rows an order of magnitude faster than even batched INSERTs; any other database (H2)
+ * gets JDBC batches.
+ * <p>
+ * Values may be {@code null}, {@link String}, {@link Number}, {@link Boolean}, {@link Instant} or
+ * {@code String[]} (a text array).
+ */
+abstract class RowSink implements AutoCloseable {
+
+    protected long rows;
+
+    static RowSink open(Connection connection, String table, String... columns) throws SQLException {
+        if (connection.isWrapperFor(PGConnection.class)) {
+            return new Copy(connection.unwrap(PGConnection.class), table, columns);
+        }
+        return new Batch(connection, table, columns);
+    }
+
+    abstract void add(Object... values) throws SQLException;
+
+    long rows() {
+        return rows;
+    }
+
+    @Override
+    public abstract void close() throws SQLException;
+
+    private static final class Copy extends RowSink {
+
+        private static final int FLUSH_BYTES = 1 << 20;
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_BYTES + 4096);
+
+        Copy(PGConnection connection, String table, String[] columns) throws SQLException {
+            this.copyIn = connection.getCopyAPI().copyIn(
+                    "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN");
+        }
+
+        @Override
+        void add(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append('\t');
+                }
+                appendValue(values[i]);
+            }
+            buffer.append('\n');
+            rows++;
+            if (buffer.length() >= FLUSH_BYTES) {
+                flush();
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (buffer.length() > 0) {
+                byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+                buffer.setLength(0);
+            }
+        }
+
+        private void appendValue(Object value) {
+            if (value == null) {
+                buffer.append("\\N");
+            } else if (value instanceof Boolean b) {
+                buffer.append(b ? 't' : 'f');
+            } else if (value instanceof String[] array) {
+                StringBuilder literal = new StringBuilder("{");
+                for (int i = 0; i < array.length; i++) {
+                    if (i > 0) {
+                        literal.append(',');
+                    }
+                    literal.append('"').append(array[i].replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+                }
+                appendText(literal.append('}').toString());
+            } else {
+                appendText(value.toString());
+            }
+        }
+
+        // COPY text format: backslash, tab and line breaks must be escaped inside a column.
+        private void appendText(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\' -> buffer.append("\\\\");
+                    case '\t' -> buffer.append("\\t");
+                    case '\n' -> buffer.append("\\n");
+                    case '\r' -> buffer.append("\\r");
+                    default -> buffer.append(c);
+                }
+            }
+        }
+    }
+
+    private static final class Batch extends RowSink {
+
+        private static final int BATCH_SIZE = 1000;
+
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private int pending;
+
+        Batch(Connection connection, String table, String[] columns) throws SQLException {
+            this.connection = connection;
+            this.statement = connection.prepareStatement("INSERT INTO " + table + " (" + String.join(", ", columns)
+                    + ") VALUES (" + "?, ".repeat(columns.length - 1) + "?)");
+        }
+
+        @Override
+        void add(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (value instanceof Instant instant) {
+                    statement.setObject(i + 1, instant.atOffset(ZoneOffset.UTC));
+                } else if (value instanceof String[] array) {
+                    statement.setArray(i + 1, connection.createArrayOf("VARCHAR", array));
+                } else {
+                    statement.setObject(i + 1, value);
+                }
+            }
+            statement.addBatch();
+            rows++;
+            if (++pending == BATCH_SIZE) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            } finally {
+                statement.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.marketplace.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Polls the backend's Prometheus endpoint once a second while a run is measured and keeps the peaks of the
+ * gauges that show what a threading model costs: live threads, heap and non-heap in use, and requests waiting
+ * for a pooled connection. GC pause time is reported as the increase over the run.
+ */
+final class ServerSampler {
+
+    private static final double MIB = 1024 * 1024;
+
+    private final HttpClient client;
+    private final URI metricsUri;
+    private final Map<String, Double> peaks = new LinkedHashMap<>();
+    private Double firstGcSeconds;
+    private Double lastGcSeconds;
+    private int samples;
+    private int failures;
+    private volatile boolean active;
+    private Thread thread;
+
+    ServerSampler(HttpClient client, String metricsUrl) {
+        this.client = client;
+        this.metricsUri = URI.create(metricsUrl);
+    }
+
+    void start() {
+        active = true;
+        thread = new Thread(() -> {
+            while (active) {
+                sample();
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException ex) {
+                    return;
+                }
+            }
+        }, "metrics-sampler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop() throws InterruptedException {
+        active = false;
+        thread.interrupt();
+        thread.join();
+        sample();
+    }
+
+    private void sample() {
+        HttpResponse<String> response;
+        try {
+            response = client.send(HttpRequest.newBuilder(metricsUri).timeout(Duration.ofSeconds(5)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+        } catch (IOException ex) {
+            failures++;
+            return;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (response.statusCode() != 200) {
+            failures++;
+            return;
+        }
+        Map<String, Double> values = new HashMap<>();
+        for (String line : response.body().split("\n")) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int brace = line.indexOf('{');
+            int space = line.lastIndexOf(' ');
+            String name = line.substring(0, brace >= 0 ? brace : space);
+            String labels = brace >= 0 ? line.substring(brace, line.lastIndexOf('}') + 1) : "";
+            double value = Double.parseDouble(line.substring(space + 1));
+            switch (name) {
+                case "jvm_threads_live_threads" -> values.merge("liveThreads", value, Double::sum);
+                case "jvm_memory_used_bytes" -> values.merge(
+                        labels.contains("area=\"heap\"") ? "heapUsedMiB" : "nonHeapUsedMiB", value / MIB, Double::sum);
+                case "hikaricp_connections_pending" -> values.merge("poolPending", value, Double::sum);
+                case "jvm_gc_pause_seconds_sum" -> values.merge("gcSeconds", value, Double::sum);
+                default -> {
+                }
+            }
+        }
+        synchronized (this) {
+            samples++;
+            Double gc = values.remove("gcSeconds");
+            if (gc != null) {
+                firstGcSeconds = firstGcSeconds == null ? gc : firstGcSeconds;
+                lastGcSeconds = gc;
+            }
+            values.forEach((key, value) -> peaks.merge(key, value, Math::max));
+        }
+    }
+
+    synchronized Map<String, Object> report() {
+        Map<String, Object> server = new LinkedHashMap<>();
+        server.put("metricsUrl", metricsUri.toString());
+        server.put("samples", samples);
+        server.put("failedSamples", failures);
+        System.out.println();
+        System.out.printf("server (%d samples of %s)%n", samples, metricsUri);
+        for (Map.Entry<String, Double> peak : peaks.entrySet()) {
+            String key = "peak" + Character.toUpperCase(peak.getKey().charAt(0)) + peak.getKey().substring(1);
+            server.put(key, peak.getValue());
+            System.out.printf("  %-20s %,12.1f%n", key, peak.getValue());
+        }
+        if (firstGcSeconds != null) {
+            double gcMillis = (lastGcSeconds - firstGcSeconds) * 1000;
+            server.put("gcPauseMs", gcMillis);
+            System.out.printf("  %-20s %,12.1f%n", "gcPauseMs", gcMillis);
+        }
+        return server;
+    }
+}
@@ -1,12 +1,21 @@
 package com.example.marketplace;
 
 import com.example.marketplace.security.JwtProperties;
+import com.example.marketplace.service.AuditProperties;
+import com.example.marketplace.service.DemoAssetProperties;
+import com.example.marketplace.service.MediaProperties;
+import com.example.marketplace.service.NotificationProperties;
+import com.example.marketplace.service.RateLimitProperties;
+import com.example.marketplace.service.SqlMonitorProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties(JwtProperties.class)
+@EnableScheduling
+@EnableConfigurationProperties({JwtProperties.class, AuditProperties.class, NotificationProperties.class,
+        RateLimitProperties.class, MediaProperties.class, DemoAssetProperties.class, SqlMonitorProperties.class})
 public class MarketplaceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,117 @@
+package com.example.marketplace.cache;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * A {@link ConcurrentHashMap} capped at roughly {@code maxSize} entries, for caches read on every request.
+ * Lookups take no shared lock and do not reorder anything. Once a write takes the map past the cap, one caller
+ * sweeps: first the entries the owner reports as {@code stale} (e.g. expired), then, if live entries alone are
+ * over the cap, arbitrary ones down to 90% of it so a steady stream of new keys sweeps once per
+ * {@code maxSize / 10} writes rather than on every write. Other callers never wait for a sweep.
+ */
+public class BoundedConcurrentMap<K, V> {
+
+    private final int maxSize;
+    private final Predicate<? super V> stale;
+    private final ConcurrentHashMap<K, V> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedConcurrentMap(int maxSize) {
+        this(maxSize, value -> false);
+    }
+
+    public BoundedConcurrentMap(int maxSize, Predicate<? super V> stale) {
+        this.maxSize = maxSize;
+        this.stale = stale;
+    }
+
+    public V get(K key) {
+        return entries.get(key);
+    }
+
+    public void put(K key, V value) {
+        entries.put(key, value);
+        checkSize();
+    }
+
+    /**
+     * {@link ConcurrentHashMap#compute}: atomic for the key, without blocking readers or other keys.
+     */
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+        V value = entries.compute(key, remapping);
+        checkSize();
+        return value;
+    }
+
+    /**
+     * Replaces the key's value only while it still maps to {@code expected}.
+     */
+    public boolean replace(K key, V expected, V value) {
+        return entries.replace(key, expected, value);
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes the key only while it still maps to {@code value}, so a newer entry put concurrently survives.
+     */
+    public void remove(K key, V value) {
+        entries.remove(key, value);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Entries dropped by sweeps since startup, stale or not.
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private void checkSize() {
+        if (entries.size() > maxSize) {
+            sweep();
+        }
+    }
+
+    private void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Iterator<V> values = entries.values().iterator();
+            while (values.hasNext()) {
+                if (stale.test(values.next())) {
+                    values.remove();
+                    evictions.increment();
+                }
+            }
+            int evict = entries.size() - maxSize;
+            if (evict > 0) {
+                evict += maxSize / 10;
+                Iterator<K> keys = entries.keySet().iterator();
+                while (evict-- > 0 && keys.hasNext()) {
+                    keys.next();
+                    keys.remove();
+                    evictions.increment();
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
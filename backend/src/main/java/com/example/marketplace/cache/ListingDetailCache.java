@@ -0,0 +1,88 @@
+package com.example.marketplace.cache;
+
+import com.example.marketplace.domain.common.TargetType;
+import com.example.marketplace.dto.demand.DemandDetailResponse;
+import com.example.marketplace.dto.item.ItemDetailResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Assembled item/demand detail responses, keyed by id. Writers call {@link #evict} for the listings they touch.
+ * Cached responses are shared between requests and must not be modified by callers.
+ * Disabled with {@code app.cache.listing-detail.enabled=false}, in which case every call loads.
+ */
+@Component
+public class ListingDetailCache {
+
+    private final boolean enabled;
+    private final TtlCache<Long, ItemDetailResponse> items;
+    private final TtlCache<Long, DemandDetailResponse> demands;
+
+    public ListingDetailCache(@Value("${app.cache.listing-detail.enabled:true}") boolean enabled,
+                              @Value("${app.cache.listing-detail.max-size:10000}") int maxSize,
+                              @Value("${app.cache.listing-detail.ttl-seconds:60}") long ttlSeconds,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.items = new TtlCache<>(maxSize, ttlSeconds, TimeUnit.SECONDS);
+        this.demands = new TtlCache<>(maxSize, ttlSeconds, TimeUnit.SECONDS);
+        bindMetrics(meterRegistry, "itemDetail", items);
+        bindMetrics(meterRegistry, "demandDetail", demands);
+    }
+
+    public ItemDetailResponse item(Long itemId, Supplier<ItemDetailResponse> loader) {
+        return enabled ? items.get(itemId, loader) : loader.get();
+    }
+
+    public DemandDetailResponse demand(Long demandId, Supplier<DemandDetailResponse> loader) {
+        return enabled ? demands.get(demandId, loader) : loader.get();
+    }
+
+    /**
+     * Evicts the listing now and again when the current transaction completes: the first eviction keeps the
+     * writer's own transaction from reading a stale entry, the second drops anything cached in between
+     * (an old committed value, or this transaction's values if it rolls back).
+     */
+    public void evict(TargetType targetType, Long targetId) {
+        TtlCache<Long, ?> cache = targetType == TargetType.item ? items : demands;
+        cache.invalidate(targetId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(targetId);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        items.invalidateAll();
+        demands.invalidateAll();
+    }
+
+    private static void bindMetrics(MeterRegistry registry, String name, TtlCache<?, ?> cache) {
+        FunctionCounter.builder("cache.gets", cache, TtlCache::hitCount)
+                .tag("cache", name).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, TtlCache::missCount)
+                .tag("cache", name).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, TtlCache::evictionCount)
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("cache.size", cache, TtlCache::size)
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("cache.hit.ratio", cache, TtlCache::hitRatio)
+                .tag("cache", name)
+                .register(registry);
+    }
+}
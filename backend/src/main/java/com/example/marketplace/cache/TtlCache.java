@@ -0,0 +1,126 @@
+package com.example.marketplace.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache: entries expire {@code ttl} after being loaded, and beyond {@code maxSize} expired
+ * entries and then arbitrary ones are dropped (see {@link BoundedConcurrentMap}). Hits take no lock.
+ * <p>
+ * A miss first puts a loading marker under the key, then loads without holding anything, and stores the value
+ * only if the marker is still there. Invalidating the key removes the marker, so a reader racing a writer can
+ * never re-cache the old value, while writes to other keys leave the load alone.
+ */
+public class TtlCache<K, V> {
+
+    private final long ttlNanos;
+    private final BoundedConcurrentMap<K, Entry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public TtlCache(int maxSize, long ttl, TimeUnit unit) {
+        this.ttlNanos = unit.toNanos(ttl);
+        this.entries = new BoundedConcurrentMap<>(maxSize, entry -> entry.isExpired(System.nanoTime()));
+    }
+
+    /**
+     * Cached value for the key, or the loader's result (which is then cached). Exceptions from the loader
+     * propagate and nothing is cached.
+     */
+    public V get(K key, Supplier<V> loader) {
+        long now = System.nanoTime();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.isFresh(now)) {
+            hits.increment();
+            return entry.value;
+        }
+
+        misses.increment();
+        // Reuses a marker already placed by a concurrent miss: no invalidation has happened since it was placed.
+        Entry<V> marker = entries.compute(key, (k, current) -> {
+            if (current == null) {
+                return Entry.loading();
+            }
+            if (current.isExpired(now)) {
+                expirations.increment();
+                return Entry.loading();
+            }
+            return current;
+        });
+        if (marker.isFresh(now)) {
+            // Another reader stored it in the meantime.
+            return marker.value;
+        }
+
+        boolean stored = false;
+        try {
+            V value = loader.get();
+            if (value != null) {
+                stored = entries.replace(key, marker, new Entry<>(value, System.nanoTime() + ttlNanos));
+            }
+            return value;
+        } finally {
+            if (!stored) {
+                entries.remove(key, marker);
+            }
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return expirations.sum() + entries.evictionCount();
+    }
+
+    /**
+     * Hits over all lookups since startup; 0 before the first lookup.
+     */
+    public double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        // A distinct instance per load, compared by identity.
+        private static <V> Entry<V> loading() {
+            return new Entry<>(null, 0);
+        }
+
+        private boolean isFresh(long now) {
+            return value != null && now - expiresAt < 0;
+        }
+
+        private boolean isExpired(long now) {
+            return value != null && now - expiresAt >= 0;
+        }
+    }
+}
@@ -36,8 +36,7 @@ public class AuthController {
     @PostMapping("/register")
     public ResponseEntity<RegisterResponse> register(@Valid @RequestBody RegisterRequest request,
                                                      HttpServletRequest httpRequest) {
-        String key = httpRequest.getRemoteAddr() + ":REGISTER";
-        ipRateLimiter.checkRateLimit(key);
+        ipRateLimiter.checkRateLimit(IpRateLimiter.REGISTER, httpRequest);
         Long userId = authService.register(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(new RegisterResponse(userId));
     }
@@ -46,8 +45,7 @@ public class AuthController {
     public ResponseEntity<Void> login(@Valid @RequestBody LoginRequest request,
                                       HttpServletRequest httpRequest,
                                       HttpServletResponse response) {
-        String key = httpRequest.getRemoteAddr() + ":LOGIN";
-        ipRateLimiter.checkRateLimit(key);
+        ipRateLimiter.checkRateLimit(IpRateLimiter.LOGIN, httpRequest);
         String token = authService.login(request);
 
         Cookie cookie = new Cookie(jwtProperties.getCookieName(), token);
@@ -9,6 +9,8 @@ import com.example.marketplace.dto.thread.CreateThreadRequest;
 import com.example.marketplace.dto.thread.CreateThreadResponse;
 import com.example.marketplace.dto.thread.ThreadListResponse;
 import com.example.marketplace.service.ChatService;
+import com.example.marketplace.service.IpRateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,9 +28,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class ChatController {
 
     private final ChatService chatService;
+    private final IpRateLimiter ipRateLimiter;
 
-    public ChatController(ChatService chatService) {
+    public ChatController(ChatService chatService, IpRateLimiter ipRateLimiter) {
         this.chatService = chatService;
+        this.ipRateLimiter = ipRateLimiter;
     }
 
     @GetMapping
@@ -39,7 +43,9 @@ public class ChatController {
     }
 
     @PostMapping
-    public ResponseEntity<CreateThreadResponse> createThread(@Valid @RequestBody CreateThreadRequest request) {
+    public ResponseEntity<CreateThreadResponse> createThread(@Valid @RequestBody CreateThreadRequest request,
+                                                             HttpServletRequest httpRequest) {
+        ipRateLimiter.checkRateLimit(IpRateLimiter.MESSAGE_SEND, httpRequest);
         ChatThread thread = chatService.createThreadWithFirstMessage(request);
         CreateThreadResponse response = new CreateThreadResponse(thread.getThreadId());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
@@ -55,7 +61,9 @@ public class ChatController {
 
     @PostMapping("/{id}/messages")
     public ResponseEntity<MessageListItem> sendMessage(@PathVariable("id") Long id,
-                                                       @Valid @RequestBody SendMessageRequest request) {
+                                                       @Valid @RequestBody SendMessageRequest request,
+                                                       HttpServletRequest httpRequest) {
+        ipRateLimiter.checkRateLimit(IpRateLimiter.MESSAGE_SEND, httpRequest);
         MessageListItem response = chatService.sendMessage(id, request.getContent());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
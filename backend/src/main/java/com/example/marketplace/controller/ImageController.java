@@ -0,0 +1,78 @@
+package com.example.marketplace.controller;
+
+import com.example.marketplace.domain.image.ImageAsset;
+import com.example.marketplace.dto.image.ImageUploadResponse;
+import com.example.marketplace.service.ImageService;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+
+    // A hash names exactly one content, so responses never go stale.
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    private final ImageService imageService;
+
+    public ImageController(ImageService imageService) {
+        this.imageService = imageService;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImageUploadResponse> upload(@RequestParam("file") MultipartFile file) {
+        ImageUploadResponse response = imageService.upload(file);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping("/{hash}")
+    public ResponseEntity<Resource> getImage(@PathVariable String hash, WebRequest webRequest) {
+        // The ETag is the hash itself, so a revalidation is answered without touching the database.
+        if (webRequest.checkNotModified("\"" + hash + "\"")) {
+            return null;
+        }
+        ImageAsset asset = imageService.getAsset(hash);
+        return ResponseEntity.ok()
+                .eTag("\"" + hash + "\"")
+                .cacheControl(IMMUTABLE)
+                .contentType(MediaType.parseMediaType(asset.getContentType()))
+                .body(imageService.openOriginal(asset));
+    }
+
+    @GetMapping("/{hash}/thumb")
+    public ResponseEntity<Resource> getThumbnail(@PathVariable String hash, WebRequest webRequest) {
+        String etag = imageService.thumbnailEtag(hash);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        ImageAsset asset = imageService.getAsset(hash);
+        Optional<Resource> thumbnail = imageService.openThumbnail(asset);
+        if (thumbnail.isEmpty()) {
+            // Not generated yet: send the client to the original, but only for now.
+            return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                    .location(URI.create(ImageService.URL_PREFIX + asset.getImageHash()))
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(IMMUTABLE)
+                .contentType(MediaType.parseMediaType(asset.getThumbnailContentType()))
+                .body(thumbnail.get());
+    }
+}
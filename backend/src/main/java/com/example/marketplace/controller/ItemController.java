@@ -38,8 +38,9 @@ public class ItemController {
                                                           @RequestParam(required = false) BigDecimal minPrice,
                                                           @RequestParam(required = false) BigDecimal maxPrice,
                                                           @RequestParam(defaultValue = "1") int page,
-                                                          @RequestParam(defaultValue = "20") int size) {
-        ItemSearchResponse response = itemService.searchItems(keywords, category, minPrice, maxPrice, page, size);
+                                                          @RequestParam(defaultValue = "20") int size,
+                                                          @RequestParam(required = false) String cursor) {
+        ItemSearchResponse response = itemService.searchItems(keywords, category, minPrice, maxPrice, page, size, cursor);
         return ResponseEntity.ok(response);
     }
 
@@ -3,7 +3,9 @@ package com.example.marketplace.controller;
 import com.example.marketplace.domain.offer.Offer;
 import com.example.marketplace.dto.offer.CreateOfferRequest;
 import com.example.marketplace.dto.offer.CreateOfferResponse;
+import com.example.marketplace.service.IpRateLimiter;
 import com.example.marketplace.service.OfferService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -20,13 +22,17 @@ import org.springframework.web.bind.annotation.RestController;
 public class OfferController {
 
     private final OfferService offerService;
+    private final IpRateLimiter ipRateLimiter;
 
-    public OfferController(OfferService offerService) {
+    public OfferController(OfferService offerService, IpRateLimiter ipRateLimiter) {
         this.offerService = offerService;
+        this.ipRateLimiter = ipRateLimiter;
     }
 
     @PostMapping
-    public ResponseEntity<CreateOfferResponse> createOffer(@Valid @RequestBody CreateOfferRequest request) {
+    public ResponseEntity<CreateOfferResponse> createOffer(@Valid @RequestBody CreateOfferRequest request,
+                                                           HttpServletRequest httpRequest) {
+        ipRateLimiter.checkRateLimit(IpRateLimiter.OFFER_CREATE, httpRequest);
         Offer offer = offerService.createOffer(request);
         CreateOfferResponse response = new CreateOfferResponse(offer.getOfferId(), offer.getStatus().name());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
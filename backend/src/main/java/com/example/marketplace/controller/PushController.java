@@ -0,0 +1,33 @@
+package com.example.marketplace.controller;
+
+import com.example.marketplace.exception.BusinessException;
+import com.example.marketplace.exception.ErrorCode;
+import com.example.marketplace.push.PushBroker;
+import com.example.marketplace.security.AuthenticatedUser;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/push")
+public class PushController {
+
+    private final PushBroker pushBroker;
+
+    public PushController(PushBroker pushBroker) {
+        this.pushBroker = pushBroker;
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser principal)) {
+            throw new BusinessException(ErrorCode.AUTH_REQUIRED, "Authentication required");
+        }
+        return pushBroker.open(principal.getUserId());
+    }
+}
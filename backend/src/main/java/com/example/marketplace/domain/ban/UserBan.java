@@ -7,6 +7,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 import java.time.Instant;
@@ -16,7 +17,8 @@ import java.time.Instant;
 public class UserBan {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_bans_ban_id_seq")
+    @SequenceGenerator(name = "user_bans_ban_id_seq", sequenceName = "user_bans_ban_id_seq", allocationSize = 50)
     @Column(name = "ban_id")
     private Long banId;
 
@@ -10,7 +10,8 @@ import java.time.Instant;
 public class Comment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_comment_id_seq")
+    @SequenceGenerator(name = "comments_comment_id_seq", sequenceName = "comments_comment_id_seq", allocationSize = 50)
     @Column(name = "comment_id")
     private Long commentId;
 
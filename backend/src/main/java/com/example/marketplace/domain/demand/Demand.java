@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 import java.math.BigDecimal;
@@ -15,7 +16,8 @@ import java.time.Instant;
 public class Demand {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "demands_demand_id_seq")
+    @SequenceGenerator(name = "demands_demand_id_seq", sequenceName = "demands_demand_id_seq", allocationSize = 50)
     @Column(name = "demand_id")
     private Long demandId;
 
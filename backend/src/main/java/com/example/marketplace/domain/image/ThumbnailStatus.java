@@ -0,0 +1,8 @@
+package com.example.marketplace.domain.image;
+
+public enum ThumbnailStatus {
+
+    pending,
+    ready,
+    failed
+}
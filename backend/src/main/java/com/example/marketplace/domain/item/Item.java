@@ -5,8 +5,13 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
+import com.example.marketplace.search.SearchTokenizer;
+
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -18,7 +23,8 @@ import java.time.Instant;
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_item_id_seq")
+    @SequenceGenerator(name = "items_item_id_seq", sequenceName = "items_item_id_seq", allocationSize = 50)
     @Column(name = "item_id")
     private Long itemId;
 
@@ -56,6 +62,15 @@ public class Item {
     @Column(name = "deleted_at")
     private Instant deletedAt;
 
+    @Column(name = "search_tokens", columnDefinition = "text")
+    private String searchTokens;
+
+    @PrePersist
+    @PreUpdate
+    void refreshSearchTokens() {
+        this.searchTokens = SearchTokenizer.documentTokens(title, description);
+    }
+
     public Long getItemId() {
         return itemId;
     }
@@ -147,4 +162,8 @@ public class Item {
     public void setDeletedAt(Instant deletedAt) {
         this.deletedAt = deletedAt;
     }
+
+    public String getSearchTokens() {
+        return searchTokens;
+    }
 }
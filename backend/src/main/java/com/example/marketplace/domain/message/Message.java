@@ -10,7 +10,8 @@ import java.time.Instant;
 public class Message {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "messages_message_id_seq")
+    @SequenceGenerator(name = "messages_message_id_seq", sequenceName = "messages_message_id_seq", allocationSize = 50)
     @Column(name = "message_id")
     private Long messageId;
 
@@ -11,7 +11,8 @@ import java.time.Instant;
 public class Offer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "offers_offer_id_seq")
+    @SequenceGenerator(name = "offers_offer_id_seq", sequenceName = "offers_offer_id_seq", allocationSize = 50)
     @Column(name = "offer_id")
     private Long offerId;
 
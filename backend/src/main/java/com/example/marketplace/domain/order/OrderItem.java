@@ -8,6 +8,7 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 import java.math.BigDecimal;
@@ -18,7 +19,8 @@ import java.time.Instant;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_order_item_id_seq")
+    @SequenceGenerator(name = "order_items_order_item_id_seq", sequenceName = "order_items_order_item_id_seq", allocationSize = 50)
     @Column(name = "order_item_id")
     private Long orderItemId;
 
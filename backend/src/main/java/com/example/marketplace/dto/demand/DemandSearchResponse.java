@@ -4,14 +4,18 @@ import java.util.List;
 
 public class DemandSearchResponse {
 
-    private long total;
+    private Long total;
     private List<DemandSearchResultItem> demands;
+    private String nextCursor;
 
-    public long getTotal() {
+    /**
+     * Null in cursor mode, where the count query is skipped.
+     */
+    public Long getTotal() {
         return total;
     }
 
-    public void setTotal(long total) {
+    public void setTotal(Long total) {
         this.total = total;
     }
 
@@ -22,4 +26,12 @@ public class DemandSearchResponse {
     public void setDemands(List<DemandSearchResultItem> demands) {
         this.demands = demands;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
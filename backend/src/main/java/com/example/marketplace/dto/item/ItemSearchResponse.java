@@ -4,14 +4,18 @@ import java.util.List;
 
 public class ItemSearchResponse {
 
-    private long total;
+    private Long total;
     private List<ItemSearchResultItem> items;
+    private String nextCursor;
 
-    public long getTotal() {
+    /**
+     * Null in cursor mode, where the count query is skipped.
+     */
+    public Long getTotal() {
         return total;
     }
 
-    public void setTotal(long total) {
+    public void setTotal(Long total) {
         this.total = total;
     }
 
@@ -22,4 +26,12 @@ public class ItemSearchResponse {
     public void setItems(List<ItemSearchResultItem> items) {
         this.items = items;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
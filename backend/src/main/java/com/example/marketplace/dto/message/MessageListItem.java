@@ -5,6 +5,7 @@ import java.time.Instant;
 public class MessageListItem {
 
     private Long messageId;
+    private Long threadId;
     private Long senderUserId;
     private Long recipientUserId;
     private String content;
@@ -20,6 +21,14 @@ public class MessageListItem {
         this.messageId = messageId;
     }
 
+    public Long getThreadId() {
+        return threadId;
+    }
+
+    public void setThreadId(Long threadId) {
+        this.threadId = threadId;
+    }
+
     public Long getSenderUserId() {
         return senderUserId;
     }
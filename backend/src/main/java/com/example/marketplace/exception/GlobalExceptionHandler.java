@@ -1,6 +1,7 @@
 package com.example.marketplace.exception;
 
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -15,6 +16,11 @@ public class GlobalExceptionHandler {
         ErrorCode code = ex.getErrorCode();
         HttpStatus status = mapStatus(code);
         ApiErrorResponse body = new ApiErrorResponse(code.name(), ex.getMessage());
+        if (ex instanceof RateLimitExceededException rateLimited) {
+            return ResponseEntity.status(status)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(rateLimited.getRetryAfterSeconds()))
+                    .body(body);
+        }
         return new ResponseEntity<>(body, status);
     }
 
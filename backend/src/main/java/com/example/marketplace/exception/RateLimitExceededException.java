@@ -0,0 +1,19 @@
+package com.example.marketplace.exception;
+
+/**
+ * {@link ErrorCode#RATE_LIMITED} with the number of seconds after which the client may retry,
+ * sent back as the {@code Retry-After} header.
+ */
+public class RateLimitExceededException extends BusinessException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super(ErrorCode.RATE_LIMITED, "Too many requests");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
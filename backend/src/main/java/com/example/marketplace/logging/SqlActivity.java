@@ -0,0 +1,65 @@
+package com.example.marketplace.logging;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JDBC statements executed by the current request: how many, how long they took, and which SQL ran most often.
+ * Collected on the request thread only; work handed to background executors is not attributed to the request.
+ */
+public final class SqlActivity {
+
+    private static final ThreadLocal<SqlActivity> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long nanos;
+    private final Map<String, Integer> executions = new HashMap<>();
+
+    private SqlActivity() {
+    }
+
+    static SqlActivity begin() {
+        SqlActivity activity = new SqlActivity();
+        CURRENT.set(activity);
+        return activity;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Called by the instrumented data source after every statement execution; a no-op outside a request.
+     */
+    static void record(String sql, long elapsedNanos) {
+        SqlActivity activity = CURRENT.get();
+        if (activity != null) {
+            activity.statements++;
+            activity.nanos += elapsedNanos;
+            if (sql != null) {
+                activity.executions.merge(sql, 1, Integer::sum);
+            }
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getMillis() {
+        return nanos / 1_000_000;
+    }
+
+    /**
+     * The SQL executed most often, or {@code null} when nothing ran.
+     */
+    public Map.Entry<String, Integer> mostRepeated() {
+        Map.Entry<String, Integer> top = null;
+        for (Map.Entry<String, Integer> entry : executions.entrySet()) {
+            if (top == null || entry.getValue() > top.getValue()) {
+                top = entry;
+            }
+        }
+        return top;
+    }
+}
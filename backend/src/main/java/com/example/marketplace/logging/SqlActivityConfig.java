@@ -0,0 +1,27 @@
+package com.example.marketplace.logging;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.sql-monitor", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlActivityConfig {
+
+    // Static so the post-processor is created before, and independently of, the beans it wraps.
+    @Bean
+    public static BeanPostProcessor sqlActivityDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlActivityDataSource)) {
+                    return new SqlActivityDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
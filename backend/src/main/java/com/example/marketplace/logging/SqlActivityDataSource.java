@@ -0,0 +1,131 @@
+package com.example.marketplace.logging;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps the pool so that every statement execution is timed and reported to {@link SqlActivity}. It sits below
+ * Hibernate, Spring Data and JdbcTemplate alike, so native queries and raw JDBC are counted too. A batch counts
+ * as one statement: it is one round trip. The time covers execution only, not reading the rows afterwards.
+ */
+public class SqlActivityDataSource extends DelegatingDataSource {
+
+    public SqlActivityDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(SqlActivityDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        // Identity of the proxy itself; delegating would make a proxy unequal to itself.
+        if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+            return args[0] != null && Proxy.isProxyClass(args[0].getClass())
+                    && Proxy.getInvocationHandler(args[0]) instanceof TargetHolder holder && holder.target() == target;
+        }
+        if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+            return System.identityHashCode(target);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private interface TargetHolder extends InvocationHandler {
+        Object target();
+    }
+
+    private static final class ConnectionHandler implements TargetHolder {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object target() {
+            return target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlActivityDataSource.invoke(target, method, args);
+            Class<?> type;
+            String sql = null;
+            switch (method.getName()) {
+                case "createStatement" -> type = Statement.class;
+                case "prepareStatement" -> {
+                    type = PreparedStatement.class;
+                    sql = (String) args[0];
+                }
+                case "prepareCall" -> {
+                    type = CallableStatement.class;
+                    sql = (String) args[0];
+                }
+                default -> {
+                    return result;
+                }
+            }
+            return Proxy.newProxyInstance(SqlActivityDataSource.class.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler(result, sql));
+        }
+    }
+
+    private static final class StatementHandler implements TargetHolder {
+
+        private final Object target;
+        private final String preparedSql;
+
+        StatementHandler(Object target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object target() {
+            return target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return SqlActivityDataSource.invoke(target, method, args);
+            }
+            String sql = preparedSql;
+            if (sql == null && args != null && args.length > 0 && args[0] instanceof String text) {
+                sql = text;
+            }
+            long start = System.nanoTime();
+            try {
+                return SqlActivityDataSource.invoke(target, method, args);
+            } finally {
+                SqlActivity.record(sql, System.nanoTime() - start);
+            }
+        }
+    }
+}
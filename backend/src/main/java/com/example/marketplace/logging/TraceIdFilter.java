@@ -1,21 +1,44 @@
 package com.example.marketplace.logging;
 
+import com.example.marketplace.service.SqlMonitorProperties;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Gives every request a trace id (taken from {@code X-Trace-Id} when the caller sends one) and, with
+ * {@code app.sql-monitor} enabled, collects the request's JDBC activity under that id: a request that runs too
+ * many statements, spends too long in them, or repeats the same SQL (the N+1 pattern) is logged as a warning.
+ */
 @Component
 public class TraceIdFilter extends OncePerRequestFilter {
 
+    private static final Logger logger = LoggerFactory.getLogger(TraceIdFilter.class);
+
     private static final String TRACE_ID_HEADER = "X-Trace-Id";
     private static final String TRACE_ID_MDC_KEY = "traceId";
+    static final String SQL_COUNT_HEADER = "X-SQL-Count";
+    static final String SQL_TIME_HEADER = "X-SQL-Time-Ms";
+    private static final int MAX_LOGGED_SQL_LENGTH = 300;
+
+    private final SqlMonitorProperties sqlMonitor;
+
+    public TraceIdFilter(SqlMonitorProperties sqlMonitor) {
+        this.sqlMonitor = sqlMonitor;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -29,10 +52,107 @@ public class TraceIdFilter extends OncePerRequestFilter {
         MDC.put(TRACE_ID_MDC_KEY, traceId);
         response.setHeader(TRACE_ID_HEADER, traceId);
 
+        if (!sqlMonitor.isEnabled()) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                MDC.remove(TRACE_ID_MDC_KEY);
+            }
+            return;
+        }
+
+        SqlActivity activity = SqlActivity.begin();
+        SqlHeaderResponse headerResponse = sqlMonitor.isResponseHeaders() ? new SqlHeaderResponse(response, activity) : null;
         try {
-            filterChain.doFilter(request, response);
+            filterChain.doFilter(request, headerResponse != null ? headerResponse : response);
         } finally {
+            SqlActivity.end();
+            if (headerResponse != null) {
+                headerResponse.writeSqlHeaders();
+            }
+            reportSqlActivity(request, activity, traceId);
             MDC.remove(TRACE_ID_MDC_KEY);
         }
     }
+
+    private void reportSqlActivity(HttpServletRequest request, SqlActivity activity, String traceId) {
+        Map.Entry<String, Integer> repeated = activity.mostRepeated();
+        boolean tooMany = activity.getStatements() > sqlMonitor.getStatementThreshold();
+        boolean tooSlow = activity.getMillis() > sqlMonitor.getTimeThresholdMs();
+        boolean nPlusOne = repeated != null && repeated.getValue() >= sqlMonitor.getRepeatedStatementThreshold();
+        if (!tooMany && !tooSlow && !nPlusOne) {
+            return;
+        }
+        String sql = repeated == null ? "-" : abbreviate(repeated.getKey());
+        logger.warn("SQL budget exceeded traceId={} {} {}: {} statements (limit {}), {} ms in JDBC (limit {}); "
+                        + "most repeated {}x{}: {}",
+                traceId, request.getMethod(), request.getRequestURI(),
+                activity.getStatements(), sqlMonitor.getStatementThreshold(),
+                activity.getMillis(), sqlMonitor.getTimeThresholdMs(),
+                repeated == null ? 0 : repeated.getValue(), nPlusOne ? " (likely N+1)" : "", sql);
+    }
+
+    private static String abbreviate(String sql) {
+        String flat = sql.replaceAll("\\s+", " ").trim();
+        return flat.length() <= MAX_LOGGED_SQL_LENGTH ? flat : flat.substring(0, MAX_LOGGED_SQL_LENGTH) + "...";
+    }
+
+    /**
+     * Adds the SQL headers just before the response commits, which is when the body starts being written:
+     * by then the handler has run its queries, and afterwards headers can no longer be added.
+     */
+    private static final class SqlHeaderResponse extends HttpServletResponseWrapper {
+
+        private final SqlActivity activity;
+        private boolean written;
+
+        SqlHeaderResponse(HttpServletResponse response, SqlActivity activity) {
+            super(response);
+            this.activity = activity;
+        }
+
+        void writeSqlHeaders() {
+            if (!written && !isCommitted()) {
+                written = true;
+                setHeader(SQL_COUNT_HEADER, Integer.toString(activity.getStatements()));
+                setHeader(SQL_TIME_HEADER, Long.toString(activity.getMillis()));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeSqlHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeSqlHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeSqlHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeSqlHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeSqlHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeSqlHeaders();
+            super.sendRedirect(location);
+        }
+    }
 }
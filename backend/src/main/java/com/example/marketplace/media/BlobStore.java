@@ -0,0 +1,19 @@
+package com.example.marketplace.media;
+
+import org.springframework.core.io.Resource;
+
+import java.util.Optional;
+
+/**
+ * Storage for uploaded image bytes. Keys are derived from the content hash, so a key is written at most
+ * once and never changes afterwards; implementations may treat a second {@code put} of an existing key
+ * as a no-op.
+ */
+public interface BlobStore {
+
+    void put(String key, byte[] data, String contentType);
+
+    Optional<Resource> get(String key);
+
+    boolean exists(String key);
+}
@@ -0,0 +1,32 @@
+package com.example.marketplace.media;
+
+import com.example.marketplace.service.DemoAssetProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.demo-assets", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DemoAssetConfig {
+
+    @Bean
+    public DemoAssetHandler demoAssetHandler(DemoAssetProperties properties) {
+        return new DemoAssetHandler(properties);
+    }
+
+    /**
+     * Ahead of Spring Boot's catch-all static resource mapping, which would otherwise read each file
+     * through the heap.
+     */
+    @Bean
+    public SimpleUrlHandlerMapping demoAssetHandlerMapping(DemoAssetHandler demoAssetHandler) {
+        SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping(
+                Map.of(DemoAssetHandler.URL_PREFIX + "**", demoAssetHandler));
+        mapping.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return mapping;
+    }
+}
@@ -0,0 +1,338 @@
+package com.example.marketplace.media;
+
+import com.example.marketplace.service.DemoAssetProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.HttpRequestHandler;
+import org.springframework.web.util.UriUtils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves {@code /demo-assets/**} straight from disk. The directory is indexed once at startup: each file's
+ * length, content-hash ETag and precompressed variants are looked up in a map, so a request never touches
+ * the file system until the body is sent. Bodies go out through Tomcat's sendfile (the connector hands
+ * the file to {@code FileChannel.transferTo}, so the bytes never enter the heap) or, where sendfile is not
+ * available, through {@code transferTo} onto the response stream. Single byte ranges are honoured;
+ * multi-range requests get the whole file, which RFC 9110 allows.
+ */
+public class DemoAssetHandler implements HttpRequestHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DemoAssetHandler.class);
+
+    public static final String URL_PREFIX = "/demo-assets/";
+
+    // Request attributes understood by Tomcat's NIO connector.
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final Map<String, Asset> assets;
+    private final String cacheControl;
+
+    public DemoAssetHandler(DemoAssetProperties properties) {
+        this.cacheControl = "public, max-age=" + properties.getMaxAgeSeconds();
+        this.assets = index(properties);
+    }
+
+    @Override
+    public void handleRequest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String method = request.getMethod();
+        boolean head = "HEAD".equals(method);
+        if (!head && !"GET".equals(method)) {
+            response.setHeader(HttpHeaders.ALLOW, "GET, HEAD");
+            response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+        String uri = request.getRequestURI().substring(request.getContextPath().length());
+        Asset asset = uri.startsWith(URL_PREFIX)
+                ? assets.get(UriUtils.decode(uri.substring(URL_PREFIX.length()), StandardCharsets.UTF_8))
+                : null;
+        if (asset == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        Variant variant = asset.select(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        response.setContentType(asset.contentType);
+        response.setHeader(HttpHeaders.ETAG, variant.etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (asset.hasVariants()) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (variant.encoding != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, variant.encoding);
+        }
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), variant.etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long count = variant.length;
+        HttpRange range = singleRange(request, variant);
+        if (range != null) {
+            start = range.getRangeStart(variant.length);
+            count = range.getRangeEnd(variant.length) - start + 1;
+            if (start >= variant.length || count <= 0) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + variant.length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + start + "-" + (start + count - 1) + "/" + variant.length);
+        }
+        response.setContentLengthLong(count);
+        if (head || count == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, variant.file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(variant.file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    throw new EOFException("demo asset shrank while being sent: " + variant.file);
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    /**
+     * The requested range, or null to send the whole file: no Range header, an If-Range naming another
+     * version, a malformed header or several ranges.
+     */
+    private static HttpRange singleRange(HttpServletRequest request, Variant variant) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.trim().equals(variant.etag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, Asset> index(DemoAssetProperties properties) {
+        Path root = Path.of(properties.getDir()).toAbsolutePath().normalize();
+        if (!Files.isDirectory(root)) {
+            logger.warn("demo asset directory {} does not exist, /demo-assets will answer 404", root);
+            return Map.of();
+        }
+        Path compressedDir = Path.of(properties.getCompressedDir()).toAbsolutePath().normalize();
+        Map<String, Asset> index = new HashMap<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".gz") || name.endsWith(".br")) {
+                    continue;
+                }
+                String key = root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+                index.put(key, load(file, name, properties, compressedDir));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to index demo assets in " + root, ex);
+        }
+        logger.info("indexed {} demo assets from {}", index.size(), root);
+        return Map.copyOf(index);
+    }
+
+    private static Asset load(Path file, String name, DemoAssetProperties properties, Path compressedDir)
+            throws IOException {
+        String hash = contentHash(file);
+        String contentType = MediaTypeFactory.getMediaType(name)
+                .map(MediaType::toString)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        Variant identity = new Variant(file, Files.size(file), "\"" + hash + "\"", null);
+        String extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        if (!properties.getCompressibleExtensions().contains(extension)) {
+            return new Asset(contentType, identity, null, null);
+        }
+
+        Path brotli = file.resolveSibling(name + ".br");
+        Variant br = Files.isRegularFile(brotli)
+                ? new Variant(brotli, Files.size(brotli), "\"" + hash + ".br\"", "br")
+                : null;
+        Path gzip = file.resolveSibling(name + ".gz");
+        if (!Files.isRegularFile(gzip)) {
+            // Named by content hash, so a restart reuses the file and an edited asset gets a fresh one.
+            gzip = compressedDir.resolve(hash + ".gz");
+            if (!Files.isRegularFile(gzip)) {
+                writeGzip(file, gzip);
+            }
+        }
+        long gzipLength = Files.size(gzip);
+        Variant gz = gzipLength < identity.length
+                ? new Variant(gzip, gzipLength, "\"" + hash + ".gz\"", "gzip")
+                : null;
+        return new Asset(contentType, identity, gz, br);
+    }
+
+    private static void writeGzip(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".gzip-", ".tmp");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                Files.copy(source, out);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String contentHash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        // 128 bits is plenty to tell versions of one file apart and keeps the header short.
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    private static final class Variant {
+
+        private final Path file;
+        private final long length;
+        private final String etag;
+        private final String encoding;
+
+        private Variant(Path file, long length, String etag, String encoding) {
+            this.file = file;
+            this.length = length;
+            this.etag = etag;
+            this.encoding = encoding;
+        }
+    }
+
+    private static final class Asset {
+
+        private final String contentType;
+        private final Variant identity;
+        private final Variant gzip;
+        private final Variant brotli;
+
+        private Asset(String contentType, Variant identity, Variant gzip, Variant brotli) {
+            this.contentType = contentType;
+            this.identity = identity;
+            this.gzip = gzip;
+            this.brotli = brotli;
+        }
+
+        boolean hasVariants() {
+            return gzip != null || brotli != null;
+        }
+
+        /**
+         * Picks brotli, then gzip, then the file itself, skipping codings the client refuses with q=0.
+         */
+        Variant select(String acceptEncoding) {
+            if (acceptEncoding == null || !hasVariants()) {
+                return identity;
+            }
+            boolean br = false;
+            boolean gz = false;
+            for (String part : acceptEncoding.split(",")) {
+                String[] tokens = part.split(";");
+                String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+                boolean refused = false;
+                for (int i = 1; i < tokens.length; i++) {
+                    String param = tokens[i].trim();
+                    if (param.startsWith("q=")) {
+                        try {
+                            refused = Double.parseDouble(param.substring(2)) <= 0;
+                        } catch (NumberFormatException ex) {
+                            refused = true;
+                        }
+                    }
+                }
+                if (refused) {
+                    continue;
+                }
+                if (coding.equals("br")) {
+                    br = true;
+                } else if (coding.equals("gzip")) {
+                    gz = true;
+                }
+            }
+            if (br && brotli != null) {
+                return brotli;
+            }
+            if (gz && gzip != null) {
+                return gzip;
+            }
+            return identity;
+        }
+    }
+}
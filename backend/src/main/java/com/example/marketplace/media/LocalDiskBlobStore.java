@@ -0,0 +1,70 @@
+package com.example.marketplace.media;
+
+import com.example.marketplace.service.MediaProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Blobs as files under {@code app.media.local-dir}. Each file is written to a temporary name and moved
+ * into place, so readers never see a partly written blob.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.media", name = "store", havingValue = "local", matchIfMissing = true)
+public class LocalDiskBlobStore implements BlobStore {
+
+    private final Path root;
+
+    public LocalDiskBlobStore(MediaProperties properties) {
+        this.root = Path.of(properties.getLocalDir()).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void put(String key, byte[] data, String contentType) {
+        Path target = resolve(key);
+        if (Files.exists(target)) {
+            return;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+            try {
+                Files.write(temp, data);
+                // A concurrent upload of the same content may have moved its copy in first; replacing it
+                // is harmless because the bytes are identical.
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to store blob " + key, ex);
+        }
+    }
+
+    @Override
+    public Optional<Resource> get(String key) {
+        Path path = resolve(key);
+        return Files.isRegularFile(path) ? Optional.of(new FileSystemResource(path)) : Optional.empty();
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.marketplace.media;
+
+import com.example.marketplace.service.MediaProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Blobs in an S3-compatible bucket (AWS S3, MinIO, Ceph RGW, ...), addressed path-style and signed with
+ * AWS Signature Version 4. Only PUT, GET and HEAD of single objects are needed, so requests are made with
+ * the JDK HTTP client rather than pulling in an SDK.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.media", name = "store", havingValue = "s3")
+public class S3BlobStore implements BlobStore {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String SIGNED_HEADERS = "host;x-amz-content-sha256;x-amz-date";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final HexFormat HEX = HexFormat.of();
+    private static final byte[] EMPTY = new byte[0];
+
+    private final MediaProperties.S3 config;
+    private final URI endpoint;
+    private final HttpClient client;
+    private final Duration timeout;
+
+    public S3BlobStore(MediaProperties properties) {
+        this.config = properties.getS3();
+        String base = config.getEndpoint();
+        this.endpoint = URI.create(base.endsWith("/") ? base.substring(0, base.length() - 1) : base);
+        this.timeout = Duration.ofMillis(config.getTimeoutMs());
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public void put(String key, byte[] data, String contentType) {
+        HttpRequest request = signed("PUT", key, data)
+                .header("Content-Type", contentType)
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(data))
+                .build();
+        HttpResponse<Void> response = send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("S3 PUT " + key + " failed with status " + response.statusCode());
+        }
+    }
+
+    /**
+     * The object's body is streamed: the returned resource wraps the open response and can be read once, which
+     * is how it is written to the client. Its length comes from the response's Content-Length.
+     */
+    @Override
+    public Optional<Resource> get(String key) {
+        HttpRequest request = signed("GET", key, EMPTY).GET().build();
+        HttpResponse<InputStream> response = send(request, HttpResponse.BodyHandlers.ofInputStream());
+        int status = response.statusCode();
+        if (status / 100 != 2) {
+            // Closing the unread error body releases the connection.
+            closeQuietly(response.body());
+            if (status == 404) {
+                return Optional.empty();
+            }
+            throw new IllegalStateException("S3 GET " + key + " failed with status " + status);
+        }
+        long length = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        return Optional.of(new ObjectResource(response.body(), length, key));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        HttpRequest request = signed("HEAD", key, EMPTY)
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .build();
+        int status = send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status == 404) {
+            return false;
+        }
+        if (status / 100 != 2) {
+            throw new IllegalStateException("S3 HEAD " + key + " failed with status " + status);
+        }
+        return true;
+    }
+
+    private HttpRequest.Builder signed(String method, String key, byte[] payload) {
+        // Keys are built from hex digests and fixed suffixes, so they need no percent-encoding.
+        String path = endpoint.getRawPath() + "/" + config.getBucket() + "/" + key;
+        URI uri = endpoint.resolve(path);
+        String amzDate = ZonedDateTime.now(ZoneOffset.UTC).format(AMZ_DATE);
+        String payloadHash = HEX.formatHex(sha256(payload));
+        Signature signature = sign(method, path, "", hostHeader(uri), amzDate, payloadHash,
+                config.getRegion(), config.getAccessKey(), config.getSecretKey());
+
+        return HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("x-amz-date", amzDate)
+                .header("x-amz-content-sha256", payloadHash)
+                .header("Authorization", signature.authorization());
+    }
+
+    /**
+     * Signs a request whose signed headers are host, x-amz-content-sha256 and x-amz-date. The intermediate
+     * strings are returned as well so they can be checked against AWS's published examples.
+     */
+    static Signature sign(String method, String canonicalUri, String canonicalQuery, String host, String amzDate,
+                          String payloadHash, String region, String accessKey, String secretKey) {
+        String date = amzDate.substring(0, 8);
+        String canonicalRequest = method + "\n"
+                + canonicalUri + "\n"
+                + canonicalQuery + "\n"
+                + "host:" + host + "\n"
+                + "x-amz-content-sha256:" + payloadHash + "\n"
+                + "x-amz-date:" + amzDate + "\n"
+                + "\n"
+                + SIGNED_HEADERS + "\n"
+                + payloadHash;
+        String scope = date + "/" + region + "/s3/aws4_request";
+        String stringToSign = ALGORITHM + "\n" + amzDate + "\n" + scope + "\n"
+                + HEX.formatHex(sha256(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+
+        byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        signingKey = hmac(signingKey, region);
+        signingKey = hmac(signingKey, "s3");
+        signingKey = hmac(signingKey, "aws4_request");
+        String signature = HEX.formatHex(hmac(signingKey, stringToSign));
+
+        String authorization = ALGORITHM + " Credential=" + accessKey + "/" + scope
+                + ", SignedHeaders=" + SIGNED_HEADERS + ", Signature=" + signature;
+        return new Signature(canonicalRequest, stringToSign, signature, authorization);
+    }
+
+    record Signature(String canonicalRequest, String stringToSign, String signature, String authorization) {
+    }
+
+    private static final class ObjectResource extends InputStreamResource {
+
+        private final long length;
+
+        private ObjectResource(InputStream body, long length, String key) {
+            super(body, "S3 object " + key);
+            this.length = length;
+        }
+
+        // InputStreamResource would read the stream to count it; -1 (unknown) makes the response chunked.
+        @Override
+        public long contentLength() {
+            return length;
+        }
+    }
+
+    private static void closeQuietly(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException ignored) {
+            // the request has failed anyway
+        }
+    }
+
+    // Must match the Host header the HTTP client sends: the port appears only when it is not the default.
+    private static String hostHeader(URI uri) {
+        return uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        try {
+            return client.send(request, handler);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("S3 request failed: " + request.method() + " " + request.uri(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during S3 request", ex);
+        }
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
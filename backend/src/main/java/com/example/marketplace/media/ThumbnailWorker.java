@@ -0,0 +1,323 @@
+package com.example.marketplace.media;
+
+import com.example.marketplace.domain.image.ImageAsset;
+import com.example.marketplace.domain.image.ThumbnailStatus;
+import com.example.marketplace.repository.ImageAssetRepository;
+import com.example.marketplace.service.MediaProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates thumbnails off the request thread. An upload is handed over only once its row has committed;
+ * the worker reads the original back from the {@link BlobStore}, scales it to {@code app.media.thumbnail-width}
+ * and stores the result next to it. Uploads whose thumbnail never got made (queue full, node restarted, blob
+ * store briefly unavailable) stay {@code pending}; they are queued again when the application starts and by a
+ * periodic re-scan once they have been pending longer than {@code app.media.thumbnail-stale-after-ms}.
+ */
+@Component
+public class ThumbnailWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailWorker.class);
+
+    public static final String JPEG = "image/jpeg";
+    public static final String PNG = "image/png";
+
+    private final BlobStore blobStore;
+    private final ImageAssetRepository imageAssetRepository;
+    private final MediaProperties properties;
+    private final ThreadPoolExecutor executor;
+    // Hashes queued or being generated on this node, so a re-scan does not queue them twice.
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final Object progress = new Object();
+
+    public ThumbnailWorker(BlobStore blobStore, ImageAssetRepository imageAssetRepository, MediaProperties properties) {
+        this.blobStore = blobStore;
+        this.imageAssetRepository = imageAssetRepository;
+        this.properties = properties;
+        AtomicInteger threadCount = new AtomicInteger();
+        int threads = properties.getThumbnailThreads();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getThumbnailQueueCapacity()), r -> {
+                    Thread thread = new Thread(r, "thumbnail-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public static String originalKey(String hash) {
+        return "originals/" + hash.substring(0, 2) + "/" + hash;
+    }
+
+    public static String thumbnailKey(String hash, int width) {
+        return "thumbnails/" + hash.substring(0, 2) + "/" + hash + "-w" + width;
+    }
+
+    /**
+     * Schedules the thumbnail once the surrounding transaction commits, or immediately when there is none.
+     */
+    public void submitAfterCommit(String hash) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(hash);
+                }
+            });
+        } else {
+            submit(hash);
+        }
+    }
+
+    /**
+     * Blocks until every thumbnail submitted before this call has been handled (or the timeout elapses).
+     */
+    public boolean flush(long timeoutMs) throws InterruptedException {
+        long target = accepted.get();
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (progress) {
+            while (processed.get() < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                progress.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        int queued = requeuePending(Instant.now());
+        if (queued > 0) {
+            logger.info("resuming {} pending thumbnails", queued);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.media.thumbnail-rescan-interval-ms:60000}",
+            initialDelayString = "${app.media.thumbnail-rescan-interval-ms:60000}")
+    public void rescanStale() {
+        int queued = requeuePending(Instant.now().minusMillis(properties.getThumbnailStaleAfterMs()));
+        if (queued > 0) {
+            logger.info("re-queued {} stale pending thumbnails", queued);
+        }
+    }
+
+    /**
+     * Queues every {@code pending} upload last updated before {@code updatedBefore}, a page at a time, until none
+     * are left or the queue is full again (the rest wait for the next scan). Returns how many were queued.
+     */
+    public int requeuePending(Instant updatedBefore) {
+        int pageSize = properties.getThumbnailRescanPageSize();
+        Instant afterCreatedAt = Instant.EPOCH;
+        String afterHash = "";
+        int queued = 0;
+        while (true) {
+            List<ImageAsset> page = imageAssetRepository.findPageByThumbnailStatus(ThumbnailStatus.pending,
+                    updatedBefore, afterCreatedAt, afterHash, PageRequest.of(0, pageSize));
+            for (ImageAsset asset : page) {
+                if (inFlight.contains(asset.getImageHash())) {
+                    continue;
+                }
+                if (!submit(asset.getImageHash())) {
+                    return queued;
+                }
+                queued++;
+            }
+            if (page.size() < pageSize) {
+                return queued;
+            }
+            ImageAsset last = page.get(page.size() - 1);
+            afterCreatedAt = last.getCreatedAt();
+            afterHash = last.getImageHash();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            // Whatever is left stays pending and is resumed on the next start.
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean submit(String hash) {
+        if (!inFlight.add(hash)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(hash);
+                } finally {
+                    inFlight.remove(hash);
+                    processed.incrementAndGet();
+                    synchronized (progress) {
+                        progress.notifyAll();
+                    }
+                }
+            });
+            accepted.incrementAndGet();
+            return true;
+        } catch (RejectedExecutionException ex) {
+            inFlight.remove(hash);
+            logger.warn("thumbnail queue full, image {} stays pending until the next re-scan", hash);
+            return false;
+        }
+    }
+
+    /**
+     * Only an original that cannot be decoded will never make a thumbnail and is marked {@code failed}. Any other
+     * failure (blob store or database unavailable, original not visible yet) leaves it {@code pending} with a fresh
+     * update time, so the stale re-scan retries it once {@code thumbnail-stale-after-ms} has passed.
+     */
+    private void generate(String hash) {
+        int width = properties.getThumbnailWidth();
+        byte[] original;
+        try {
+            Optional<Resource> resource = blobStore.get(originalKey(hash));
+            if (resource.isEmpty()) {
+                // The row commits after the original is stored, so this is a store that has not caught up yet.
+                leavePending(hash, new IllegalStateException("original missing from blob store"));
+                return;
+            }
+            // Read fully before decoding so that a broken connection is not mistaken for a broken image.
+            try (InputStream in = resource.get().getInputStream()) {
+                original = in.readAllBytes();
+            }
+        } catch (IOException | RuntimeException ex) {
+            leavePending(hash, ex);
+            return;
+        }
+
+        String contentType;
+        byte[] encoded;
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(original));
+            if (source == null) {
+                throw new IllegalStateException("original cannot be decoded");
+            }
+            boolean alpha = source.getColorModel().hasAlpha();
+            BufferedImage scaled = scale(source, width, alpha);
+            contentType = alpha ? PNG : JPEG;
+            encoded = alpha ? encodePng(scaled) : encodeJpeg(scaled, properties.getThumbnailQuality());
+        } catch (IOException | RuntimeException ex) {
+            markFailed(hash, ex);
+            return;
+        }
+
+        try {
+            blobStore.put(thumbnailKey(hash, width), encoded, contentType);
+            imageAssetRepository.updateThumbnail(hash, ThumbnailStatus.ready, contentType, Instant.now());
+        } catch (RuntimeException ex) {
+            leavePending(hash, ex);
+        }
+    }
+
+    private void markFailed(String hash, Exception cause) {
+        logger.warn("thumbnail generation failed for image {}", hash, cause);
+        try {
+            imageAssetRepository.updateThumbnail(hash, ThumbnailStatus.failed, null, Instant.now());
+        } catch (RuntimeException updateEx) {
+            logger.warn("could not mark thumbnail of image {} as failed", hash, updateEx);
+        }
+    }
+
+    private void leavePending(String hash, Exception cause) {
+        logger.warn("thumbnail generation for image {} hit a transient error, left pending for the re-scan",
+                hash, cause);
+        try {
+            imageAssetRepository.updateThumbnail(hash, ThumbnailStatus.pending, null, Instant.now());
+        } catch (RuntimeException updateEx) {
+            // Still pending, just with its old update time: the next re-scan picks it up sooner.
+            logger.warn("could not touch pending thumbnail of image {}", hash, updateEx);
+        }
+    }
+
+    /**
+     * Scales to {@code maxWidth} keeping the aspect ratio, never enlarging. Large reductions are done in
+     * halving steps, which with bilinear filtering looks close to area averaging at a fraction of its cost.
+     */
+    static BufferedImage scale(BufferedImage source, int maxWidth, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        int targetWidth = Math.min(maxWidth, source.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(targetWidth, w / 2);
+            h = Math.max(targetHeight, h / 2);
+            BufferedImage next = new BufferedImage(w, h, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w != targetWidth || h != targetHeight);
+        return current;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.marketplace.metrics;
+
+import com.example.marketplace.domain.common.TargetType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Counters for the events the business is measured by. They are incremented only once the surrounding
+ * transaction commits, so a request that fails halfway does not count as an order or a message.
+ * All counters are registered up front and therefore exported (as zero) before the first event.
+ */
+@Component
+public class BusinessMetrics {
+
+    private final Map<TargetType, Counter> ordersCreated = new EnumMap<>(TargetType.class);
+    private final Map<TargetType, Counter> offersAccepted = new EnumMap<>(TargetType.class);
+    private final Counter threadsStarted;
+    private final Counter messagesSent;
+
+    public BusinessMetrics(MeterRegistry registry) {
+        for (TargetType targetType : TargetType.values()) {
+            ordersCreated.put(targetType, Counter.builder("marketplace.orders.created")
+                    .description("Orders created from offers")
+                    .tag("target_type", targetType.name())
+                    .register(registry));
+            offersAccepted.put(targetType, Counter.builder("marketplace.offers.accepted")
+                    .description("Offers accepted by the listing owner or by creating an order from them")
+                    .tag("target_type", targetType.name())
+                    .register(registry));
+        }
+        this.threadsStarted = Counter.builder("marketplace.messages.sent")
+                .description("Chat messages sent")
+                .tag("kind", "thread_start")
+                .register(registry);
+        this.messagesSent = Counter.builder("marketplace.messages.sent")
+                .description("Chat messages sent")
+                .tag("kind", "reply")
+                .register(registry);
+    }
+
+    public void orderCreated(TargetType targetType) {
+        incrementAfterCommit(ordersCreated.get(targetType));
+    }
+
+    public void offerAccepted(TargetType targetType) {
+        incrementAfterCommit(offersAccepted.get(targetType));
+    }
+
+    public void threadStarted() {
+        incrementAfterCommit(threadsStarted);
+    }
+
+    public void messageSent() {
+        incrementAfterCommit(messagesSent);
+    }
+
+    private static void incrementAfterCommit(Counter counter) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counter.increment();
+                }
+            });
+        } else {
+            counter.increment();
+        }
+    }
+}
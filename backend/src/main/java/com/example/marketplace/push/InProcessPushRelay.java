@@ -0,0 +1,25 @@
+package com.example.marketplace.push;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Component
+public class InProcessPushRelay implements PushRelay {
+
+    private final List<Consumer<PushMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(PushMessage message) {
+        for (Consumer<PushMessage> listener : listeners) {
+            listener.accept(message);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<PushMessage> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.marketplace.push;
+
+import com.example.marketplace.service.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Holds the server-sent event streams opened on this instance and fans push messages out to them.
+ * Messages go through the {@link PushRelay} so that a user connected to another instance is reached too.
+ * <p>
+ * Writing to a stream can block on a slow client, so delivery never runs on the publishing thread (for a chat
+ * message that is the request thread, right after commit). Each user is mapped to one of a few single-threaded
+ * delivery lanes, which keeps that user's messages in order while a stalled client only holds up its own lane.
+ * A comment line is sent on every stream periodically so proxies do not drop idle connections and dead ones are
+ * noticed, and a user holding more than {@code max-emitters-per-user} streams loses the oldest.
+ */
+@Component
+public class PushBroker {
+
+    private static final Logger logger = LoggerFactory.getLogger(PushBroker.class);
+
+    private final PushRelay relay;
+    private final long emitterTimeoutMs;
+    private final int maxEmittersPerUser;
+    private final ThreadPoolExecutor[] lanes;
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    public PushBroker(PushRelay relay,
+                      WorkerThreads workerThreads,
+                      @Value("${app.push.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                      @Value("${app.push.max-emitters-per-user:5}") int maxEmittersPerUser,
+                      @Value("${app.push.delivery-threads:4}") int deliveryThreads,
+                      @Value("${app.push.delivery-queue-capacity:1000}") int deliveryQueueCapacity) {
+        this.relay = relay;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.maxEmittersPerUser = maxEmittersPerUser;
+        this.lanes = new ThreadPoolExecutor[deliveryThreads];
+        for (int i = 0; i < deliveryThreads; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(deliveryQueueCapacity), workerThreads.factory("push-delivery-" + i));
+        }
+        relay.subscribe(this::deliver);
+    }
+
+    public SseEmitter open(Long userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        SseEmitter[] evicted = new SseEmitter[1];
+        emitters.compute(userId, (id, list) -> {
+            List<SseEmitter> userEmitters = list != null ? list : new CopyOnWriteArrayList<>();
+            if (userEmitters.size() >= maxEmittersPerUser) {
+                evicted[0] = userEmitters.remove(0);
+            }
+            userEmitters.add(emitter);
+            return userEmitters;
+        });
+        if (evicted[0] != null) {
+            // Usually a tab that went away without closing its stream; the client reconnects if it is still there.
+            evicted[0].complete();
+        }
+
+        Runnable remove = () -> remove(userId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(ex -> remove.run());
+        return emitter;
+    }
+
+    /**
+     * Publishes once the surrounding transaction commits, so clients never see a message that was rolled back.
+     * Outside a transaction the message is published immediately.
+     */
+    public void publishAfterCommit(Long userId, String event, Object payload) {
+        PushMessage message = new PushMessage(userId, event, payload);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(message);
+                }
+            });
+        } else {
+            publish(message);
+        }
+    }
+
+    public int connectionCount(Long userId) {
+        List<SseEmitter> userEmitters = emitters.get(userId);
+        return userEmitters == null ? 0 : userEmitters.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.push.heartbeat-interval-ms:25000}",
+            initialDelayString = "${app.push.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        for (Long userId : emitters.keySet()) {
+            submit(userId, () -> send(userId, () -> SseEmitter.event().comment("heartbeat")));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdownNow();
+        }
+    }
+
+    private void publish(PushMessage message) {
+        try {
+            relay.publish(message);
+        } catch (RuntimeException ex) {
+            // Push is best effort; clients still see the message on their next fetch.
+            logger.warn("push relay publish failed event={} userId={}", message.getEvent(), message.getUserId(), ex);
+        }
+    }
+
+    private void deliver(PushMessage message) {
+        Long userId = message.getUserId();
+        if (!emitters.containsKey(userId)) {
+            return;
+        }
+        submit(userId, () -> send(userId,
+                () -> SseEmitter.event().name(message.getEvent()).data(message.getPayload())));
+    }
+
+    private void submit(Long userId, Runnable delivery) {
+        try {
+            lanes[Math.floorMod(userId.hashCode(), lanes.length)].execute(delivery);
+        } catch (RejectedExecutionException ex) {
+            // The lane is backed up behind stalled clients (or shutting down); like a failed publish, skip it.
+            logger.warn("push delivery queue full, dropping event for userId={}", userId);
+        }
+    }
+
+    // A builder is single use (building it appends the terminating blank line), hence one per stream.
+    private void send(Long userId, Supplier<SseEmitter.SseEventBuilder> event) {
+        List<SseEmitter> userEmitters = emitters.get(userId);
+        if (userEmitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : userEmitters) {
+            try {
+                emitter.send(event.get());
+            } catch (IOException | IllegalStateException ex) {
+                remove(userId, emitter);
+                emitter.completeWithError(ex);
+            }
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.marketplace.push;
+
+/**
+ * An event addressed to every open stream of one user.
+ */
+public class PushMessage {
+
+    private final Long userId;
+    private final String event;
+    private final Object payload;
+
+    public PushMessage(Long userId, String event, Object payload) {
+        this.userId = userId;
+        this.event = event;
+        this.payload = payload;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEvent() {
+        return event;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.marketplace.push;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries push messages between application instances. Every instance subscribes once and delivers
+ * what it receives to the streams it holds locally.
+ * The default {@link InProcessPushRelay} only reaches the current JVM; a multi-instance deployment
+ * declares a {@code @Primary} relay backed by a real broker.
+ */
+public interface PushRelay {
+
+    void publish(PushMessage message);
+
+    void subscribe(Consumer<PushMessage> listener);
+}
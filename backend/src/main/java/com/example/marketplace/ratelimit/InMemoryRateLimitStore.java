@@ -0,0 +1,104 @@
+package com.example.marketplace.ratelimit;
+
+import com.example.marketplace.service.RateLimitProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-JVM counters. Each key holds a single "theoretical arrival time" updated by CAS (GCRA, equivalent to a
+ * token bucket of {@code limit} tokens refilled over the window), so there is no lock per call. A key whose
+ * arrival time has passed carries no state worth keeping and is swept once the map reaches
+ * {@code app.rate-limit.max-keys}; if active keys alone exceed it, those nearest their full allowance go first.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryRateLimitStore.class);
+
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public InMemoryRateLimitStore(RateLimitProperties properties) {
+        this.maxKeys = properties.getMaxKeys();
+    }
+
+    @Override
+    public long acquire(String key, int limit, long windowMillis) {
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        long interval = windowNanos / limit;
+        long now = System.nanoTime();
+        AtomicLong arrival = arrivals.computeIfAbsent(key, k -> new AtomicLong(now));
+
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + interval;
+            long excess = next - now - windowNanos;
+            if (excess > 0) {
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(excess));
+            }
+            if (arrival.compareAndSet(current, next)) {
+                break;
+            }
+        }
+
+        if (arrivals.size() > maxKeys) {
+            sweep(now);
+        }
+        return 0;
+    }
+
+    @Override
+    public void reset() {
+        arrivals.clear();
+    }
+
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // A key whose arrival time has passed has its full allowance back, so dropping it changes nothing.
+            arrivals.values().removeIf(arrival -> arrival.get() - now <= 0);
+            int excess = arrivals.size() - maxKeys;
+            if (excess > 0) {
+                // Still full of active keys (e.g. a scan from many addresses). Evict down to 90% so a sustained
+                // scan sweeps once per maxKeys / 10 new keys rather than on every request.
+                int evict = excess + maxKeys / 10;
+                logger.warn("rate limiter over capacity, evicting {} active keys", evict);
+                evictEarliest(evict);
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /**
+     * Drops the {@code count} keys with the earliest arrival times: they are the closest to their full allowance,
+     * so forgetting them gives back the least. A throttled key sits up to a whole window ahead and goes last,
+     * which keeps a client spraying fresh keys from evicting, and so resetting, someone else's limit.
+     */
+    private void evictEarliest(int count) {
+        PriorityQueue<Map.Entry<String, Long>> latestFirst = new PriorityQueue<>(count + 1,
+                Map.Entry.<String, Long>comparingByValue().reversed());
+        for (Map.Entry<String, AtomicLong> entry : arrivals.entrySet()) {
+            latestFirst.add(Map.entry(entry.getKey(), entry.getValue().get()));
+            if (latestFirst.size() > count) {
+                latestFirst.poll();
+            }
+        }
+        for (Map.Entry<String, Long> entry : latestFirst) {
+            arrivals.remove(entry.getKey());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.marketplace.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Counters shared by every node through PostgreSQL. Uses the same GCRA arithmetic as the in-memory store,
+ * applied by a single conditional upsert so concurrent nodes never lose an update; times come from the
+ * database clock so node clock skew does not matter.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "store", havingValue = "jdbc")
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final String NOW_MS = "(extract(epoch FROM clock_timestamp()) * 1000)::bigint";
+
+    // EXCLUDED.tat_ms is now + interval, i.e. the arrival time of a request on an idle key.
+    private static final String ACQUIRE_SQL = "INSERT INTO rate_limit_buckets AS b (bucket_key, tat_ms) "
+            + "VALUES (?, " + NOW_MS + " + ?) "
+            + "ON CONFLICT (bucket_key) DO UPDATE SET tat_ms = GREATEST(b.tat_ms + ?, EXCLUDED.tat_ms) "
+            + "WHERE GREATEST(b.tat_ms + ?, EXCLUDED.tat_ms) <= EXCLUDED.tat_ms + ? "
+            + "RETURNING tat_ms";
+    private static final String RETRY_AFTER_SQL = "SELECT tat_ms + ? - " + NOW_MS
+            + " FROM rate_limit_buckets WHERE bucket_key = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcRateLimitStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public long acquire(String key, int limit, long windowMillis) {
+        long interval = windowMillis / limit;
+        List<Long> accepted = jdbcTemplate.queryForList(ACQUIRE_SQL, Long.class,
+                key, interval, interval, interval, windowMillis - interval);
+        if (!accepted.isEmpty()) {
+            return 0;
+        }
+        List<Long> retryAfter = jdbcTemplate.queryForList(RETRY_AFTER_SQL, Long.class, interval - windowMillis, key);
+        return retryAfter.isEmpty() ? 1 : Math.max(1, retryAfter.get(0));
+    }
+
+    @Override
+    public void reset() {
+        jdbcTemplate.update("DELETE FROM rate_limit_buckets");
+    }
+
+    /**
+     * Buckets whose arrival time has passed have their full allowance back and can be dropped.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.jdbc.cleanup-interval-ms:60000}")
+    public void deleteIdleBuckets() {
+        jdbcTemplate.update("DELETE FROM rate_limit_buckets WHERE tat_ms < " + NOW_MS);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.marketplace.ratelimit;
+
+/**
+ * Backing store for request counters. Implementations shared between nodes (PostgreSQL, Redis) keep a
+ * limit accurate when the API is scaled horizontally; the in-memory store counts per JVM only.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Counts one request against {@code key}, allowing at most {@code limit} per {@code windowMillis}.
+     *
+     * @return 0 when the request is allowed, otherwise the milliseconds until the next one would be
+     */
+    long acquire(String key, int limit, long windowMillis);
+
+    /**
+     * Forgets all counters; used between tests.
+     */
+    default void reset() {
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.marketplace.ratelimit;
+
+import com.example.marketplace.service.RateLimitProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counters shared by every node through Redis. Uses the same GCRA arithmetic as the in-memory and JDBC stores,
+ * run as one Lua script so the read-modify-write of a key's theoretical arrival time is atomic and costs one
+ * round trip; times come from the Redis clock so node clock skew does not matter. A key expires when its arrival
+ * time passes, at which point it has its full allowance back anyway.
+ * <p>
+ * At most {@code pool-size} connections are open; a call that finds them all in use waits up to
+ * {@code pool-wait-ms} for one and otherwise fails like any other store error.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "store", havingValue = "redis")
+public class RedisRateLimitStore implements RateLimitStore {
+
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    // KEYS[1] = bucket, ARGV[1] = emission interval (ms), ARGV[2] = window (ms).
+    // Returns 0 when allowed, otherwise the milliseconds until the next request would be.
+    static final String GCRA_SCRIPT = """
+            redis.replicate_commands()
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local interval = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            local tat = tonumber(redis.call('GET', KEYS[1]) or now)
+            local next = math.max(tat, now) + interval
+            local excess = next - now - window
+            if excess > 0 then
+              return math.max(1, excess)
+            end
+            redis.call('SET', KEYS[1], next, 'PX', next - now)
+            return 0
+            """;
+    private static final String GCRA_SHA = sha1Hex(GCRA_SCRIPT);
+
+    private final RateLimitProperties.Redis config;
+    private final BlockingQueue<RespConnection> idle;
+    // One permit per connection that may exist, idle or in use.
+    private final Semaphore connections;
+
+    public RedisRateLimitStore(RateLimitProperties properties) {
+        this.config = properties.getRedis();
+        this.idle = new ArrayBlockingQueue<>(config.getPoolSize());
+        this.connections = new Semaphore(config.getPoolSize());
+    }
+
+    @Override
+    public long acquire(String key, int limit, long windowMillis) {
+        String redisKey = KEY_PREFIX + key;
+        String interval = Long.toString(windowMillis / limit);
+        String window = Long.toString(windowMillis);
+
+        Object reply = execute(new String[]{"EVALSHA", GCRA_SHA, "1", redisKey, interval, window});
+        if (reply instanceof RespConnection.RespError error && error.getMessage().startsWith("NOSCRIPT")) {
+            // First call against this server (or after a restart / SCRIPT FLUSH): EVAL also caches the script.
+            reply = execute(new String[]{"EVAL", GCRA_SCRIPT, "1", redisKey, interval, window});
+        }
+        if (!(reply instanceof Long retryAfter)) {
+            throw new IllegalStateException("unexpected reply to rate limit script: " + describe(reply));
+        }
+        return retryAfter;
+    }
+
+    @PreDestroy
+    public void close() {
+        RespConnection connection;
+        while ((connection = idle.poll()) != null) {
+            closeQuietly(connection);
+        }
+    }
+
+    private Object execute(String[] command) {
+        RespConnection connection = borrow();
+        try {
+            Object reply = connection.pipeline(List.<String[]>of(command)).get(0);
+            idle.add(connection);
+            connections.release();
+            return reply;
+        } catch (IOException ex) {
+            // The connection may be half-read; never hand it out again.
+            discard(connection);
+            throw new UncheckedIOException("rate limit store unavailable", ex);
+        }
+    }
+
+    private RespConnection borrow() {
+        try {
+            if (!connections.tryAcquire(config.getPoolWaitMs(), TimeUnit.MILLISECONDS)) {
+                throw new UncheckedIOException(new IOException(
+                        "no rate limit store connection free within " + config.getPoolWaitMs() + " ms"));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted waiting for a rate limit store connection", ex);
+        }
+        RespConnection connection = idle.poll();
+        if (connection != null) {
+            return connection;
+        }
+        try {
+            return new RespConnection(config.getHost(), config.getPort(), config.getTimeoutMs());
+        } catch (IOException ex) {
+            connections.release();
+            throw new UncheckedIOException("rate limit store unavailable", ex);
+        }
+    }
+
+    private void discard(RespConnection connection) {
+        closeQuietly(connection);
+        connections.release();
+    }
+
+    private static String describe(Object reply) {
+        return reply instanceof RespConnection.RespError error ? error.getMessage() : String.valueOf(reply);
+    }
+
+    private static void closeQuietly(RespConnection connection) {
+        try {
+            connection.close();
+        } catch (IOException ignored) {
+            // already broken
+        }
+    }
+
+    private static String sha1Hex(String script) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(script.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.marketplace.ratelimit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal client for the Redis serialization protocol (RESP2): enough to pipeline a few commands and read
+ * their replies. Not thread-safe; {@link RedisRateLimitStore} pools instances.
+ */
+class RespConnection implements Closeable {
+
+    private final Socket socket;
+    private final OutputStream out;
+    private final InputStream in;
+
+    RespConnection(String host, int port, int timeoutMs) throws IOException {
+        this.socket = new Socket();
+        socket.connect(new InetSocketAddress(host, port), timeoutMs);
+        socket.setSoTimeout(timeoutMs);
+        socket.setTcpNoDelay(true);
+        this.out = new BufferedOutputStream(socket.getOutputStream());
+        this.in = new BufferedInputStream(socket.getInputStream());
+    }
+
+    /**
+     * Sends every command in one write and returns one reply per command, in order.
+     */
+    List<Object> pipeline(List<String[]> commands) throws IOException {
+        for (String[] command : commands) {
+            writeCommand(command);
+        }
+        out.flush();
+        List<Object> replies = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            replies.add(readReply());
+        }
+        return replies;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    private void writeCommand(String[] args) throws IOException {
+        writeLine("*" + args.length);
+        for (String arg : args) {
+            byte[] bytes = arg.getBytes(StandardCharsets.UTF_8);
+            writeLine("$" + bytes.length);
+            out.write(bytes);
+            out.write('\r');
+            out.write('\n');
+        }
+    }
+
+    private void writeLine(String line) throws IOException {
+        out.write(line.getBytes(StandardCharsets.US_ASCII));
+        out.write('\r');
+        out.write('\n');
+    }
+
+    /**
+     * Integers as Long, simple and bulk strings as String (null for nil), arrays as List, errors as RespError.
+     */
+    private Object readReply() throws IOException {
+        int type = in.read();
+        String line = readLine();
+        switch (type) {
+            case '+':
+                return line;
+            case '-':
+                return new RespError(line);
+            case ':':
+                return Long.parseLong(line);
+            case '$': {
+                int length = Integer.parseInt(line);
+                if (length < 0) {
+                    return null;
+                }
+                byte[] data = in.readNBytes(length + 2);
+                if (data.length < length + 2) {
+                    throw new EOFException("connection closed mid-reply");
+                }
+                return new String(data, 0, length, StandardCharsets.UTF_8);
+            }
+            case '*': {
+                int count = Integer.parseInt(line);
+                if (count < 0) {
+                    return null;
+                }
+                List<Object> items = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    items.add(readReply());
+                }
+                return items;
+            }
+            case -1:
+                throw new EOFException("connection closed");
+            default:
+                throw new IOException("unexpected RESP type '" + (char) type + "'");
+        }
+    }
+
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\r') {
+            if (c == -1) {
+                throw new EOFException("connection closed");
+            }
+            line.append((char) c);
+        }
+        in.read(); // '\n'
+        return line.toString();
+    }
+
+    static final class RespError {
+        private final String message;
+
+        RespError(String message) {
+            this.message = message;
+        }
+
+        String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.marketplace.repository;
+
+import com.example.marketplace.domain.demand.Demand;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Active-demand listing queries. As in {@link ItemSearchRepository}, filters that are not given are left out of
+ * the SQL so that a generic plan of the statement can still use the partial indexes from V12.
+ */
+public interface DemandSearchRepository {
+
+    /**
+     * Active demands matching the filters, newest first. {@code keywords} is a LIKE pattern on the title.
+     */
+    Page<Demand> searchActiveDemands(String keywords,
+                                     String category,
+                                     BigDecimal minPrice,
+                                     BigDecimal maxPrice,
+                                     Pageable pageable);
+
+    /**
+     * Keyset variant: active demands matching the filters, newest first, strictly after
+     * (beforeCreatedAt, beforeDemandId) when given. No count query is issued.
+     */
+    List<Demand> findActiveDemandsBefore(String keywords,
+                                         String category,
+                                         BigDecimal minPrice,
+                                         BigDecimal maxPrice,
+                                         Instant beforeCreatedAt,
+                                         Long beforeDemandId,
+                                         int limit);
+}
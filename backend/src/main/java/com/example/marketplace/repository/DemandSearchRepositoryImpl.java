@@ -0,0 +1,94 @@
+package com.example.marketplace.repository;
+
+import com.example.marketplace.domain.demand.Demand;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class DemandSearchRepositoryImpl implements DemandSearchRepository {
+
+    private static final String RECENCY_ORDER = " order by d.created_at desc, d.demand_id desc";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Page<Demand> searchActiveDemands(String keywords,
+                                            String category,
+                                            BigDecimal minPrice,
+                                            BigDecimal maxPrice,
+                                            Pageable pageable) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        String where = whereClause(keywords, category, minPrice, maxPrice, params);
+
+        Query query = entityManager.createNativeQuery("select d.*" + where + RECENCY_ORDER, Demand.class);
+        params.forEach(query::setParameter);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+        List<Demand> content = query.getResultList();
+
+        Query countQuery = entityManager.createNativeQuery("select count(*)" + where);
+        params.forEach(countQuery::setParameter);
+        long total = ((Number) countQuery.getSingleResult()).longValue();
+
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Demand> findActiveDemandsBefore(String keywords,
+                                                String category,
+                                                BigDecimal minPrice,
+                                                BigDecimal maxPrice,
+                                                Instant beforeCreatedAt,
+                                                Long beforeDemandId,
+                                                int limit) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        StringBuilder where = new StringBuilder(whereClause(keywords, category, minPrice, maxPrice, params));
+        if (beforeCreatedAt != null && beforeDemandId != null) {
+            where.append(" and (d.created_at, d.demand_id) < (:beforeCreatedAt, :beforeDemandId)");
+            params.put("beforeCreatedAt", beforeCreatedAt);
+            params.put("beforeDemandId", beforeDemandId);
+        }
+
+        Query query = entityManager.createNativeQuery("select d.*" + where + RECENCY_ORDER, Demand.class);
+        params.forEach(query::setParameter);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    private static String whereClause(String keywords,
+                                      String category,
+                                      BigDecimal minPrice,
+                                      BigDecimal maxPrice,
+                                      Map<String, Object> params) {
+        StringBuilder where = new StringBuilder(" from demands d where d.status = 'active'");
+        if (category != null) {
+            where.append(" and d.category = :category");
+            params.put("category", category);
+        }
+        if (minPrice != null) {
+            where.append(" and d.expected_price >= :minPrice");
+            params.put("minPrice", minPrice);
+        }
+        if (maxPrice != null) {
+            where.append(" and d.expected_price <= :maxPrice");
+            params.put("maxPrice", maxPrice);
+        }
+        if (keywords != null) {
+            where.append(" and d.title like :keywords");
+            params.put("keywords", keywords);
+        }
+        return where.toString();
+    }
+}
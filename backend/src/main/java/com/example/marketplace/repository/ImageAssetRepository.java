@@ -0,0 +1,53 @@
+package com.example.marketplace.repository;
+
+import com.example.marketplace.domain.image.ImageAsset;
+import com.example.marketplace.domain.image.ThumbnailStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ImageAssetRepository extends JpaRepository<ImageAsset, String> {
+
+    /**
+     * One page of assets in {@code status} not updated since {@code updatedBefore}, in (createdAt, imageHash)
+     * order after the given position; the pending scan walks idx_image_assets_pending this way.
+     */
+    @Query("select a from ImageAsset a where a.thumbnailStatus = :status and a.updatedAt < :updatedBefore "
+            + "and (a.createdAt, a.imageHash) > (:afterCreatedAt, :afterHash) order by a.createdAt, a.imageHash")
+    List<ImageAsset> findPageByThumbnailStatus(@Param("status") ThumbnailStatus status,
+                                               @Param("updatedBefore") Instant updatedBefore,
+                                               @Param("afterCreatedAt") Instant afterCreatedAt,
+                                               @Param("afterHash") String afterHash,
+                                               Pageable pageable);
+
+    /**
+     * Records an upload unless the same content is already known; returns 0 for a duplicate, so concurrent
+     * uploads of one file never fail on the primary key.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO image_assets "
+            + "(image_hash, content_type, byte_size, width, height, thumbnail_status, uploaded_by_user_id) "
+            + "VALUES (:hash, :contentType, :byteSize, :width, :height, 'pending', :userId) "
+            + "ON CONFLICT (image_hash) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("hash") String hash,
+                       @Param("contentType") String contentType,
+                       @Param("byteSize") long byteSize,
+                       @Param("width") int width,
+                       @Param("height") int height,
+                       @Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("update ImageAsset a set a.thumbnailStatus = :status, a.thumbnailContentType = :contentType, "
+            + "a.updatedAt = :now where a.imageHash = :hash")
+    int updateThumbnail(@Param("hash") String hash,
+                        @Param("status") ThumbnailStatus status,
+                        @Param("contentType") String contentType,
+                        @Param("now") Instant now);
+}
@@ -0,0 +1,59 @@
+package com.example.marketplace.repository;
+
+import com.example.marketplace.domain.item.Item;
+import com.example.marketplace.search.SearchTokenizer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Active-item listing queries. Filters that are not given are left out of the SQL rather than written as
+ * {@code (:category is null or ...)}: the planner cannot see through that form once a prepared statement switches
+ * to a generic plan, and it would then stop using the partial indexes from V12.
+ */
+public interface ItemSearchRepository {
+
+    /**
+     * Active items matching the filters, newest first.
+     */
+    Page<Item> searchActiveItems(String category,
+                                 BigDecimal minPrice,
+                                 BigDecimal maxPrice,
+                                 Pageable pageable);
+
+    /**
+     * Keyset variant: active items matching the filters, newest first, strictly after
+     * (beforeCreatedAt, beforeItemId) when given. No count query is issued.
+     */
+    List<Item> findActiveItemsBefore(String category,
+                                     BigDecimal minPrice,
+                                     BigDecimal maxPrice,
+                                     Instant beforeCreatedAt,
+                                     Long beforeItemId,
+                                     int limit);
+
+    /**
+     * Active items containing every term, ordered by relevance then recency.
+     * Uses the items.search_vector GIN index on PostgreSQL.
+     */
+    Page<Item> searchActiveItemsByText(List<SearchTokenizer.Term> terms,
+                                       String category,
+                                       BigDecimal minPrice,
+                                       BigDecimal maxPrice,
+                                       Pageable pageable);
+
+    /**
+     * Keyset variant: active items containing every term, newest first, strictly after
+     * (beforeCreatedAt, beforeItemId) when given. No count query is issued.
+     */
+    List<Item> findActiveItemsByTextBefore(List<SearchTokenizer.Term> terms,
+                                           String category,
+                                           BigDecimal minPrice,
+                                           BigDecimal maxPrice,
+                                           Instant beforeCreatedAt,
+                                           Long beforeItemId,
+                                           int limit);
+}
@@ -0,0 +1,157 @@
+package com.example.marketplace.repository;
+
+import com.example.marketplace.domain.item.Item;
+import com.example.marketplace.search.SearchTokenizer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+class ItemSearchRepositoryImpl implements ItemSearchRepository {
+
+    private static final String RECENCY_ORDER = " order by i.created_at desc, i.item_id desc";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public Page<Item> searchActiveItems(String category,
+                                        BigDecimal minPrice,
+                                        BigDecimal maxPrice,
+                                        Pageable pageable) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        return page(whereClause(List.of(), category, minPrice, maxPrice, params), RECENCY_ORDER, params, pageable);
+    }
+
+    @Override
+    public List<Item> findActiveItemsBefore(String category,
+                                            BigDecimal minPrice,
+                                            BigDecimal maxPrice,
+                                            Instant beforeCreatedAt,
+                                            Long beforeItemId,
+                                            int limit) {
+        return findActiveItemsByTextBefore(List.of(), category, minPrice, maxPrice,
+                beforeCreatedAt, beforeItemId, limit);
+    }
+
+    @Override
+    public Page<Item> searchActiveItemsByText(List<SearchTokenizer.Term> terms,
+                                              String category,
+                                              BigDecimal minPrice,
+                                              BigDecimal maxPrice,
+                                              Pageable pageable) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        String where = whereClause(terms, category, minPrice, maxPrice, params);
+        String orderBy = isPostgres()
+                ? " order by ts_rank(i.search_vector, cast(:tsQuery as tsquery)) desc, i.created_at desc, i.item_id desc"
+                : RECENCY_ORDER;
+
+        return page(where, orderBy, params, pageable);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> findActiveItemsByTextBefore(List<SearchTokenizer.Term> terms,
+                                                  String category,
+                                                  BigDecimal minPrice,
+                                                  BigDecimal maxPrice,
+                                                  Instant beforeCreatedAt,
+                                                  Long beforeItemId,
+                                                  int limit) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        StringBuilder where = new StringBuilder(whereClause(terms, category, minPrice, maxPrice, params));
+        if (beforeCreatedAt != null && beforeItemId != null) {
+            // A row-value comparison so PostgreSQL uses it as an index bound on (created_at, item_id);
+            // the equivalent OR expansion is only applied as a filter, which walks every row before the cursor.
+            where.append(" and (i.created_at, i.item_id) < (:beforeCreatedAt, :beforeItemId)");
+            params.put("beforeCreatedAt", beforeCreatedAt);
+            params.put("beforeItemId", beforeItemId);
+        }
+
+        Query query = entityManager.createNativeQuery("select i.*" + where + RECENCY_ORDER, Item.class);
+        params.forEach(query::setParameter);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Page<Item> page(String where, String orderBy, Map<String, Object> params, Pageable pageable) {
+        Query query = entityManager.createNativeQuery("select i.*" + where + orderBy, Item.class);
+        params.forEach(query::setParameter);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+        List<Item> content = query.getResultList();
+
+        Query countQuery = entityManager.createNativeQuery("select count(*)" + where);
+        params.forEach(countQuery::setParameter);
+        long total = ((Number) countQuery.getSingleResult()).longValue();
+
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private String whereClause(List<SearchTokenizer.Term> terms,
+                               String category,
+                               BigDecimal minPrice,
+                               BigDecimal maxPrice,
+                               Map<String, Object> params) {
+        StringBuilder where = new StringBuilder(" from items i where i.status = 'active'");
+
+        if (!terms.isEmpty() && isPostgres()) {
+            where.append(" and i.search_vector @@ cast(:tsQuery as tsquery)");
+            params.put("tsQuery", toTsQuery(terms));
+        } else {
+            // Fallback for non-PostgreSQL profiles (H2): token-boundary match on the same search_tokens column.
+            for (int n = 0; n < terms.size(); n++) {
+                SearchTokenizer.Term term = terms.get(n);
+                where.append(" and concat(' ', i.search_tokens, ' ') like :term").append(n);
+                params.put("term" + n, "% " + term.getToken() + (term.isPrefix() ? "%" : " %"));
+            }
+        }
+
+        if (category != null) {
+            where.append(" and i.category = :category");
+            params.put("category", category);
+        }
+        if (minPrice != null) {
+            where.append(" and i.price >= :minPrice");
+            params.put("minPrice", minPrice);
+        }
+        if (maxPrice != null) {
+            where.append(" and i.price <= :maxPrice");
+            params.put("maxPrice", maxPrice);
+        }
+        return where.toString();
+    }
+
+    private static String toTsQuery(List<SearchTokenizer.Term> terms) {
+        // Tokens are letters/digits only, so quoting them as tsquery lexemes needs no escaping.
+        return terms.stream()
+                .map(t -> "'" + t.getToken() + "'" + (t.isPrefix() ? ":*" : ""))
+                .collect(Collectors.joining(" & "));
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices()
+                    .getDialect() instanceof PostgreSQLDialect;
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -5,9 +5,11 @@ import com.example.marketplace.domain.message.MessageStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.util.List;
+import java.time.Instant;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
@@ -15,21 +17,21 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
 
     Page<Message> findByThreadIdAndStatusNot(Long threadId, MessageStatus status, Pageable pageable);
 
-    @Query("select distinct m.threadId from Message m where m.senderUserId = ?1 or m.recipientUserId = ?1")
-    List<Long> findDistinctThreadIdsByUserId(Long userId);
-
-    boolean existsByThreadIdAndSenderUserIdOrThreadIdAndRecipientUserId(Long threadId1,
-                                                                        Long senderUserId,
-                                                                        Long threadId2,
-                                                                        Long recipientUserId);
-
     Message findTopByThreadIdAndStatusNotOrderByCreatedAtDesc(Long threadId, MessageStatus status);
 
-    long countByThreadIdAndRecipientUserIdAndStatusAndReadIsFalse(Long threadId,
-                                                                  Long recipientUserId,
-                                                                  MessageStatus status);
-
-    List<Message> findByThreadIdAndRecipientUserIdAndStatusAndReadIsFalse(Long threadId,
-                                                                          Long recipientUserId,
-                                                                          MessageStatus status);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Message m
+               set m.read = true,
+                   m.readAt = :now,
+                   m.updatedAt = :now
+             where m.threadId = :threadId
+               and m.recipientUserId = :recipientUserId
+               and m.status = :status
+               and m.read = false
+            """)
+    int markThreadRead(@Param("threadId") Long threadId,
+                       @Param("recipientUserId") Long recipientUserId,
+                       @Param("status") MessageStatus status,
+                       @Param("now") Instant now);
 }
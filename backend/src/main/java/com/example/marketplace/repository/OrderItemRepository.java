@@ -3,9 +3,12 @@ package com.example.marketplace.repository;
 import com.example.marketplace.domain.order.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
-    List<OrderItem> findByOrderId(Long orderId);
+    List<OrderItem> findByOrderIdOrderByOrderItemIdAsc(Long orderId);
+
+    List<OrderItem> findByOrderIdInOrderByOrderItemIdAsc(Collection<Long> orderIds);
 }
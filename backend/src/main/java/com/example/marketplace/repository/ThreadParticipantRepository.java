@@ -0,0 +1,166 @@
+package com.example.marketplace.repository;
+
+import com.example.marketplace.domain.thread.ThreadParticipant;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ThreadParticipantRepository extends JpaRepository<ThreadParticipant, Long> {
+
+    List<ThreadParticipant> findByThreadId(Long threadId);
+
+    /**
+     * Moves both participants' last message forward and bumps the recipient's unread count, in one statement.
+     * A message that commits after a newer one (their created_at values are taken before the insert) never moves
+     * the summary back. Returns the number of participant rows updated, 2 for an intact thread.
+     * Flushes first so the new message row, whose id is assigned from a sequence, exists for the foreign key.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update ThreadParticipant p
+               set p.lastMessageId = case when p.lastMessageAt is null or p.lastMessageAt <= :createdAt
+                                          then :messageId else p.lastMessageId end,
+                   p.lastMessageAt = greatest(p.lastMessageAt, :createdAt),
+                   p.unreadCount = p.unreadCount + case when p.userId = :recipientUserId then 1 else 0 end,
+                   p.updatedAt = :createdAt
+             where p.threadId = :threadId
+            """)
+    int recordMessage(@Param("threadId") Long threadId,
+                      @Param("recipientUserId") Long recipientUserId,
+                      @Param("messageId") Long messageId,
+                      @Param("createdAt") Instant createdAt);
+
+    /**
+     * Recreates a missing participant row from the message just sent, counting unread messages as the V13
+     * backfill does; a row that exists is left alone.
+     */
+    @Modifying
+    @Query(value = """
+            insert into thread_participants
+                   (thread_id, user_id, counterpart_user_id, last_message_id, last_message_at, unread_count,
+                    created_at, updated_at)
+            select :threadId, :userId, :counterpartUserId, :messageId, :createdAt,
+                   (select count(*) from messages um
+                     where um.thread_id = :threadId
+                       and um.recipient_user_id = :userId
+                       and um.status = 'active'
+                       and um.is_read = false),
+                   :createdAt, :createdAt
+            on conflict (thread_id, user_id) do nothing
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("threadId") Long threadId,
+                       @Param("userId") Long userId,
+                       @Param("counterpartUserId") Long counterpartUserId,
+                       @Param("messageId") Long messageId,
+                       @Param("createdAt") Instant createdAt);
+
+    boolean existsByThreadIdAndLastMessageId(Long threadId, Long lastMessageId);
+
+    /**
+     * Used when the last message is deleted; messageId and createdAt are null when nothing visible remains.
+     * Only rows still pointing at the deleted message are rewritten, so a message sent in the meantime stays.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update ThreadParticipant p
+               set p.lastMessageId = :messageId,
+                   p.lastMessageAt = :createdAt,
+                   p.updatedAt = :now
+             where p.threadId = :threadId
+               and p.lastMessageId = :deletedMessageId
+            """)
+    int replaceLastMessage(@Param("threadId") Long threadId,
+                           @Param("deletedMessageId") Long deletedMessageId,
+                           @Param("messageId") Long messageId,
+                           @Param("createdAt") Instant createdAt,
+                           @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+            update ThreadParticipant p
+               set p.unreadCount = 0,
+                   p.updatedAt = :now
+             where p.threadId = :threadId
+               and p.userId = :userId
+               and p.unreadCount <> 0
+            """)
+    int clearUnread(@Param("threadId") Long threadId,
+                    @Param("userId") Long userId,
+                    @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+            update ThreadParticipant p
+               set p.unreadCount = p.unreadCount - 1,
+                   p.updatedAt = :now
+             where p.threadId = :threadId
+               and p.userId = :userId
+               and p.unreadCount > 0
+            """)
+    int decrementUnread(@Param("threadId") Long threadId,
+                        @Param("userId") Long userId,
+                        @Param("now") Instant now);
+
+    /**
+     * One inbox page read from the (user_id, last_message_at) index; the thread, last message and
+     * counterpart are joined by primary key for the rows on the page only.
+     */
+    @Query(value = """
+            select t.thread_id            as threadId,
+                   t.target_type          as targetType,
+                   t.target_id            as targetId,
+                   lm.message_id          as lastMessageId,
+                   lm.content             as lastMessageContent,
+                   lm.sender_user_id      as lastMessageSenderUserId,
+                   lm.status              as lastMessageStatus,
+                   lm.created_at          as lastMessageCreatedAt,
+                   p.counterpart_user_id  as otherUserId,
+                   u.username             as otherUsername,
+                   p.unread_count         as unreadCount
+              from thread_participants p
+              join threads t on t.thread_id = p.thread_id
+              join messages lm on lm.message_id = p.last_message_id
+              left join users u on u.user_id = p.counterpart_user_id
+             where p.user_id = :userId
+               and p.last_message_id is not null
+             order by p.last_message_at desc, p.thread_id desc
+            """,
+            countQuery = """
+            select count(*)
+              from thread_participants p
+             where p.user_id = :userId
+               and p.last_message_id is not null
+            """,
+            nativeQuery = true)
+    Page<ThreadSummary> findInbox(@Param("userId") Long userId, Pageable pageable);
+
+    interface ThreadSummary {
+        Long getThreadId();
+
+        String getTargetType();
+
+        Long getTargetId();
+
+        Long getLastMessageId();
+
+        String getLastMessageContent();
+
+        Long getLastMessageSenderUserId();
+
+        String getLastMessageStatus();
+
+        Instant getLastMessageCreatedAt();
+
+        Long getOtherUserId();
+
+        String getOtherUsername();
+
+        Long getUnreadCount();
+    }
+}
@@ -3,8 +3,23 @@ package com.example.marketplace.repository;
 import com.example.marketplace.domain.ban.BanStatus;
 import com.example.marketplace.domain.ban.UserBan;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
 
 public interface UserBanRepository extends JpaRepository<UserBan, Long> {
 
     boolean existsByUserIdAndStatus(Long userId, BanStatus status);
+
+    List<UserBan> findByStatus(BanStatus status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update UserBan b set b.status = :expired, b.updatedAt = :now "
+            + "where b.status = :active and b.endAt is not null and b.endAt <= :now")
+    int expireEndedBans(@Param("active") BanStatus active,
+                        @Param("expired") BanStatus expired,
+                        @Param("now") Instant now);
 }
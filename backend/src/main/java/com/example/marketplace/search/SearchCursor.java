@@ -0,0 +1,58 @@
+package com.example.marketplace.search;
+
+import com.example.marketplace.exception.BusinessException;
+import com.example.marketplace.exception.ErrorCode;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for listings ordered by (createdAt desc, id desc).
+ * Encoded as URL-safe base64 of "{createdAt}|{id}"; clients must treat it as an opaque string.
+ */
+public final class SearchCursor {
+
+    private final Instant createdAt;
+    private final Long id;
+
+    private SearchCursor(Instant createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static String encode(Instant createdAt, Long id) {
+        // Stored timestamps have microsecond precision; keep the cursor on the same grid.
+        String raw = createdAt.truncatedTo(ChronoUnit.MICROS) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for a blank cursor (start from the newest listing).
+     */
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep < 0) {
+                throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Invalid cursor");
+            }
+            return new SearchCursor(Instant.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Invalid cursor");
+        }
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
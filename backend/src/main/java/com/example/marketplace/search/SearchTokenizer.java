@@ -0,0 +1,149 @@
+package com.example.marketplace.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits listing text into search tokens.
+ * Latin / digit runs become lower-cased words; CJK runs become unigrams plus
+ * overlapping bigrams, because they carry no whitespace to split on.
+ * The same rules are used when indexing (items.search_tokens) and when querying.
+ */
+public final class SearchTokenizer {
+
+    static final int MAX_TOKEN_LENGTH = 32;
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * Space-separated, de-duplicated tokens for the given fields; empty string when nothing is indexable.
+     */
+    public static String documentTokens(String... fields) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String field : fields) {
+            if (field == null) {
+                continue;
+            }
+            for (Run run : runs(field)) {
+                if (run.cjk) {
+                    String text = run.text;
+                    for (int i = 0; i < text.length(); i++) {
+                        tokens.add(text.substring(i, i + 1));
+                        if (i + 1 < text.length()) {
+                            tokens.add(text.substring(i, i + 2));
+                        }
+                    }
+                } else {
+                    tokens.add(run.text);
+                }
+            }
+        }
+        return String.join(" ", tokens);
+    }
+
+    /**
+     * Terms a document must all contain to match the keywords. Latin words are prefix terms so that
+     * partially typed keywords still hit; CJK runs are matched by their bigrams (or the single character).
+     */
+    public static List<Term> queryTerms(String keywords) {
+        if (keywords == null) {
+            return Collections.emptyList();
+        }
+        Map<String, Term> terms = new LinkedHashMap<>();
+        for (Run run : runs(keywords)) {
+            String text = run.text;
+            if (!run.cjk) {
+                terms.putIfAbsent(text, new Term(text, true));
+            } else if (text.length() == 1) {
+                terms.putIfAbsent(text, new Term(text, false));
+            } else {
+                for (int i = 0; i + 1 < text.length(); i++) {
+                    String bigram = text.substring(i, i + 2);
+                    terms.putIfAbsent(bigram, new Term(bigram, false));
+                }
+            }
+        }
+        return new ArrayList<>(terms.values());
+    }
+
+    private static List<Run> runs(String text) {
+        List<Run> runs = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean currentCjk = false;
+        int i = 0;
+        while (i < text.length()) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+            if (!Character.isLetterOrDigit(cp) || Character.isSupplementaryCodePoint(cp)) {
+                flush(runs, current, currentCjk);
+                continue;
+            }
+            boolean cjk = isCjk(cp);
+            if (current.length() > 0 && cjk != currentCjk) {
+                flush(runs, current, currentCjk);
+            }
+            currentCjk = cjk;
+            current.appendCodePoint(cp);
+        }
+        flush(runs, current, currentCjk);
+        return runs;
+    }
+
+    private static void flush(List<Run> runs, StringBuilder current, boolean cjk) {
+        if (current.length() == 0) {
+            return;
+        }
+        String text = current.toString();
+        current.setLength(0);
+        if (!cjk) {
+            text = text.toLowerCase(Locale.ROOT);
+            if (text.length() > MAX_TOKEN_LENGTH) {
+                text = text.substring(0, MAX_TOKEN_LENGTH);
+            }
+        }
+        runs.add(new Run(text, cjk));
+    }
+
+    private static boolean isCjk(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    private static final class Run {
+        private final String text;
+        private final boolean cjk;
+
+        private Run(String text, boolean cjk) {
+            this.text = text;
+            this.cjk = cjk;
+        }
+    }
+
+    public static final class Term {
+        private final String token;
+        private final boolean prefix;
+
+        Term(String token, boolean prefix) {
+            this.token = token;
+            this.prefix = prefix;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public boolean isPrefix() {
+            return prefix;
+        }
+    }
+}
@@ -1,14 +1,11 @@
 package com.example.marketplace.security;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -16,14 +13,13 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.Collections;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final JwtProperties properties;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
 
     public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, JwtProperties properties) {
         this.tokenProvider = tokenProvider;
@@ -37,34 +33,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         Cookie[] cookies = request.getCookies();
         if (cookies != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            String jwt = Arrays.stream(cookies)
-                    .filter(c -> properties.getCookieName().equals(c.getName()))
-                    .map(Cookie::getValue)
-                    .findFirst()
-                    .orElse(null);
+            String jwt = null;
+            for (Cookie cookie : cookies) {
+                if (properties.getCookieName().equals(cookie.getName())) {
+                    jwt = cookie.getValue();
+                    break;
+                }
+            }
 
             if (StringUtils.hasText(jwt)) {
-                try {
-                    Claims claims = tokenProvider.parseToken(jwt);
-                    Object userIdClaim = claims.get("userId");
-                    Long userId = userIdClaim instanceof Number ? ((Number) userIdClaim).longValue() : null;
-                    String username = claims.getSubject();
-                    String role = claims.get("role", String.class);
-
-                    if (userId != null && username != null && role != null) {
-                        AuthenticatedUser principal = new AuthenticatedUser(
-                                userId,
-                                username,
-                                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
-                        );
-
-                        UsernamePasswordAuthenticationToken authentication =
-                                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
-                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
-                    }
-                } catch (JwtException ex) {
-                    // ignore invalid token, will be treated as anonymous
+                // Invalid or expired tokens yield no principal and the request is treated as anonymous.
+                AuthenticatedUser principal = tokenProvider.authenticate(jwt);
+                if (principal != null) {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+                    authentication.setDetails(detailsSource.buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
             }
         }
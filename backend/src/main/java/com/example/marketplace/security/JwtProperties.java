@@ -8,6 +8,10 @@ public class JwtProperties {
     private String secret;
     private int expirationDays = 7;
     private String cookieName = "sid";
+    /**
+     * Maximum number of verified tokens remembered by {@link JwtTokenProvider#authenticate(String)}.
+     */
+    private int verifiedCacheSize = 10000;
 
     public String getSecret() {
         return secret;
@@ -32,4 +36,12 @@ public class JwtProperties {
     public void setCookieName(String cookieName) {
         this.cookieName = cookieName;
     }
+
+    public int getVerifiedCacheSize() {
+        return verifiedCacheSize;
+    }
+
+    public void setVerifiedCacheSize(int verifiedCacheSize) {
+        this.verifiedCacheSize = verifiedCacheSize;
+    }
 }
@@ -1,30 +1,55 @@
 package com.example.marketplace.security;
 
+import com.example.marketplace.cache.BoundedConcurrentMap;
 import com.example.marketplace.domain.user.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtTokenProvider {
 
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    });
+
     private final JwtProperties properties;
+    private final Key signingKey;
+    private final JwtParser parser;
+    // SHA-256 of a verified token -> its principal, so repeat requests from a session skip verification.
+    // Read on every authenticated request, hence lock-free; expired tokens are the first to go when it fills up.
+    private final BoundedConcurrentMap<ByteBuffer, VerifiedToken> verified;
+    private final Map<String, List<GrantedAuthority>> authoritiesByRole = new ConcurrentHashMap<>();
 
     public JwtTokenProvider(JwtProperties properties) {
         this.properties = properties;
-    }
-
-    private Key getSigningKey() {
-        byte[] keyBytes = properties.getSecret().getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        this.signingKey = Keys.hmacShaKeyFor(properties.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.verified = new BoundedConcurrentMap<>(properties.getVerifiedCacheSize(),
+                token -> token.expiresAt <= System.currentTimeMillis());
     }
 
     public String generateToken(User user) {
@@ -37,15 +62,67 @@ public class JwtTokenProvider {
                 .claim("role", user.getRole().name())
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(expiry))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Claims parseToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Principal for a valid token, or null when the token is invalid, expired or lacks the expected claims.
+     * Verified tokens are cached until they expire; a different (e.g. tampered) token never shares a digest.
+     */
+    public AuthenticatedUser authenticate(String token) {
+        ByteBuffer digest = digest(token);
+        VerifiedToken cached = verified.get(digest);
+        if (cached != null) {
+            if (cached.expiresAt > System.currentTimeMillis()) {
+                return cached.principal;
+            }
+            verified.remove(digest, cached);
+            return null;
+        }
+
+        Claims claims;
+        try {
+            claims = parseToken(token);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
+        Object userIdClaim = claims.get("userId");
+        Long userId = userIdClaim instanceof Number ? ((Number) userIdClaim).longValue() : null;
+        String username = claims.getSubject();
+        String role = claims.get("role", String.class);
+        if (userId == null || username == null || role == null) {
+            return null;
+        }
+
+        AuthenticatedUser principal = new AuthenticatedUser(userId, username, authoritiesFor(role));
+        if (claims.getExpiration() != null) {
+            verified.put(digest, new VerifiedToken(principal, claims.getExpiration().getTime()));
+        }
+        return principal;
+    }
+
+    private List<GrantedAuthority> authoritiesFor(String role) {
+        return authoritiesByRole.computeIfAbsent(role,
+                r -> Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + r)));
+    }
+
+    private static ByteBuffer digest(String token) {
+        // digest() resets the instance, so each thread reuses one.
+        return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static final class VerifiedToken {
+        private final AuthenticatedUser principal;
+        private final long expiresAt;
+
+        private VerifiedToken(AuthenticatedUser principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
     }
 }
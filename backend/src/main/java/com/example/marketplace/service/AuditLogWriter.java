@@ -0,0 +1,86 @@
+package com.example.marketplace.service;
+
+import com.example.marketplace.domain.audit.AuditLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Write-behind queue for audit rows. A single background thread drains the bounded queue and
+ * inserts up to {@code batchSize} rows per JDBC batch; remaining rows are flushed on shutdown.
+ * When the queue stays full the configured {@link AuditProperties.FullQueuePolicy} applies.
+ * Exported as {@code marketplace.audit.written/retried/failed/dropped/queue.depth}.
+ */
+@Component
+public class AuditLogWriter extends BatchingJdbcWriter<AuditLog> {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_SQL = "INSERT INTO audit_logs "
+            + "(level, actor_user_id, action, entity_type, entity_id, message, ip, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final AuditProperties properties;
+    private final Counter dropped;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          AuditProperties properties,
+                          WorkerThreads workerThreads,
+                          MeterRegistry meterRegistry) {
+        super("audit-writer", INSERT_SQL, jdbcTemplate, properties, workerThreads,
+                meterRegistry, "marketplace.audit", "written");
+        this.properties = properties;
+        this.dropped = Counter.builder("marketplace.audit.dropped")
+                .description("Audit rows dropped because the queue was full")
+                .register(meterRegistry);
+    }
+
+    public long droppedCount() {
+        return (long) dropped.count();
+    }
+
+    @Override
+    protected void onQueueFull(AuditLog entry) {
+        if (properties.getFullQueuePolicy() == AuditProperties.FullQueuePolicy.DROP) {
+            dropped.increment();
+            logger.warn("audit queue full, dropped action={} totalDropped={}", entry.getAction(), droppedCount());
+        } else {
+            super.onQueueFull(entry);
+        }
+    }
+
+    @Override
+    protected void bind(PreparedStatement ps, AuditLog entry) throws SQLException {
+        ps.setString(1, entry.getLevel());
+        setLong(ps, 2, entry.getActorUserId());
+        ps.setString(3, entry.getAction());
+        ps.setString(4, entry.getEntityType());
+        setLong(ps, 5, entry.getEntityId());
+        ps.setString(6, entry.getMessage());
+        ps.setString(7, entry.getIp());
+        ps.setObject(8, OffsetDateTime.ofInstant(entry.getCreatedAt(), ZoneOffset.UTC));
+    }
+
+    @Override
+    protected String describe(AuditLog entry) {
+        return "audit action=" + entry.getAction() + " entityType=" + entry.getEntityType()
+                + " entityId=" + entry.getEntityId();
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+}
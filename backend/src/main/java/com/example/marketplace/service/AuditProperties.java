@@ -0,0 +1,79 @@
+package com.example.marketplace.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@ConfigurationProperties(prefix = "app.audit")
+public class AuditProperties implements WriteBehindProperties {
+
+    /**
+     * Actions written synchronously in the caller's transaction; every other action goes through the write-behind queue.
+     */
+    private Set<String> syncActions = new LinkedHashSet<>(Set.of(
+            "REGISTER", "USER_BAN_CREATE", "USER_BAN_REVOKE", "REPORT_MANAGE"));
+    private int queueCapacity = 10000;
+    private int batchSize = 200;
+    /**
+     * How long a caller waits for queue space before the full-queue policy applies.
+     */
+    private long enqueueTimeoutMs = 50;
+    private FullQueuePolicy fullQueuePolicy = FullQueuePolicy.CALLER_RUNS;
+    private long shutdownTimeoutMs = 10000;
+
+    public enum FullQueuePolicy {
+        /** The caller writes its own entry, slowing producers down to the database's pace. */
+        CALLER_RUNS,
+        /** The entry is dropped and counted; request latency is never affected. */
+        DROP
+    }
+
+    public Set<String> getSyncActions() {
+        return syncActions;
+    }
+
+    public void setSyncActions(Set<String> syncActions) {
+        this.syncActions = syncActions;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getEnqueueTimeoutMs() {
+        return enqueueTimeoutMs;
+    }
+
+    public void setEnqueueTimeoutMs(long enqueueTimeoutMs) {
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+    }
+
+    public FullQueuePolicy getFullQueuePolicy() {
+        return fullQueuePolicy;
+    }
+
+    public void setFullQueuePolicy(FullQueuePolicy fullQueuePolicy) {
+        this.fullQueuePolicy = fullQueuePolicy;
+    }
+
+    public long getShutdownTimeoutMs() {
+        return shutdownTimeoutMs;
+    }
+
+    public void setShutdownTimeoutMs(long shutdownTimeoutMs) {
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+}
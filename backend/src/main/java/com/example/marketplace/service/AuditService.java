@@ -6,6 +6,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
@@ -19,9 +21,15 @@ public class AuditService {
     private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
 
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final AuditProperties auditProperties;
 
-    public AuditService(AuditLogRepository auditLogRepository) {
+    public AuditService(AuditLogRepository auditLogRepository,
+                        AuditLogWriter auditLogWriter,
+                        AuditProperties auditProperties) {
         this.auditLogRepository = auditLogRepository;
+        this.auditLogWriter = auditLogWriter;
+        this.auditProperties = auditProperties;
     }
 
     public void auditInfo(Long actorUserId, String action, String entityType, Long entityId, String message) {
@@ -42,7 +50,7 @@ public class AuditService {
         logEntity.setMessage(message);
         logEntity.setIp(resolveClientIp());
         logEntity.setCreatedAt(Instant.now());
-        auditLogRepository.save(logEntity);
+        persist(logEntity);
 
         try {
             if (actorUserId != null) {
@@ -56,6 +64,26 @@ public class AuditService {
         }
     }
 
+    /**
+     * Sync actions are saved in the caller's transaction, as before. Async actions are queued for the
+     * background writer once the caller's transaction commits, so a rolled-back change leaves no audit row
+     * and the row never references data that is not yet visible.
+     */
+    private void persist(AuditLog logEntity) {
+        if (auditProperties.getSyncActions().contains(logEntity.getAction())) {
+            auditLogRepository.save(logEntity);
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    auditLogWriter.enqueue(logEntity);
+                }
+            });
+        } else {
+            auditLogWriter.enqueue(logEntity);
+        }
+    }
+
     private String resolveClientIp() {
         ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
         if (attrs == null) {
@@ -0,0 +1,217 @@
+package com.example.marketplace.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind insert of rows off the request thread. A single background worker drains the bounded queue into
+ * JDBC batches of up to {@code batchSize} rows, retries a failing batch with exponential backoff and then row by
+ * row, so one bad row cannot take the rest of its batch with it. Rows still queued are written on shutdown.
+ * <p>
+ * Subclasses supply the INSERT statement, the row binding and, optionally, what a producer does when the queue
+ * stays full (by default it writes its own row). Written, retried and failed counts and the queue depth are
+ * registered as {@code <prefix>.<written>}, {@code <prefix>.retried}, {@code <prefix>.failed} and
+ * {@code <prefix>.queue.depth}.
+ */
+public abstract class BatchingJdbcWriter<T> {
+
+    private static final long POLL_INTERVAL_MS = 200;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final String name;
+    private final JdbcTemplate jdbcTemplate;
+    private final String insertSql;
+    private final WriteBehindProperties properties;
+    private final BlockingQueue<T> queue;
+    private final ExecutorService executor;
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final Counter written;
+    private final Counter retried;
+    private final Counter failed;
+    private final Object progress = new Object();
+    private volatile boolean running = true;
+
+    protected BatchingJdbcWriter(String name,
+                                 String insertSql,
+                                 JdbcTemplate jdbcTemplate,
+                                 WriteBehindProperties properties,
+                                 WorkerThreads workerThreads,
+                                 MeterRegistry registry,
+                                 String metricPrefix,
+                                 String writtenName) {
+        this.name = name;
+        this.insertSql = insertSql;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.written = Counter.builder(metricPrefix + "." + writtenName)
+                .description("Rows inserted by the " + name)
+                .register(registry);
+        this.retried = Counter.builder(metricPrefix + ".retried")
+                .description("Batches the " + name + " retried after a failed insert")
+                .register(registry);
+        this.failed = Counter.builder(metricPrefix + ".failed")
+                .description("Rows the " + name + " could not insert")
+                .register(registry);
+        Gauge.builder(metricPrefix + ".queue.depth", queue, BlockingQueue::size)
+                .description("Rows waiting for the " + name)
+                .register(registry);
+        this.executor = Executors.newSingleThreadExecutor(workerThreads.factory(name));
+        this.executor.execute(this::drainLoop);
+    }
+
+    /**
+     * Queues the row, waiting up to {@code enqueueTimeoutMs} for space; when the queue stays full (or the writer
+     * is shutting down) {@link #onQueueFull} decides what happens to it.
+     */
+    public void enqueue(T row) {
+        try {
+            if (running && queue.offer(row, properties.getEnqueueTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                accepted.incrementAndGet();
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        onQueueFull(row);
+    }
+
+    /**
+     * Blocks until every row queued before this call has been handled (or the timeout elapses).
+     */
+    public boolean flush(long timeoutMs) throws InterruptedException {
+        long target = accepted.get();
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (progress) {
+            while (processed.get() < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                progress.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    public long writtenCount() {
+        return (long) written.count();
+    }
+
+    public long retryCount() {
+        return (long) retried.count();
+    }
+
+    public long failedCount() {
+        return (long) failed.count();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(properties.getShutdownTimeoutMs(), TimeUnit.MILLISECONDS)) {
+            logger.warn("{} did not drain in time, {} rows lost", name, queue.size());
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Called on the producer's thread when the queue had no space within the enqueue timeout.
+     * The default writes the row synchronously, slowing producers down to the database's pace.
+     */
+    protected void onQueueFull(T row) {
+        writeRows(List.of(row));
+    }
+
+    protected abstract void bind(PreparedStatement ps, T row) throws SQLException;
+
+    /**
+     * Identifies a row in the error log when it cannot be written.
+     */
+    protected abstract String describe(T row);
+
+    private void drainLoop() {
+        List<T> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                T first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                writeBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                if (!batch.isEmpty()) {
+                    processed.addAndGet(batch.size());
+                    batch.clear();
+                    synchronized (progress) {
+                        progress.notifyAll();
+                    }
+                }
+            }
+        }
+    }
+
+    private void writeBatch(List<T> batch) throws InterruptedException {
+        long backoff = properties.getRetryBackoffMs();
+        for (int attempt = 1; attempt <= properties.getMaxAttempts(); attempt++) {
+            try {
+                insert(batch);
+                written.increment(batch.size());
+                return;
+            } catch (RuntimeException ex) {
+                if (attempt == properties.getMaxAttempts()) {
+                    logger.warn("{} batch of {} failed after {} attempts, retrying rows individually",
+                            name, batch.size(), attempt, ex);
+                    break;
+                }
+                retried.increment();
+                Thread.sleep(backoff);
+                backoff *= 2;
+            }
+        }
+        writeRows(batch);
+    }
+
+    private void writeRows(List<T> rows) {
+        for (T row : rows) {
+            try {
+                insert(List.of(row));
+                written.increment();
+            } catch (RuntimeException ex) {
+                failed.increment();
+                logger.error("{} failed to write {}", name, describe(row), ex);
+            }
+        }
+    }
+
+    private void insert(List<T> rows) {
+        jdbcTemplate.batchUpdate(insertSql, rows, rows.size(), this::bind);
+    }
+}
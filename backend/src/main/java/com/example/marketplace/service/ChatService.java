@@ -3,8 +3,8 @@ package com.example.marketplace.service;
 import com.example.marketplace.domain.message.Message;
 import com.example.marketplace.domain.message.MessageStatus;
 import com.example.marketplace.domain.thread.ChatThread;
+import com.example.marketplace.domain.thread.ThreadParticipant;
 import com.example.marketplace.domain.thread.ThreadTargetType;
-import com.example.marketplace.domain.user.User;
 import com.example.marketplace.dto.message.MessageListItem;
 import com.example.marketplace.dto.message.MessageListResponse;
 import com.example.marketplace.dto.thread.CreateThreadRequest;
@@ -12,10 +12,15 @@ import com.example.marketplace.dto.thread.ThreadListItem;
 import com.example.marketplace.dto.thread.ThreadListResponse;
 import com.example.marketplace.exception.BusinessException;
 import com.example.marketplace.exception.ErrorCode;
+import com.example.marketplace.metrics.BusinessMetrics;
+import com.example.marketplace.push.PushBroker;
 import com.example.marketplace.repository.ChatThreadRepository;
 import com.example.marketplace.repository.MessageRepository;
+import com.example.marketplace.repository.ThreadParticipantRepository;
 import com.example.marketplace.repository.UserRepository;
 import com.example.marketplace.security.AuthenticatedUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -26,30 +31,45 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class ChatService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ChatService.class);
+
     private final ChatThreadRepository chatThreadRepository;
     private final MessageRepository messageRepository;
+    private final ThreadParticipantRepository threadParticipantRepository;
+    private final ThreadMembershipCache threadMembershipCache;
     private final UserRepository userRepository;
     private final AuditService auditService;
+    private final PushBroker pushBroker;
+    private final BusinessMetrics businessMetrics;
+
+    static final String MESSAGE_EVENT = "message";
 
     private static final int MAX_PAGE_SIZE = 100;
     private static final long REVOKE_WINDOW_SECONDS = 300;
 
     public ChatService(ChatThreadRepository chatThreadRepository,
                        MessageRepository messageRepository,
+                       ThreadParticipantRepository threadParticipantRepository,
+                       ThreadMembershipCache threadMembershipCache,
                        UserRepository userRepository,
-                       AuditService auditService) {
+                       AuditService auditService,
+                       PushBroker pushBroker,
+                       BusinessMetrics businessMetrics) {
         this.chatThreadRepository = chatThreadRepository;
         this.messageRepository = messageRepository;
+        this.threadParticipantRepository = threadParticipantRepository;
+        this.threadMembershipCache = threadMembershipCache;
         this.userRepository = userRepository;
         this.auditService = auditService;
+        this.pushBroker = pushBroker;
+        this.businessMetrics = businessMetrics;
     }
 
     @Transactional
@@ -98,7 +118,13 @@ public class ChatService {
         message.setStatus(MessageStatus.active);
         message.setCreatedAt(now);
         message.setUpdatedAt(now);
-        messageRepository.save(message);
+        Message savedMessage = messageRepository.save(message);
+
+        threadParticipantRepository.saveAll(List.of(
+                newParticipant(savedThread.getThreadId(), currentUserId, recipientUserId, savedMessage, 0),
+                newParticipant(savedThread.getThreadId(), recipientUserId, currentUserId, savedMessage, 1)));
+        pushBroker.publishAfterCommit(recipientUserId, MESSAGE_EVENT, toListItem(savedMessage));
+        businessMetrics.threadStarted();
 
         auditService.auditInfo(currentUserId, "THREAD_CREATE", "THREAD", savedThread.getThreadId(), "Thread created with first message");
         return savedThread;
@@ -123,32 +149,15 @@ public class ChatService {
             size = MAX_PAGE_SIZE;
         }
 
-        chatThreadRepository.findById(threadId)
-                .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "Thread not found"));
-
         Long currentUserId = principal.getUserId();
-        boolean participant = messageRepository.existsByThreadIdAndSenderUserIdOrThreadIdAndRecipientUserId(
-                threadId, currentUserId, threadId, currentUserId);
-        if (!participant) {
-            throw new BusinessException(ErrorCode.FORBIDDEN_OWNER, "Not participant of this thread");
-        }
+        requireCounterpart(threadId, currentUserId);
 
         Pageable pageable = PageRequest.of(page - 1, size, Sort.by(Sort.Direction.ASC, "createdAt"));
 
         Page<Message> pageResult = messageRepository.findByThreadIdAndStatusNot(threadId, MessageStatus.deleted, pageable);
 
         List<MessageListItem> items = pageResult.getContent().stream()
-                .map(m -> {
-                    MessageListItem dto = new MessageListItem();
-                    dto.setMessageId(m.getMessageId());
-                    dto.setSenderUserId(m.getSenderUserId());
-                    dto.setRecipientUserId(m.getRecipientUserId());
-                    dto.setContent(m.getContent());
-                    dto.setRead(m.isRead());
-                    dto.setCreatedAt(m.getCreatedAt());
-                    dto.setStatus(m.getStatus().name());
-                    return dto;
-                })
+                .map(this::toListItem)
                 .collect(Collectors.toList());
 
         MessageListResponse response = new MessageListResponse();
@@ -171,24 +180,8 @@ public class ChatService {
             throw new BusinessException(ErrorCode.VALIDATION_ERROR, "content is required");
         }
 
-        chatThreadRepository.findById(threadId)
-                .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "Thread not found"));
-
         Long currentUserId = principal.getUserId();
-        boolean participant = messageRepository.existsByThreadIdAndSenderUserIdOrThreadIdAndRecipientUserId(
-                threadId, currentUserId, threadId, currentUserId);
-        if (!participant) {
-            throw new BusinessException(ErrorCode.FORBIDDEN_OWNER, "Not participant of this thread");
-        }
-
-        Message lastMessage = messageRepository.findTopByThreadIdAndStatusNotOrderByCreatedAtDesc(threadId, MessageStatus.deleted);
-        if (lastMessage == null) {
-            throw new BusinessException(ErrorCode.CONFLICT_STATE, "Thread has no previous messages");
-        }
-
-        Long otherUserId = currentUserId.equals(lastMessage.getSenderUserId())
-                ? lastMessage.getRecipientUserId()
-                : lastMessage.getSenderUserId();
+        Long otherUserId = requireCounterpart(threadId, currentUserId);
         if (otherUserId == null) {
             throw new BusinessException(ErrorCode.CONFLICT_STATE, "Cannot determine message recipient");
         }
@@ -206,15 +199,23 @@ public class ChatService {
         message.setUpdatedAt(now);
 
         Message saved = messageRepository.save(message);
-
-        MessageListItem dto = new MessageListItem();
-        dto.setMessageId(saved.getMessageId());
-        dto.setSenderUserId(saved.getSenderUserId());
-        dto.setRecipientUserId(saved.getRecipientUserId());
-        dto.setContent(saved.getContent());
-        dto.setRead(saved.isRead());
-        dto.setCreatedAt(saved.getCreatedAt());
-        dto.setStatus(saved.getStatus().name());
+        int updated = threadParticipantRepository.recordMessage(threadId, otherUserId, saved.getMessageId(),
+                saved.getCreatedAt());
+        if (updated != 2) {
+            // A participant row is missing, so the message would not show in that inbox; put the row back.
+            logger.warn("thread {} had {} participant rows, restoring the missing ones", threadId, updated);
+            threadParticipantRepository.insertIfAbsent(threadId, currentUserId, otherUserId, saved.getMessageId(),
+                    saved.getCreatedAt());
+            threadParticipantRepository.insertIfAbsent(threadId, otherUserId, currentUserId, saved.getMessageId(),
+                    saved.getCreatedAt());
+            threadMembershipCache.evict(threadId);
+        }
+
+        MessageListItem dto = toListItem(saved);
+        // The sender gets it too, for their other open windows.
+        pushBroker.publishAfterCommit(otherUserId, MESSAGE_EVENT, dto);
+        pushBroker.publishAfterCommit(currentUserId, MESSAGE_EVENT, dto);
+        businessMetrics.messageSent();
         return dto;
     }
 
@@ -235,73 +236,31 @@ public class ChatService {
 
         Long currentUserId = principal.getUserId();
 
-        List<Long> threadIds = messageRepository.findDistinctThreadIdsByUserId(currentUserId);
-
-        List<ThreadListItem> allItems = new ArrayList<>();
-
-        for (Long threadId : threadIds) {
-            ChatThread thread = chatThreadRepository.findById(threadId)
-                    .orElse(null);
-            if (thread == null) {
-                continue;
-            }
-
-            Message lastMessage = messageRepository.findTopByThreadIdAndStatusNotOrderByCreatedAtDesc(threadId, MessageStatus.deleted);
-            if (lastMessage == null) {
-                continue;
-            }
-
-            Long otherUserId;
-            if (currentUserId.equals(lastMessage.getSenderUserId())) {
-                otherUserId = lastMessage.getRecipientUserId();
-            } else {
-                otherUserId = lastMessage.getSenderUserId();
-            }
-
-            String otherUsername = null;
-            if (otherUserId != null) {
-                User other = userRepository.findById(otherUserId).orElse(null);
-                if (other != null) {
-                    otherUsername = other.getUsername();
-                }
-            }
-
-            long unreadCount = messageRepository.countByThreadIdAndRecipientUserIdAndStatusAndReadIsFalse(
-                    threadId, currentUserId, MessageStatus.active);
-
-            ThreadListItem item = new ThreadListItem();
-            item.setThreadId(threadId);
-            item.setTargetType(thread.getTargetType().name());
-            item.setTargetId(thread.getTargetId());
-            item.setOtherUserId(otherUserId);
-            item.setOtherUsername(otherUsername);
-            item.setLastMessageId(lastMessage.getMessageId());
-            item.setLastMessageContent(lastMessage.getContent());
-            item.setLastMessageSenderUserId(lastMessage.getSenderUserId());
-            item.setLastMessageStatus(lastMessage.getStatus().name());
-            item.setLastMessageCreatedAt(lastMessage.getCreatedAt());
-            item.setUnreadCount(unreadCount);
-            item.setHasUnread(unreadCount > 0);
-
-            allItems.add(item);
-        }
-
-        allItems.sort(Comparator.comparing(ThreadListItem::getLastMessageCreatedAt,
-                        Comparator.nullsFirst(Comparator.naturalOrder()))
-                .reversed());
-
-        long total = allItems.size();
-        int fromIndex = (page - 1) * size;
-        int toIndex = Math.min(fromIndex + size, allItems.size());
-        List<ThreadListItem> pageItems;
-        if (fromIndex >= allItems.size()) {
-            pageItems = new ArrayList<>();
-        } else {
-            pageItems = new ArrayList<>(allItems.subList(fromIndex, toIndex));
-        }
+        Page<ThreadParticipantRepository.ThreadSummary> pageResult =
+                threadParticipantRepository.findInbox(currentUserId, PageRequest.of(page - 1, size));
+
+        List<ThreadListItem> pageItems = pageResult.getContent().stream()
+                .map(summary -> {
+                    ThreadListItem item = new ThreadListItem();
+                    item.setThreadId(summary.getThreadId());
+                    item.setTargetType(summary.getTargetType());
+                    item.setTargetId(summary.getTargetId());
+                    item.setOtherUserId(summary.getOtherUserId());
+                    item.setOtherUsername(summary.getOtherUsername());
+                    item.setLastMessageId(summary.getLastMessageId());
+                    item.setLastMessageContent(summary.getLastMessageContent());
+                    item.setLastMessageSenderUserId(summary.getLastMessageSenderUserId());
+                    item.setLastMessageStatus(summary.getLastMessageStatus());
+                    item.setLastMessageCreatedAt(summary.getLastMessageCreatedAt());
+                    long unreadCount = summary.getUnreadCount() != null ? summary.getUnreadCount() : 0L;
+                    item.setUnreadCount(unreadCount);
+                    item.setHasUnread(unreadCount > 0);
+                    return item;
+                })
+                .collect(Collectors.toList());
 
         ThreadListResponse response = new ThreadListResponse();
-        response.setTotal(total);
+        response.setTotal(pageResult.getTotalElements());
         response.setThreads(pageItems);
         return response;
     }
@@ -335,6 +294,7 @@ public class ChatService {
             message.setReadAt(now);
             message.setUpdatedAt(now);
             messageRepository.save(message);
+            threadParticipantRepository.decrementUnread(message.getThreadId(), currentUserId, now);
         }
     }
 
@@ -349,27 +309,13 @@ public class ChatService {
             throw new BusinessException(ErrorCode.VALIDATION_ERROR, "threadId is required");
         }
 
-        chatThreadRepository.findById(threadId)
-                .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "Thread not found"));
-
         Long currentUserId = principal.getUserId();
-        boolean participant = messageRepository.existsByThreadIdAndSenderUserIdOrThreadIdAndRecipientUserId(
-                threadId, currentUserId, threadId, currentUserId);
-        if (!participant) {
-            throw new BusinessException(ErrorCode.FORBIDDEN_OWNER, "Not participant of this thread");
-        }
+        requireCounterpart(threadId, currentUserId);
 
-        List<Message> messages = messageRepository.findByThreadIdAndRecipientUserIdAndStatusAndReadIsFalse(
-                threadId, currentUserId, MessageStatus.active);
-        if (!messages.isEmpty()) {
-            Instant now = Instant.now();
-            for (Message message : messages) {
-                message.setRead(true);
-                message.setReadAt(now);
-                message.setUpdatedAt(now);
-            }
-            messageRepository.saveAll(messages);
-        }
+        // Single set-based UPDATE: nothing is loaded into the persistence context and no per-row statements are issued.
+        Instant now = Instant.now();
+        messageRepository.markThreadRead(threadId, currentUserId, MessageStatus.active, now);
+        threadParticipantRepository.clearUnread(threadId, currentUserId, now);
     }
 
     @Transactional
@@ -395,6 +341,7 @@ public class ChatService {
         }
 
         Instant now = Instant.now();
+        boolean countedUnread = message.getStatus() == MessageStatus.active && !message.isRead();
 
         if ("revoke".equals(action)) {
             if (!currentUserId.equals(senderUserId)) {
@@ -421,5 +368,61 @@ public class ChatService {
         }
 
         messageRepository.save(message);
+
+        if (countedUnread) {
+            threadParticipantRepository.decrementUnread(message.getThreadId(), recipientUserId, now);
+        }
+        // Only the inbox summary of a thread whose last message this was needs to move.
+        if (message.getStatus() == MessageStatus.deleted && threadParticipantRepository
+                .existsByThreadIdAndLastMessageId(message.getThreadId(), message.getMessageId())) {
+            Message latest = messageRepository.findTopByThreadIdAndStatusNotOrderByCreatedAtDesc(
+                    message.getThreadId(), MessageStatus.deleted);
+            threadParticipantRepository.replaceLastMessage(message.getThreadId(), message.getMessageId(),
+                    latest != null ? latest.getMessageId() : null,
+                    latest != null ? latest.getCreatedAt() : null,
+                    now);
+        }
+    }
+
+    /**
+     * Participant check via the cached membership; returns the other party of the thread.
+     * The thread row is only read to tell "no such thread" from "not a participant".
+     */
+    private Long requireCounterpart(Long threadId, Long currentUserId) {
+        Map<Long, Long> members = threadMembershipCache.membersOf(threadId);
+        if (!members.containsKey(currentUserId)) {
+            if (members.isEmpty() && !chatThreadRepository.existsById(threadId)) {
+                throw new BusinessException(ErrorCode.NOT_FOUND, "Thread not found");
+            }
+            throw new BusinessException(ErrorCode.FORBIDDEN_OWNER, "Not participant of this thread");
+        }
+        return members.get(currentUserId);
+    }
+
+    private MessageListItem toListItem(Message message) {
+        MessageListItem dto = new MessageListItem();
+        dto.setMessageId(message.getMessageId());
+        dto.setThreadId(message.getThreadId());
+        dto.setSenderUserId(message.getSenderUserId());
+        dto.setRecipientUserId(message.getRecipientUserId());
+        dto.setContent(message.getContent());
+        dto.setRead(message.isRead());
+        dto.setCreatedAt(message.getCreatedAt());
+        dto.setStatus(message.getStatus().name());
+        return dto;
+    }
+
+    private ThreadParticipant newParticipant(Long threadId, Long userId, Long counterpartUserId,
+                                             Message lastMessage, int unreadCount) {
+        ThreadParticipant participant = new ThreadParticipant();
+        participant.setThreadId(threadId);
+        participant.setUserId(userId);
+        participant.setCounterpartUserId(counterpartUserId);
+        participant.setLastMessageId(lastMessage.getMessageId());
+        participant.setLastMessageAt(lastMessage.getCreatedAt());
+        participant.setUnreadCount(unreadCount);
+        participant.setCreatedAt(lastMessage.getCreatedAt());
+        participant.setUpdatedAt(lastMessage.getCreatedAt());
+        return participant;
     }
 }
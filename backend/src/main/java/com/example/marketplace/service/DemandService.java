@@ -1,5 +1,7 @@
 package com.example.marketplace.service;
 
+import com.example.marketplace.cache.ListingDetailCache;
+import com.example.marketplace.domain.common.TargetType;
 import com.example.marketplace.domain.demand.Demand;
 import com.example.marketplace.domain.item.ItemStatus;
 import com.example.marketplace.dto.demand.CreateDemandRequest;
@@ -11,12 +13,12 @@ import com.example.marketplace.dto.demand.DemandUpdatePayload;
 import com.example.marketplace.exception.BusinessException;
 import com.example.marketplace.exception.ErrorCode;
 import com.example.marketplace.repository.DemandRepository;
+import com.example.marketplace.search.SearchCursor;
 import com.example.marketplace.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -36,17 +38,20 @@ public class DemandService {
     private final boolean reviewEnabled;
     private final ListingPermissionService listingPermissionService;
     private final AuditService auditService;
+    private final ListingDetailCache listingDetailCache;
 
     private static final int MAX_PAGE_SIZE = 100;
 
     public DemandService(DemandRepository demandRepository,
                          @Value("${app.review.enabled:false}") boolean reviewEnabled,
                          ListingPermissionService listingPermissionService,
-                         AuditService auditService) {
+                         AuditService auditService,
+                         ListingDetailCache listingDetailCache) {
         this.demandRepository = demandRepository;
         this.reviewEnabled = reviewEnabled;
         this.listingPermissionService = listingPermissionService;
         this.auditService = auditService;
+        this.listingDetailCache = listingDetailCache;
     }
 
     public Demand createDemand(CreateDemandRequest request) {
@@ -75,6 +80,10 @@ public class DemandService {
     }
 
     public DemandDetailResponse getDemandDetail(Long id) {
+        return listingDetailCache.demand(id, () -> loadDemandDetail(id));
+    }
+
+    private DemandDetailResponse loadDemandDetail(Long id) {
         Demand demand = demandRepository.findById(id)
                 .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "Demand not found"));
 
@@ -97,12 +106,17 @@ public class DemandService {
         return resp;
     }
 
+    /**
+     * Page mode (cursor == null) returns a total; cursor mode seeks on (createdAt, demandId)
+     * and skips the count query. An empty cursor starts from the newest demand.
+     */
     public DemandSearchResponse searchDemands(String keywords,
                                               String category,
                                               BigDecimal minPrice,
                                               BigDecimal maxPrice,
                                               int page,
-                                              int size) {
+                                              int size,
+                                              String cursor) {
         if (page < 1 || size < 1) {
             throw new BusinessException(ErrorCode.INVALID_RANGE, "Invalid page or size");
         }
@@ -117,7 +131,12 @@ public class DemandService {
 
         String keywordPattern = StringUtils.hasText(keywords) ? ("%" + keywords.trim() + "%") : null;
 
-        Pageable pageable = PageRequest.of(page - 1, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        if (cursor != null) {
+            return searchDemandsAfter(keywordPattern, category, minPrice, maxPrice, SearchCursor.decode(cursor), size);
+        }
+
+        // Newest first; the ordering is part of the query.
+        Pageable pageable = PageRequest.of(page - 1, size);
 
         Page<Demand> pageResult = demandRepository.searchActiveDemands(
                 keywordPattern,
@@ -127,23 +146,51 @@ public class DemandService {
                 pageable
         );
 
-        List<DemandSearchResultItem> demands = pageResult.getContent().stream()
-                .map(d -> {
-                    DemandSearchResultItem dto = new DemandSearchResultItem();
-                    dto.setDemandId(d.getDemandId());
-                    dto.setTitle(d.getTitle());
-                    dto.setExpectedPrice(d.getExpectedPrice());
-                    dto.setStatus(d.getStatus());
-                    return dto;
-                })
-                .collect(Collectors.toList());
-
         DemandSearchResponse response = new DemandSearchResponse();
         response.setTotal(pageResult.getTotalElements());
-        response.setDemands(demands);
+        response.setDemands(pageResult.getContent().stream()
+                .map(this::toSearchResultItem)
+                .collect(Collectors.toList()));
+        return response;
+    }
+
+    private DemandSearchResponse searchDemandsAfter(String keywordPattern,
+                                                    String category,
+                                                    BigDecimal minPrice,
+                                                    BigDecimal maxPrice,
+                                                    SearchCursor after,
+                                                    int size) {
+        // Fetch one extra row to learn whether another page exists.
+        List<Demand> rows = demandRepository.findActiveDemandsBefore(keywordPattern, category, minPrice, maxPrice,
+                after != null ? after.getCreatedAt() : null,
+                after != null ? after.getId() : null,
+                size + 1);
+
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+
+        DemandSearchResponse response = new DemandSearchResponse();
+        response.setDemands(rows.stream()
+                .map(this::toSearchResultItem)
+                .collect(Collectors.toList()));
+        if (hasMore) {
+            Demand last = rows.get(rows.size() - 1);
+            response.setNextCursor(SearchCursor.encode(last.getCreatedAt(), last.getDemandId()));
+        }
         return response;
     }
 
+    private DemandSearchResultItem toSearchResultItem(Demand d) {
+        DemandSearchResultItem dto = new DemandSearchResultItem();
+        dto.setDemandId(d.getDemandId());
+        dto.setTitle(d.getTitle());
+        dto.setExpectedPrice(d.getExpectedPrice());
+        dto.setStatus(d.getStatus());
+        return dto;
+    }
+
     @Transactional
     public void manageDemand(Long id, DemandManageRequest request) {
         Long currentUserId = listingPermissionService.requireCurrentUserId();
@@ -156,6 +203,7 @@ public class DemandService {
         }
 
         listingPermissionService.assertDemandOwner(demand, currentUserId);
+        listingDetailCache.evict(TargetType.demand, demand.getDemandId());
 
         String action = request.getAction();
         if ("update".equals(action)) {
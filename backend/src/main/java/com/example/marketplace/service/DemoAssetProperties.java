@@ -0,0 +1,62 @@
+package com.example.marketplace.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.demo-assets")
+public class DemoAssetProperties {
+
+    private boolean enabled = true;
+    /**
+     * Directory served under {@code /demo-assets/}; indexed once at startup.
+     */
+    private String dir = "../frontend/public/demo-assets";
+    /**
+     * Where gzip variants are written for compressible files that have no {@code .gz} next to them.
+     * Brotli variants are only served when a {@code .br} file is shipped alongside the original.
+     */
+    private String compressedDir = System.getProperty("java.io.tmpdir") + "/marketplace-demo-assets";
+    private List<String> compressibleExtensions = List.of("svg");
+    private long maxAgeSeconds = 7 * 24 * 3600;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDir() {
+        return dir;
+    }
+
+    public void setDir(String dir) {
+        this.dir = dir;
+    }
+
+    public String getCompressedDir() {
+        return compressedDir;
+    }
+
+    public void setCompressedDir(String compressedDir) {
+        this.compressedDir = compressedDir;
+    }
+
+    public List<String> getCompressibleExtensions() {
+        return compressibleExtensions;
+    }
+
+    public void setCompressibleExtensions(List<String> compressibleExtensions) {
+        this.compressibleExtensions = compressibleExtensions;
+    }
+
+    public long getMaxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+
+    public void setMaxAgeSeconds(long maxAgeSeconds) {
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.marketplace.service;
+
+import com.example.marketplace.domain.image.ImageAsset;
+import com.example.marketplace.domain.image.ThumbnailStatus;
+import com.example.marketplace.dto.image.ImageUploadResponse;
+import com.example.marketplace.exception.BusinessException;
+import com.example.marketplace.exception.ErrorCode;
+import com.example.marketplace.media.BlobStore;
+import com.example.marketplace.media.ThumbnailWorker;
+import com.example.marketplace.repository.ImageAssetRepository;
+import com.example.marketplace.security.AuthenticatedUser;
+import org.springframework.core.io.Resource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Uploaded images, stored under the SHA-256 of their bytes. The same file uploaded twice is stored once,
+ * and because a hash can only ever name one content, every URL handed out is safe to cache forever.
+ */
+@Service
+public class ImageService {
+
+    public static final String URL_PREFIX = "/api/images/";
+    public static final String THUMBNAIL_SUFFIX = "/thumb";
+
+    // The formats the JDK can decode that browsers also display.
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "jpeg", "image/jpeg",
+            "png", "image/png",
+            "gif", "image/gif");
+
+    private final ImageAssetRepository imageAssetRepository;
+    private final BlobStore blobStore;
+    private final ThumbnailWorker thumbnailWorker;
+    private final MediaProperties properties;
+
+    public ImageService(ImageAssetRepository imageAssetRepository,
+                        BlobStore blobStore,
+                        ThumbnailWorker thumbnailWorker,
+                        MediaProperties properties) {
+        this.imageAssetRepository = imageAssetRepository;
+        this.blobStore = blobStore;
+        this.thumbnailWorker = thumbnailWorker;
+        this.properties = properties;
+    }
+
+    @Transactional
+    public ImageUploadResponse upload(MultipartFile file) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser principal)) {
+            throw new BusinessException(ErrorCode.AUTH_REQUIRED, "Authentication required");
+        }
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR, "file is required");
+        }
+        if (file.getSize() > properties.getMaxBytes()) {
+            throw new BusinessException(ErrorCode.CONTENT_INVALID, "Image exceeds " + properties.getMaxBytes() + " bytes");
+        }
+
+        byte[] data;
+        try {
+            data = file.getBytes();
+        } catch (IOException ex) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Failed to read upload");
+        }
+        String hash = sha256Hex(data);
+
+        Optional<ImageAsset> existing = imageAssetRepository.findById(hash);
+        if (existing.isPresent()) {
+            ImageAsset asset = existing.get();
+            return toResponse(hash, asset.getContentType(), asset.getByteSize(), asset.getWidth(), asset.getHeight());
+        }
+
+        // The format and dimensions come from the bytes, never from the client's Content-Type or file name.
+        String contentType;
+        int width;
+        int height;
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new BusinessException(ErrorCode.CONTENT_INVALID, "Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                contentType = CONTENT_TYPES.get(reader.getFormatName().toLowerCase());
+                if (contentType == null) {
+                    throw new BusinessException(ErrorCode.CONTENT_INVALID, "Unsupported image format");
+                }
+                reader.setInput(in, true, true);
+                width = reader.getWidth(0);
+                height = reader.getHeight(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException ex) {
+            throw new BusinessException(ErrorCode.CONTENT_INVALID, "Image cannot be read");
+        }
+        if (width <= 0 || height <= 0 || (long) width * height > properties.getMaxPixels()) {
+            throw new BusinessException(ErrorCode.CONTENT_INVALID, "Image dimensions are not allowed");
+        }
+
+        // Stored before the row: a rolled-back upload leaves an unreferenced blob, never a row without bytes.
+        blobStore.put(ThumbnailWorker.originalKey(hash), data, contentType);
+        int inserted = imageAssetRepository.insertIfAbsent(hash, contentType, data.length, width, height,
+                principal.getUserId());
+        if (inserted > 0) {
+            thumbnailWorker.submitAfterCommit(hash);
+        }
+        return toResponse(hash, contentType, data.length, width, height);
+    }
+
+    public ImageAsset getAsset(String hash) {
+        if (!isHash(hash)) {
+            throw new BusinessException(ErrorCode.NOT_FOUND, "Image not found");
+        }
+        return imageAssetRepository.findById(hash)
+                .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "Image not found"));
+    }
+
+    public Resource openOriginal(ImageAsset asset) {
+        return blobStore.get(ThumbnailWorker.originalKey(asset.getImageHash()))
+                .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "Image not found"));
+    }
+
+    /**
+     * The thumbnail, or empty while it is still being generated (or could not be).
+     */
+    public Optional<Resource> openThumbnail(ImageAsset asset) {
+        if (asset.getThumbnailStatus() != ThumbnailStatus.ready) {
+            return Optional.empty();
+        }
+        return blobStore.get(ThumbnailWorker.thumbnailKey(asset.getImageHash(), properties.getThumbnailWidth()));
+    }
+
+    public String thumbnailEtag(String hash) {
+        return "\"" + hash + "-w" + properties.getThumbnailWidth() + "\"";
+    }
+
+    /**
+     * Maps the URL of an uploaded image to its thumbnail; any other URL is returned unchanged.
+     */
+    public static String toThumbnailUrl(String imageUrl) {
+        if (imageUrl != null && imageUrl.length() == URL_PREFIX.length() + 64
+                && imageUrl.startsWith(URL_PREFIX) && isHash(imageUrl.substring(URL_PREFIX.length()))) {
+            return imageUrl + THUMBNAIL_SUFFIX;
+        }
+        return imageUrl;
+    }
+
+    private static boolean isHash(String value) {
+        if (value == null || value.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ImageUploadResponse toResponse(String hash, String contentType, long size, int width, int height) {
+        ImageUploadResponse response = new ImageUploadResponse();
+        response.setHash(hash);
+        response.setUrl(URL_PREFIX + hash);
+        response.setThumbnailUrl(URL_PREFIX + hash + THUMBNAIL_SUFFIX);
+        response.setContentType(contentType);
+        response.setSize(size);
+        response.setWidth(width);
+        response.setHeight(height);
+        return response;
+    }
+
+    private static String sha256Hex(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
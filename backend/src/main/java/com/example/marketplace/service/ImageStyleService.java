@@ -1,8 +1,8 @@
 package com.example.marketplace.service;
 
+import com.example.marketplace.cache.ListingDetailCache;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -17,7 +17,17 @@ public class ImageStyleService {
     public static final String STYLE_PHOTO = "photo";
     private static final Set<String> VALID_STYLES = Set.of(STYLE_CARTOON, STYLE_PHOTO);
 
+    private static final String PHOTO_PREFIX = "/demo-assets/photo/";
+    private static final String PHOTO_SUFFIX = ".webp";
+    private static final String CARTOON_PREFIX = "/demo-assets/cartoon/";
+    private static final String CARTOON_SUFFIX = ".svg";
+
     private final AtomicReference<String> currentStyle = new AtomicReference<>(STYLE_PHOTO);
+    private final ListingDetailCache listingDetailCache;
+
+    public ImageStyleService(ListingDetailCache listingDetailCache) {
+        this.listingDetailCache = listingDetailCache;
+    }
 
     public String getStyle() {
         return currentStyle.get();
@@ -27,7 +37,10 @@ public class ImageStyleService {
         if (!VALID_STYLES.contains(style)) {
             throw new IllegalArgumentException("Invalid style: " + style + ". Must be one of: " + VALID_STYLES);
         }
-        currentStyle.set(style);
+        if (!style.equals(currentStyle.getAndSet(style))) {
+            // Cached detail responses carry URLs rewritten for the previous style.
+            listingDetailCache.clear();
+        }
     }
 
     /**
@@ -36,28 +49,41 @@ public class ImageStyleService {
      * cartoon paths: /demo-assets/cartoon/{cat}_{nn}.svg
      */
     public String rewriteImageUrl(String url) {
-        if (url == null)
-            return null;
-        String style = currentStyle.get();
-        if (STYLE_CARTOON.equals(style)) {
-            // Rewrite photo → cartoon
-            if (url.startsWith("/demo-assets/photo/")) {
-                return url.replace("/demo-assets/photo/", "/demo-assets/cartoon/")
-                        .replaceAll("\\.webp$", ".svg");
-            }
+        if (url == null || !STYLE_CARTOON.equals(currentStyle.get())) {
+            return url;
         }
-        // style=photo or URL not matching pattern → return as-is
-        return url;
+        return toCartoon(url);
     }
 
     /**
-     * Rewrite an array of image URLs.
+     * Rewrite an array of image URLs. In photo style nothing changes and the given array itself is returned.
      */
     public String[] rewriteImageUrls(String[] urls) {
-        if (urls == null)
-            return null;
-        return Arrays.stream(urls)
-                .map(this::rewriteImageUrl)
-                .toArray(String[]::new);
+        if (urls == null || !STYLE_CARTOON.equals(currentStyle.get())) {
+            return urls;
+        }
+        String[] rewritten = new String[urls.length];
+        for (int i = 0; i < urls.length; i++) {
+            rewritten[i] = urls[i] == null ? null : toCartoon(urls[i]);
+        }
+        return rewritten;
+    }
+
+    /**
+     * Plain prefix/suffix splice: one allocation for a demo photo URL, none for any other URL.
+     */
+    private static String toCartoon(String url) {
+        if (!url.startsWith(PHOTO_PREFIX)) {
+            return url;
+        }
+        boolean webp = url.endsWith(PHOTO_SUFFIX);
+        int nameEnd = webp ? url.length() - PHOTO_SUFFIX.length() : url.length();
+        StringBuilder cartoon = new StringBuilder(CARTOON_PREFIX.length() + nameEnd - PHOTO_PREFIX.length()
+                + CARTOON_SUFFIX.length());
+        cartoon.append(CARTOON_PREFIX).append(url, PHOTO_PREFIX.length(), nameEnd);
+        if (webp) {
+            cartoon.append(CARTOON_SUFFIX);
+        }
+        return cartoon.toString();
     }
 }
@@ -1,48 +1,94 @@
 package com.example.marketplace.service;
 
-import com.example.marketplace.exception.BusinessException;
-import com.example.marketplace.exception.ErrorCode;
+import com.example.marketplace.exception.RateLimitExceededException;
+import com.example.marketplace.ratelimit.RateLimitStore;
+import com.example.marketplace.security.AuthenticatedUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Per-route request limits keyed by client (user id when authenticated, otherwise remote address).
+ * Counting is delegated to the configured {@link RateLimitStore}; when the store fails the request is let through
+ * or rejected according to {@code app.rate-limit.failure-mode}, and counted in
+ * {@code marketplace.ratelimit.store.failures}.
+ */
 @Service
 public class IpRateLimiter {
 
-    private static class CounterWindow {
-        private long windowStartMillis;
-        private int count;
-    }
+    public static final String LOGIN = "login";
+    public static final String REGISTER = "register";
+    public static final String OFFER_CREATE = "offer-create";
+    public static final String MESSAGE_SEND = "message-send";
 
-    private final Map<String, CounterWindow> counters = new ConcurrentHashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(IpRateLimiter.class);
 
-    private static final long WINDOW_MILLIS = 60_000L;
-    private static final int MAX_ATTEMPTS = 10;
+    private final RateLimitProperties properties;
+    private final RateLimitStore store;
+    private final MeterRegistry meterRegistry;
 
-    public void checkRateLimit(String key) {
-        long now = Instant.now().toEpochMilli();
-        CounterWindow window = counters.computeIfAbsent(key, k -> {
-            CounterWindow cw = new CounterWindow();
-            cw.windowStartMillis = now;
-            cw.count = 0;
-            return cw;
-        });
+    public IpRateLimiter(RateLimitProperties properties, RateLimitStore store, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+    }
 
-        synchronized (window) {
-            if (now - window.windowStartMillis > WINDOW_MILLIS) {
-                window.windowStartMillis = now;
-                window.count = 0;
-            }
-            window.count++;
-            if (window.count > MAX_ATTEMPTS) {
-                throw new BusinessException(ErrorCode.RATE_LIMITED, "Too many requests");
+    /**
+     * Counts the request against the policy for the calling client; throws when the limit is exceeded.
+     */
+    public void checkRateLimit(String policyName, HttpServletRequest request) {
+        checkRateLimit(policyName, clientKey(request));
+    }
+
+    public void checkRateLimit(String policyName, String clientKey) {
+        RateLimitProperties.Policy policy = properties.getPolicies().get(policyName);
+        if (policy == null) {
+            throw new IllegalStateException("No rate limit policy named " + policyName);
+        }
+
+        long retryAfterMillis;
+        try {
+            retryAfterMillis = store.acquire(policyName + ':' + clientKey, policy.getLimit(),
+                    TimeUnit.SECONDS.toMillis(policy.getWindowSeconds()));
+        } catch (RuntimeException ex) {
+            boolean failClosed = properties.getFailureMode() == RateLimitProperties.FailureMode.CLOSED;
+            storeFailures(policyName, failClosed ? "rejected" : "allowed").increment();
+            if (failClosed) {
+                logger.warn("rate limit store failed, rejecting request policy={}", policyName, ex);
+                throw new RateLimitExceededException(1);
             }
+            logger.warn("rate limit store failed, allowing request policy={}", policyName, ex);
+            return;
+        }
+        if (retryAfterMillis > 0) {
+            throw new RateLimitExceededException(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(retryAfterMillis + 999)));
         }
     }
 
     public void reset() {
-        counters.clear();
+        store.reset();
+    }
+
+    private Counter storeFailures(String policyName, String outcome) {
+        return Counter.builder("marketplace.ratelimit.store.failures")
+                .description("Rate limit checks the store could not answer, by what happened to the request")
+                .tag("policy", policyName)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return "user:" + principal.getUserId();
+        }
+        return "ip:" + request.getRemoteAddr();
     }
 }
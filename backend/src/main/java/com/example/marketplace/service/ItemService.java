@@ -1,5 +1,7 @@
 package com.example.marketplace.service;
 
+import com.example.marketplace.cache.ListingDetailCache;
+import com.example.marketplace.domain.common.TargetType;
 import com.example.marketplace.domain.item.Item;
 import com.example.marketplace.domain.item.ItemStatus;
 import com.example.marketplace.dto.item.CreateItemRequest;
@@ -11,12 +13,13 @@ import com.example.marketplace.dto.item.ItemUpdatePayload;
 import com.example.marketplace.exception.BusinessException;
 import com.example.marketplace.exception.ErrorCode;
 import com.example.marketplace.repository.ItemRepository;
+import com.example.marketplace.search.SearchCursor;
+import com.example.marketplace.search.SearchTokenizer;
 import com.example.marketplace.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -38,6 +41,7 @@ public class ItemService {
     private final ListingPermissionService listingPermissionService;
     private final AuditService auditService;
     private final ImageStyleService imageStyleService;
+    private final ListingDetailCache listingDetailCache;
 
     private static final int MAX_PAGE_SIZE = 100;
 
@@ -45,12 +49,14 @@ public class ItemService {
             @Value("${app.review.enabled:false}") boolean reviewEnabled,
             ListingPermissionService listingPermissionService,
             AuditService auditService,
-            ImageStyleService imageStyleService) {
+            ImageStyleService imageStyleService,
+            ListingDetailCache listingDetailCache) {
         this.itemRepository = itemRepository;
         this.reviewEnabled = reviewEnabled;
         this.listingPermissionService = listingPermissionService;
         this.auditService = auditService;
         this.imageStyleService = imageStyleService;
+        this.listingDetailCache = listingDetailCache;
     }
 
     public Item createItem(CreateItemRequest request) {
@@ -84,6 +90,10 @@ public class ItemService {
     }
 
     public ItemDetailResponse getItemDetail(Long id) {
+        return listingDetailCache.item(id, () -> loadItemDetail(id));
+    }
+
+    private ItemDetailResponse loadItemDetail(Long id) {
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "Item not found"));
 
@@ -124,6 +134,7 @@ public class ItemService {
         }
 
         listingPermissionService.assertItemOwner(item, currentUserId);
+        listingDetailCache.evict(TargetType.item, item.getItemId());
 
         String action = request.getAction();
         if ("update".equals(action)) {
@@ -163,12 +174,18 @@ public class ItemService {
         }
     }
 
+    /**
+     * Page mode (cursor == null) returns a total and, for keyword searches, relevance order.
+     * Cursor mode seeks on (createdAt, itemId), always newest first, and skips the count query;
+     * an empty cursor starts from the newest listing.
+     */
     public ItemSearchResponse searchItems(String keywords,
             String category,
             BigDecimal minPrice,
             BigDecimal maxPrice,
             int page,
-            int size) {
+            int size,
+            String cursor) {
         if (page < 1 || size < 1) {
             throw new BusinessException(ErrorCode.INVALID_RANGE, "Invalid page or size");
         }
@@ -181,34 +198,68 @@ public class ItemService {
             throw new BusinessException(ErrorCode.INVALID_RANGE, "minPrice cannot be greater than maxPrice");
         }
 
-        String keywordPattern = StringUtils.hasText(keywords) ? ("%" + keywords.trim() + "%") : null;
-
-        Pageable pageable = PageRequest.of(page - 1, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-
-        Page<Item> pageResult = itemRepository.searchActiveItems(
-                keywordPattern,
-                category,
-                minPrice,
-                maxPrice,
-                pageable);
-
-        List<ItemSearchResultItem> items = pageResult.getContent().stream()
-                .map(item -> {
-                    ItemSearchResultItem dto = new ItemSearchResultItem();
-                    dto.setItemId(item.getItemId());
-                    dto.setTitle(item.getTitle());
-                    dto.setPrice(item.getPrice());
-                    dto.setStatus(item.getStatus());
-                    if (item.getImages() != null && item.getImages().length > 0) {
-                        dto.setThumbnailUrl(imageStyleService.rewriteImageUrl(item.getImages()[0]));
-                    }
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        List<SearchTokenizer.Term> terms = StringUtils.hasText(keywords)
+                ? SearchTokenizer.queryTerms(keywords)
+                : List.of();
+
+        if (cursor != null) {
+            return searchItemsAfter(terms, category, minPrice, maxPrice, SearchCursor.decode(cursor), size);
+        }
+
+        // Newest first, or by relevance with keywords; the ordering is part of each query.
+        Pageable pageable = PageRequest.of(page - 1, size);
+        Page<Item> pageResult = terms.isEmpty()
+                ? itemRepository.searchActiveItems(category, minPrice, maxPrice, pageable)
+                : itemRepository.searchActiveItemsByText(terms, category, minPrice, maxPrice, pageable);
 
         ItemSearchResponse response = new ItemSearchResponse();
         response.setTotal(pageResult.getTotalElements());
-        response.setItems(items);
+        response.setItems(pageResult.getContent().stream()
+                .map(this::toSearchResultItem)
+                .collect(Collectors.toList()));
         return response;
     }
+
+    private ItemSearchResponse searchItemsAfter(List<SearchTokenizer.Term> terms,
+            String category,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            SearchCursor after,
+            int size) {
+        // Fetch one extra row to learn whether another page exists.
+        Instant beforeCreatedAt = after != null ? after.getCreatedAt() : null;
+        Long beforeItemId = after != null ? after.getId() : null;
+        List<Item> rows = terms.isEmpty()
+                ? itemRepository.findActiveItemsBefore(category, minPrice, maxPrice,
+                        beforeCreatedAt, beforeItemId, size + 1)
+                : itemRepository.findActiveItemsByTextBefore(terms, category, minPrice, maxPrice,
+                        beforeCreatedAt, beforeItemId, size + 1);
+
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+
+        ItemSearchResponse response = new ItemSearchResponse();
+        response.setItems(rows.stream()
+                .map(this::toSearchResultItem)
+                .collect(Collectors.toList()));
+        if (hasMore) {
+            Item last = rows.get(rows.size() - 1);
+            response.setNextCursor(SearchCursor.encode(last.getCreatedAt(), last.getItemId()));
+        }
+        return response;
+    }
+
+    private ItemSearchResultItem toSearchResultItem(Item item) {
+        ItemSearchResultItem dto = new ItemSearchResultItem();
+        dto.setItemId(item.getItemId());
+        dto.setTitle(item.getTitle());
+        dto.setPrice(item.getPrice());
+        dto.setStatus(item.getStatus());
+        if (item.getImages() != null && item.getImages().length > 0) {
+            dto.setThumbnailUrl(imageStyleService.rewriteImageUrl(ImageService.toThumbnailUrl(item.getImages()[0])));
+        }
+        return dto;
+    }
 }
@@ -0,0 +1,176 @@
+package com.example.marketplace.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.media")
+public class MediaProperties {
+
+    /**
+     * Where blobs are kept: {@code local} (a directory on this node) or {@code s3} (any S3-compatible service).
+     */
+    private String store = "local";
+    private String localDir = "data/media";
+    private long maxBytes = 10L * 1024 * 1024;
+    /**
+     * Uploads are rejected before decoding when width * height exceeds this, so a small file cannot
+     * inflate into a huge bitmap.
+     */
+    private long maxPixels = 40_000_000L;
+    private int thumbnailWidth = 320;
+    private float thumbnailQuality = 0.8f;
+    private int thumbnailThreads = 2;
+    private int thumbnailQueueCapacity = 1000;
+    /**
+     * A {@code pending} upload untouched for this long is assumed to have lost its task (queue full, node
+     * restarted) and is queued again by the periodic re-scan.
+     */
+    private long thumbnailStaleAfterMs = 300_000;
+    private int thumbnailRescanPageSize = 500;
+    private final S3 s3 = new S3();
+
+    public String getStore() {
+        return store;
+    }
+
+    public void setStore(String store) {
+        this.store = store;
+    }
+
+    public String getLocalDir() {
+        return localDir;
+    }
+
+    public void setLocalDir(String localDir) {
+        this.localDir = localDir;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public long getMaxPixels() {
+        return maxPixels;
+    }
+
+    public void setMaxPixels(long maxPixels) {
+        this.maxPixels = maxPixels;
+    }
+
+    public int getThumbnailWidth() {
+        return thumbnailWidth;
+    }
+
+    public void setThumbnailWidth(int thumbnailWidth) {
+        this.thumbnailWidth = thumbnailWidth;
+    }
+
+    public float getThumbnailQuality() {
+        return thumbnailQuality;
+    }
+
+    public void setThumbnailQuality(float thumbnailQuality) {
+        this.thumbnailQuality = thumbnailQuality;
+    }
+
+    public int getThumbnailThreads() {
+        return thumbnailThreads;
+    }
+
+    public void setThumbnailThreads(int thumbnailThreads) {
+        this.thumbnailThreads = thumbnailThreads;
+    }
+
+    public int getThumbnailQueueCapacity() {
+        return thumbnailQueueCapacity;
+    }
+
+    public void setThumbnailQueueCapacity(int thumbnailQueueCapacity) {
+        this.thumbnailQueueCapacity = thumbnailQueueCapacity;
+    }
+
+    public long getThumbnailStaleAfterMs() {
+        return thumbnailStaleAfterMs;
+    }
+
+    public void setThumbnailStaleAfterMs(long thumbnailStaleAfterMs) {
+        this.thumbnailStaleAfterMs = thumbnailStaleAfterMs;
+    }
+
+    public int getThumbnailRescanPageSize() {
+        return thumbnailRescanPageSize;
+    }
+
+    public void setThumbnailRescanPageSize(int thumbnailRescanPageSize) {
+        this.thumbnailRescanPageSize = thumbnailRescanPageSize;
+    }
+
+    public S3 getS3() {
+        return s3;
+    }
+
+    public static class S3 {
+
+        /**
+         * Base URL of the service, e.g. {@code https://s3.eu-west-1.amazonaws.com} or a MinIO address.
+         * Objects are addressed path-style: {@code endpoint/bucket/key}.
+         */
+        private String endpoint;
+        private String bucket;
+        private String region = "us-east-1";
+        private String accessKey;
+        private String secretKey;
+        private int timeoutMs = 5000;
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public void setEndpoint(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public String getBucket() {
+            return bucket;
+        }
+
+        public void setBucket(String bucket) {
+            this.bucket = bucket;
+        }
+
+        public String getRegion() {
+            return region;
+        }
+
+        public void setRegion(String region) {
+            this.region = region;
+        }
+
+        public String getAccessKey() {
+            return accessKey;
+        }
+
+        public void setAccessKey(String accessKey) {
+            this.accessKey = accessKey;
+        }
+
+        public String getSecretKey() {
+            return secretKey;
+        }
+
+        public void setSecretKey(String secretKey) {
+            this.secretKey = secretKey;
+        }
+
+        public int getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(int timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+    }
+}
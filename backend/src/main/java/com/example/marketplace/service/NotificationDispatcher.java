@@ -0,0 +1,76 @@
+package com.example.marketplace.service;
+
+import com.example.marketplace.domain.notification.Notification;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Writes notifications off the request thread. Notifications raised inside a transaction are queued
+ * only once it commits, so a rolled-back order or offer never notifies anyone; a single background
+ * thread inserts them in JDBC batches, retrying failed batches with exponential backoff.
+ * Exported as {@code marketplace.notifications.dispatched/retried/failed/queue.depth}.
+ */
+@Component
+public class NotificationDispatcher extends BatchingJdbcWriter<Notification> {
+
+    private static final String INSERT_SQL = "INSERT INTO notifications "
+            + "(user_id, type, title, content, related_type, related_id, is_read, status, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public NotificationDispatcher(JdbcTemplate jdbcTemplate,
+                                  NotificationProperties properties,
+                                  WorkerThreads workerThreads,
+                                  MeterRegistry meterRegistry) {
+        super("notification-dispatcher", INSERT_SQL, jdbcTemplate, properties, workerThreads,
+                meterRegistry, "marketplace.notifications", "dispatched");
+    }
+
+    /**
+     * Queues the notification once the surrounding transaction commits, or immediately when there is none.
+     */
+    public void dispatchAfterCommit(Notification notification) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(notification);
+                }
+            });
+        } else {
+            enqueue(notification);
+        }
+    }
+
+    @Override
+    protected void bind(PreparedStatement ps, Notification notification) throws SQLException {
+        ps.setLong(1, notification.getUserId());
+        ps.setString(2, notification.getType());
+        ps.setString(3, notification.getTitle());
+        ps.setString(4, notification.getContent());
+        ps.setString(5, notification.getRelatedType());
+        if (notification.getRelatedId() == null) {
+            ps.setNull(6, Types.BIGINT);
+        } else {
+            ps.setLong(6, notification.getRelatedId());
+        }
+        ps.setBoolean(7, notification.isRead());
+        ps.setString(8, notification.getStatus().name());
+        ps.setObject(9, OffsetDateTime.ofInstant(notification.getCreatedAt(), ZoneOffset.UTC));
+        ps.setObject(10, OffsetDateTime.ofInstant(notification.getUpdatedAt(), ZoneOffset.UTC));
+    }
+
+    @Override
+    protected String describe(Notification notification) {
+        return "notification type=" + notification.getType() + " userId=" + notification.getUserId()
+                + " relatedType=" + notification.getRelatedType() + " relatedId=" + notification.getRelatedId();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.marketplace.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.notification")
+public class NotificationProperties implements WriteBehindProperties {
+
+    private int queueCapacity = 10000;
+    private int batchSize = 200;
+    /**
+     * How long a caller waits for queue space before writing its notifications itself.
+     */
+    private long enqueueTimeoutMs = 50;
+    /**
+     * Attempts per batch, including the first; after the last one rows are retried individually.
+     */
+    private int maxAttempts = 3;
+    /**
+     * Delay before the first retry; doubled for each further attempt.
+     */
+    private long retryBackoffMs = 200;
+    private long shutdownTimeoutMs = 10000;
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getEnqueueTimeoutMs() {
+        return enqueueTimeoutMs;
+    }
+
+    public void setEnqueueTimeoutMs(long enqueueTimeoutMs) {
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getRetryBackoffMs() {
+        return retryBackoffMs;
+    }
+
+    public void setRetryBackoffMs(long retryBackoffMs) {
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    public long getShutdownTimeoutMs() {
+        return shutdownTimeoutMs;
+    }
+
+    public void setShutdownTimeoutMs(long shutdownTimeoutMs) {
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+}
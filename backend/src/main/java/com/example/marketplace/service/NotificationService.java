@@ -24,22 +24,28 @@ import java.util.stream.Collectors;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final NotificationDispatcher notificationDispatcher;
 
     private static final int MAX_PAGE_SIZE = 100;
 
-    public NotificationService(NotificationRepository notificationRepository) {
+    public NotificationService(NotificationRepository notificationRepository,
+                               NotificationDispatcher notificationDispatcher) {
         this.notificationRepository = notificationRepository;
+        this.notificationDispatcher = notificationDispatcher;
     }
 
-    @Transactional
-    public Notification sendNotification(Long userId,
-                                         String type,
-                                         String title,
-                                         String content,
-                                         String relatedType,
-                                         Long relatedId) {
+    /**
+     * Raises a notification for the user. The row is written by {@link NotificationDispatcher} after the
+     * caller's transaction commits, so it is not visible to reads within that transaction.
+     */
+    public void sendNotification(Long userId,
+                                 String type,
+                                 String title,
+                                 String content,
+                                 String relatedType,
+                                 Long relatedId) {
         if (userId == null || type == null) {
-            return null;
+            return;
         }
 
         Notification notification = new Notification();
@@ -54,7 +60,7 @@ public class NotificationService {
         notification.setCreatedAt(now);
         notification.setUpdatedAt(now);
 
-        return notificationRepository.save(notification);
+        notificationDispatcher.dispatchAfterCommit(notification);
     }
 
     @Transactional(readOnly = true)
@@ -1,5 +1,6 @@
 package com.example.marketplace.service;
 
+import com.example.marketplace.cache.ListingDetailCache;
 import com.example.marketplace.domain.common.TargetType;
 import com.example.marketplace.domain.demand.Demand;
 import com.example.marketplace.domain.item.Item;
@@ -9,6 +10,7 @@ import com.example.marketplace.domain.offer.OfferStatus;
 import com.example.marketplace.dto.offer.CreateOfferRequest;
 import com.example.marketplace.exception.BusinessException;
 import com.example.marketplace.exception.ErrorCode;
+import com.example.marketplace.metrics.BusinessMetrics;
 import com.example.marketplace.repository.DemandRepository;
 import com.example.marketplace.repository.ItemRepository;
 import com.example.marketplace.repository.OfferRepository;
@@ -29,17 +31,23 @@ public class OfferService {
     private final DemandRepository demandRepository;
     private final AuditService auditService;
     private final NotificationService notificationService;
+    private final ListingDetailCache listingDetailCache;
+    private final BusinessMetrics businessMetrics;
 
     public OfferService(OfferRepository offerRepository,
                         ItemRepository itemRepository,
                         DemandRepository demandRepository,
                         AuditService auditService,
-                        NotificationService notificationService) {
+                        NotificationService notificationService,
+                        ListingDetailCache listingDetailCache,
+                        BusinessMetrics businessMetrics) {
         this.offerRepository = offerRepository;
         this.itemRepository = itemRepository;
         this.demandRepository = demandRepository;
         this.auditService = auditService;
         this.notificationService = notificationService;
+        this.listingDetailCache = listingDetailCache;
+        this.businessMetrics = businessMetrics;
     }
 
     @Transactional
@@ -100,6 +108,7 @@ public class OfferService {
         offer.setCreatedAt(Instant.now());
 
         Offer saved = offerRepository.save(offer);
+        listingDetailCache.evict(saved.getTargetType(), saved.getTargetId());
         auditService.auditInfo(currentUserId, "OFFER_CREATE", "OFFER", saved.getOfferId(), "Offer created");
 
         if (ownerId != null) {
@@ -166,6 +175,7 @@ public class OfferService {
                     throw new BusinessException(ErrorCode.FORBIDDEN_OWNER, "Not owner of target");
                 }
                 offer.setStatus(OfferStatus.accepted);
+                businessMetrics.offerAccepted(targetType);
                 auditService.auditInfo(currentUserId, "OFFER_ACCEPT", "OFFER", offerId, "Offer accepted");
                 notificationService.sendNotification(
                         offererId,
@@ -215,6 +225,7 @@ public class OfferService {
             default -> throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Unknown action");
         }
 
+        listingDetailCache.evict(offer.getTargetType(), offer.getTargetId());
         return offerRepository.save(offer);
     }
 }
@@ -1,5 +1,6 @@
 package com.example.marketplace.service;
 
+import com.example.marketplace.cache.ListingDetailCache;
 import com.example.marketplace.domain.common.TargetType;
 import com.example.marketplace.domain.demand.Demand;
 import com.example.marketplace.domain.item.Item;
@@ -15,6 +16,7 @@ import com.example.marketplace.dto.order.OrderListItem;
 import com.example.marketplace.dto.order.OrderListResponse;
 import com.example.marketplace.exception.BusinessException;
 import com.example.marketplace.exception.ErrorCode;
+import com.example.marketplace.metrics.BusinessMetrics;
 import com.example.marketplace.repository.DemandRepository;
 import com.example.marketplace.repository.ItemRepository;
 import com.example.marketplace.repository.OfferRepository;
@@ -32,7 +34,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -45,6 +49,8 @@ public class OrderService {
     private final DemandRepository demandRepository;
     private final AuditService auditService;
     private final NotificationService notificationService;
+    private final ListingDetailCache listingDetailCache;
+    private final BusinessMetrics businessMetrics;
 
     private static final int MAX_PAGE_SIZE = 100;
 
@@ -54,7 +60,9 @@ public class OrderService {
                         ItemRepository itemRepository,
                         DemandRepository demandRepository,
                         AuditService auditService,
-                        NotificationService notificationService) {
+                        NotificationService notificationService,
+                        ListingDetailCache listingDetailCache,
+                        BusinessMetrics businessMetrics) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.offerRepository = offerRepository;
@@ -62,6 +70,8 @@ public class OrderService {
         this.demandRepository = demandRepository;
         this.auditService = auditService;
         this.notificationService = notificationService;
+        this.listingDetailCache = listingDetailCache;
+        this.businessMetrics = businessMetrics;
     }
 
     @Transactional
@@ -142,6 +152,7 @@ public class OrderService {
         order.setUpdatedAt(now);
 
         Order savedOrder = orderRepository.save(order);
+        listingDetailCache.evict(targetType, targetId);
 
         OrderItem orderItem = new OrderItem();
         orderItem.setOrderId(savedOrder.getOrderId());
@@ -154,6 +165,10 @@ public class OrderService {
 
         offer.setStatus(OfferStatus.accepted);
         offerRepository.save(offer);
+        if (offerStatus == OfferStatus.created) {
+            businessMetrics.offerAccepted(targetType);
+        }
+        businessMetrics.orderCreated(targetType);
 
         auditService.auditInfo(currentUserId, "ORDER_CREATE", "ORDER", savedOrder.getOrderId(), "Order created from offer");
 
@@ -202,6 +217,16 @@ public class OrderService {
             pageResult = orderRepository.findByBuyerId(currentUserId, pageable);
         }
 
+        // One query for the items of every order on the page instead of one per order.
+        List<Long> orderIds = pageResult.getContent().stream()
+                .map(Order::getOrderId)
+                .collect(Collectors.toList());
+        Map<Long, List<OrderItemSummary>> itemsByOrderId = orderIds.isEmpty()
+                ? Collections.emptyMap()
+                : orderItemRepository.findByOrderIdInOrderByOrderItemIdAsc(orderIds).stream()
+                        .collect(Collectors.groupingBy(OrderItem::getOrderId,
+                                Collectors.mapping(this::toItemSummary, Collectors.toList())));
+
         List<OrderListItem> orderDtos = pageResult.getContent().stream()
                 .map(order -> {
                     OrderListItem dto = new OrderListItem();
@@ -216,18 +241,7 @@ public class OrderService {
                     dto.setCreatedAt(order.getCreatedAt());
                     dto.setUpdatedAt(order.getUpdatedAt());
 
-                    List<OrderItem> items = orderItemRepository.findByOrderId(order.getOrderId());
-                    List<OrderItemSummary> itemDtos = items.stream().map(oi -> {
-                                OrderItemSummary s = new OrderItemSummary();
-                                s.setOrderItemId(oi.getOrderItemId());
-                                s.setTargetType(oi.getTargetType().name());
-                                s.setTargetId(oi.getTargetId());
-                                s.setQuantity(oi.getQuantity());
-                                s.setPrice(oi.getPrice());
-                                return s;
-                            })
-                            .collect(Collectors.toList());
-                    dto.setItems(itemDtos);
+                    dto.setItems(itemsByOrderId.getOrDefault(order.getOrderId(), Collections.emptyList()));
                     return dto;
                 })
                 .collect(Collectors.toList());
@@ -243,7 +257,7 @@ public class OrderService {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "Order not found"));
 
-        List<OrderItem> items = orderItemRepository.findByOrderId(order.getOrderId());
+        List<OrderItem> items = orderItemRepository.findByOrderIdOrderByOrderItemIdAsc(order.getOrderId());
 
         OrderDetailResponse resp = new OrderDetailResponse();
         resp.setOrderId(order.getOrderId());
@@ -259,20 +273,20 @@ public class OrderService {
         resp.setCreatedAt(order.getCreatedAt());
         resp.setUpdatedAt(order.getUpdatedAt());
 
-        List<OrderItemSummary> itemDtos = items.stream().map(oi -> {
-            OrderItemSummary s = new OrderItemSummary();
-            s.setOrderItemId(oi.getOrderItemId());
-            s.setTargetType(oi.getTargetType().name());
-            s.setTargetId(oi.getTargetId());
-            s.setQuantity(oi.getQuantity());
-            s.setPrice(oi.getPrice());
-            return s;
-        }).collect(Collectors.toList());
-
-        resp.setItems(itemDtos);
+        resp.setItems(items.stream().map(this::toItemSummary).collect(Collectors.toList()));
         return resp;
     }
 
+    private OrderItemSummary toItemSummary(OrderItem orderItem) {
+        OrderItemSummary summary = new OrderItemSummary();
+        summary.setOrderItemId(orderItem.getOrderItemId());
+        summary.setTargetType(orderItem.getTargetType().name());
+        summary.setTargetId(orderItem.getTargetId());
+        summary.setQuantity(orderItem.getQuantity());
+        summary.setPrice(orderItem.getPrice());
+        return summary;
+    }
+
     @Transactional
     public Order updateOrderStatus(Long orderId, String action) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -362,6 +376,9 @@ public class OrderService {
             default -> throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Unknown action");
         }
 
+        for (OrderItem orderItem : orderItemRepository.findByOrderIdOrderByOrderItemIdAsc(order.getOrderId())) {
+            listingDetailCache.evict(orderItem.getTargetType(), orderItem.getTargetId());
+        }
         return orderRepository.save(order);
     }
 }
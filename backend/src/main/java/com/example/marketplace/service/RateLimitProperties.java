@@ -0,0 +1,165 @@
+package com.example.marketplace.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Where counters live: {@code memory} (per node), {@code jdbc} (PostgreSQL) or {@code redis}; the latter two
+     * keep limits accurate across several API nodes.
+     */
+    private String store = "memory";
+    /**
+     * Upper bound on client keys tracked by the in-memory store; idle keys are swept first when it is reached.
+     */
+    private int maxKeys = 100000;
+    /**
+     * What to do with a request when the store cannot be reached: {@code open} lets it through (a shared store
+     * outage does not take login and messaging down), {@code closed} rejects it as rate limited.
+     */
+    private FailureMode failureMode = FailureMode.OPEN;
+    /**
+     * Policies by name ({@link IpRateLimiter#LOGIN} etc.): at most {@code limit} requests per {@code windowSeconds}.
+     */
+    private Map<String, Policy> policies = new LinkedHashMap<>(Map.of(
+            IpRateLimiter.LOGIN, new Policy(10, 60),
+            IpRateLimiter.REGISTER, new Policy(10, 60),
+            IpRateLimiter.OFFER_CREATE, new Policy(20, 60),
+            IpRateLimiter.MESSAGE_SEND, new Policy(60, 60)));
+
+    private Redis redis = new Redis();
+
+    public String getStore() {
+        return store;
+    }
+
+    public void setStore(String store) {
+        this.store = store;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public FailureMode getFailureMode() {
+        return failureMode;
+    }
+
+    public void setFailureMode(FailureMode failureMode) {
+        this.failureMode = failureMode;
+    }
+
+    public Map<String, Policy> getPolicies() {
+        return policies;
+    }
+
+    public void setPolicies(Map<String, Policy> policies) {
+        this.policies = policies;
+    }
+
+    public Redis getRedis() {
+        return redis;
+    }
+
+    public void setRedis(Redis redis) {
+        this.redis = redis;
+    }
+
+    public enum FailureMode {
+        OPEN, CLOSED
+    }
+
+    public static class Policy {
+
+        private int limit;
+        private long windowSeconds;
+
+        public Policy() {
+        }
+
+        public Policy(int limit, long windowSeconds) {
+            this.limit = limit;
+            this.windowSeconds = windowSeconds;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public void setLimit(int limit) {
+            this.limit = limit;
+        }
+
+        public long getWindowSeconds() {
+            return windowSeconds;
+        }
+
+        public void setWindowSeconds(long windowSeconds) {
+            this.windowSeconds = windowSeconds;
+        }
+    }
+
+    public static class Redis {
+
+        private String host = "localhost";
+        private int port = 6379;
+        private int timeoutMs = 200;
+        /**
+         * Most connections open at once per node, idle or in use.
+         */
+        private int poolSize = 16;
+        /**
+         * How long a call waits for a connection when all {@code poolSize} are in use before it counts as a
+         * store failure.
+         */
+        private long poolWaitMs = 100;
+
+        public String getHost() {
+            return host;
+        }
+
+        public void setHost(String host) {
+            this.host = host;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public void setPort(int port) {
+            this.port = port;
+        }
+
+        public int getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(int timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public long getPoolWaitMs() {
+            return poolWaitMs;
+        }
+
+        public void setPoolWaitMs(long poolWaitMs) {
+            this.poolWaitMs = poolWaitMs;
+        }
+    }
+}
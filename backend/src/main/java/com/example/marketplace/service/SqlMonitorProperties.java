@@ -0,0 +1,69 @@
+package com.example.marketplace.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.sql-monitor")
+public class SqlMonitorProperties {
+
+    /**
+     * Counts JDBC statements and their execution time per request. Read at startup: turning it off removes the
+     * data source wrapper entirely.
+     */
+    private boolean enabled = true;
+    /**
+     * A request running more statements than this is logged as a warning.
+     */
+    private int statementThreshold = 20;
+    /**
+     * A request spending more time than this executing statements is logged as a warning.
+     */
+    private long timeThresholdMs = 200;
+    /**
+     * The same SQL executed this many times within one request is reported as a likely N+1 query.
+     */
+    private int repeatedStatementThreshold = 10;
+    /**
+     * Adds X-SQL-Count and X-SQL-Time-Ms to every response; meant for development only.
+     */
+    private boolean responseHeaders = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getStatementThreshold() {
+        return statementThreshold;
+    }
+
+    public void setStatementThreshold(int statementThreshold) {
+        this.statementThreshold = statementThreshold;
+    }
+
+    public long getTimeThresholdMs() {
+        return timeThresholdMs;
+    }
+
+    public void setTimeThresholdMs(long timeThresholdMs) {
+        this.timeThresholdMs = timeThresholdMs;
+    }
+
+    public int getRepeatedStatementThreshold() {
+        return repeatedStatementThreshold;
+    }
+
+    public void setRepeatedStatementThreshold(int repeatedStatementThreshold) {
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    public boolean isResponseHeaders() {
+        return responseHeaders;
+    }
+
+    public void setResponseHeaders(boolean responseHeaders) {
+        this.responseHeaders = responseHeaders;
+    }
+}
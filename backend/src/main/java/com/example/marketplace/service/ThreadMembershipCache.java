@@ -0,0 +1,56 @@
+package com.example.marketplace.service;
+
+import com.example.marketplace.cache.BoundedConcurrentMap;
+import com.example.marketplace.domain.thread.ThreadParticipant;
+import com.example.marketplace.repository.ThreadParticipantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of thread membership (userId -> counterpart userId), read on every message send and list, so
+ * lookups take no lock (see {@link BoundedConcurrentMap}).
+ * Participants are fixed when a thread is created, so entries never go stale; the only invalidation is
+ * {@link #evict} after a missing participant row has been restored.
+ * Misses are not cached, so a thread still being created in another transaction is picked up on the next call.
+ */
+@Component
+public class ThreadMembershipCache {
+
+    private final ThreadParticipantRepository threadParticipantRepository;
+    private final BoundedConcurrentMap<Long, Map<Long, Long>> entries;
+
+    public ThreadMembershipCache(ThreadParticipantRepository threadParticipantRepository,
+                                 @Value("${app.chat.membership-cache-size:10000}") int maxEntries) {
+        this.threadParticipantRepository = threadParticipantRepository;
+        this.entries = new BoundedConcurrentMap<>(maxEntries);
+    }
+
+    /**
+     * Participants of the thread mapped to their counterpart; empty when the thread has none (or does not exist).
+     */
+    public Map<Long, Long> membersOf(Long threadId) {
+        Map<Long, Long> members = entries.get(threadId);
+        if (members != null) {
+            return members;
+        }
+
+        Map<Long, Long> loaded = new HashMap<>();
+        for (ThreadParticipant participant : threadParticipantRepository.findByThreadId(threadId)) {
+            loaded.put(participant.getUserId(), participant.getCounterpartUserId());
+        }
+        if (loaded.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        members = Collections.unmodifiableMap(loaded);
+        entries.put(threadId, members);
+        return members;
+    }
+
+    public void evict(Long threadId) {
+        entries.remove(threadId);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.marketplace.service;
+
+import com.example.marketplace.domain.ban.BanStatus;
+import com.example.marketplace.domain.ban.UserBan;
+import com.example.marketplace.repository.UserBanRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory copy of every active ban (userId -> endAt), so the per-request ban check never hits the database.
+ * Active bans are few, so the whole set is held rather than an LRU of lookups; a miss is a definite "not banned".
+ * Local bans and revocations are applied after commit. Bans and revocations made on other instances are picked
+ * up by the periodic reload, so they take effect there within {@code app.ban.refresh-interval-ms} (5 s by
+ * default; the reload reads only active bans through a partial index). A ban stops blocking as soon as its
+ * endAt passes, whether or not {@link UserBanService#expireEndedBans} has marked it expired yet.
+ */
+@Component
+public class UserBanCache {
+
+    private final UserBanRepository userBanRepository;
+    private final Object lock = new Object();
+    private volatile Map<Long, Instant> activeBans;
+    // Bumped by every local change so a refresh that raced with one is not allowed to overwrite it.
+    private long version;
+
+    public UserBanCache(UserBanRepository userBanRepository) {
+        this.userBanRepository = userBanRepository;
+    }
+
+    public boolean isBanned(Long userId) {
+        Map<Long, Instant> bans = activeBans;
+        if (bans == null) {
+            bans = load();
+        }
+        Instant endAt = bans.get(userId);
+        return endAt != null && endAt.isAfter(Instant.now());
+    }
+
+    public void banAfterCommit(Long userId, Instant endAt) {
+        afterCommit(() -> apply(userId, endAt == null ? Instant.MAX : endAt));
+    }
+
+    public void unbanAfterCommit(Long userId) {
+        afterCommit(() -> apply(userId, null));
+    }
+
+    @Scheduled(fixedDelayString = "${app.ban.refresh-interval-ms:5000}",
+            initialDelayString = "${app.ban.refresh-interval-ms:5000}")
+    public void refresh() {
+        load();
+    }
+
+    private Map<Long, Instant> load() {
+        // Retry if a local change lands while the snapshot is being read; the snapshot may predate it.
+        Map<Long, Instant> loaded = Collections.emptyMap();
+        for (int attempt = 0; attempt < 3; attempt++) {
+            long seen;
+            synchronized (lock) {
+                seen = version;
+            }
+            loaded = new HashMap<>();
+            for (UserBan ban : userBanRepository.findByStatus(BanStatus.active)) {
+                loaded.put(ban.getUserId(), ban.getEndAt() == null ? Instant.MAX : ban.getEndAt());
+            }
+            synchronized (lock) {
+                if (version == seen) {
+                    activeBans = Collections.unmodifiableMap(loaded);
+                    return activeBans;
+                }
+            }
+        }
+        synchronized (lock) {
+            // Keep the locally maintained set if there is one; the next refresh tries again.
+            if (activeBans == null) {
+                activeBans = Collections.unmodifiableMap(loaded);
+            }
+            return activeBans;
+        }
+    }
+
+    private void apply(Long userId, Instant endAt) {
+        synchronized (lock) {
+            version++;
+            if (activeBans == null) {
+                // Nothing loaded yet: the first lookup reads the committed change from the database.
+                return;
+            }
+            Map<Long, Instant> updated = new HashMap<>(activeBans);
+            if (endAt == null) {
+                updated.remove(userId);
+            } else {
+                updated.put(userId, endAt);
+            }
+            activeBans = Collections.unmodifiableMap(updated);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -9,10 +9,13 @@ import com.example.marketplace.exception.BusinessException;
 import com.example.marketplace.exception.ErrorCode;
 import com.example.marketplace.repository.UserBanRepository;
 import com.example.marketplace.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,21 +26,26 @@ import java.util.stream.Collectors;
 @Service
 public class UserBanService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserBanService.class);
+
     private final UserBanRepository userBanRepository;
     private final UserRepository userRepository;
     private final AuditService auditService;
     private final NotificationService notificationService;
+    private final UserBanCache userBanCache;
 
     private static final int MAX_PAGE_SIZE = 100;
 
     public UserBanService(UserBanRepository userBanRepository,
                           UserRepository userRepository,
                           AuditService auditService,
-                          NotificationService notificationService) {
+                          NotificationService notificationService,
+                          UserBanCache userBanCache) {
         this.userBanRepository = userBanRepository;
         this.userRepository = userRepository;
         this.auditService = auditService;
         this.notificationService = notificationService;
+        this.userBanCache = userBanCache;
     }
 
     @Transactional
@@ -67,6 +75,7 @@ public class UserBanService {
         ban.setUpdatedAt(now);
 
         UserBan saved = userBanRepository.save(ban);
+        userBanCache.banAfterCommit(userId, saved.getEndAt());
         auditService.auditInfo(adminUserId, "USER_BAN_CREATE", "USER_BAN", saved.getBanId(), "User banned");
 
         notificationService.sendNotification(
@@ -132,6 +141,7 @@ public class UserBanService {
         ban.setUpdatedAt(now);
 
         userBanRepository.save(ban);
+        userBanCache.unbanAfterCommit(ban.getUserId());
         auditService.auditInfo(adminUserId, "USER_BAN_REVOKE", "USER_BAN", ban.getBanId(), "User ban revoked");
 
         notificationService.sendNotification(
@@ -144,11 +154,25 @@ public class UserBanService {
         );
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Marks bans whose endAt has passed as expired, so the user can be banned again. Lookups already ignore
+     * an ended ban, so this only keeps the status column honest; it is idempotent, and running it on every
+     * instance costs one indexed UPDATE each.
+     */
+    @Scheduled(fixedDelayString = "${app.ban.expire-interval-ms:60000}",
+            initialDelayString = "${app.ban.expire-interval-ms:60000}")
+    @Transactional
+    public void expireEndedBans() {
+        int expired = userBanRepository.expireEndedBans(BanStatus.active, BanStatus.expired, Instant.now());
+        if (expired > 0) {
+            logger.info("expired {} user bans past their endAt", expired);
+        }
+    }
+
     public boolean hasActiveBan(Long userId) {
         if (userId == null) {
             return false;
         }
-        return userBanRepository.existsByUserIdAndStatus(userId, BanStatus.active);
+        return userBanCache.isBanned(userId);
     }
 }
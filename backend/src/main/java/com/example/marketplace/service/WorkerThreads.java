@@ -0,0 +1,40 @@
+package com.example.marketplace.service;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Threads for the application's own background writers. They follow {@code spring.threads.virtual.enabled}, the
+ * switch that also moves Tomcat and {@code @Async} onto virtual threads: when it is on and the JVM is 21 or newer
+ * they are virtual threads, otherwise named daemon platform threads. The writers spend nearly all their time
+ * blocked on the queue or on JDBC, which is the case virtual threads are made for; CPU-bound work such as
+ * thumbnail scaling keeps its own platform pool.
+ */
+@Component
+public class WorkerThreads {
+
+    private final boolean virtual;
+
+    public WorkerThreads(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public ThreadFactory factory(String name) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(name + "-").getVirtualThreadFactory();
+        }
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.marketplace.service;
+
+/**
+ * Queue and batching settings shared by the {@link BatchingJdbcWriter} subclasses.
+ */
+public interface WriteBehindProperties {
+
+    int getQueueCapacity();
+
+    int getBatchSize();
+
+    /**
+     * How long a producer waits for queue space before the writer's full-queue handling applies.
+     */
+    long getEnqueueTimeoutMs();
+
+    long getShutdownTimeoutMs();
+
+    /**
+     * Attempts per batch, including the first; after the last one rows are written individually.
+     */
+    default int getMaxAttempts() {
+        return 1;
+    }
+
+    /**
+     * Delay before the first retry; doubled for each further attempt.
+     */
+    default long getRetryBackoffMs() {
+        return 0;
+    }
+}
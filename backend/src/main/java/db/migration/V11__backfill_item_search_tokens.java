@@ -0,0 +1,43 @@
+package db.migration;
+
+import com.example.marketplace.search.SearchTokenizer;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Fills items.search_tokens for rows written before V10, using the same tokenizer as the application.
+ */
+public class V11__backfill_item_search_tokens extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT item_id, title, description FROM items WHERE search_tokens IS NULL");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE items SET search_tokens = ? WHERE item_id = ?")) {
+            select.setFetchSize(BATCH_SIZE);
+            try (ResultSet rs = select.executeQuery()) {
+                int pending = 0;
+                while (rs.next()) {
+                    update.setString(1, SearchTokenizer.documentTokens(rs.getString("title"), rs.getString("description")));
+                    update.setLong(2, rs.getLong("item_id"));
+                    update.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    update.executeBatch();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+-- V10__add_item_search_index.sql
+-- 商品关键词搜索改为全文检索：新增分词列 search_tokens（由应用按标题/描述分词写入，中文按单字+双字切分），
+-- 以及由其生成的 tsvector 列 search_vector 与 GIN 索引，替代无法走索引的 title LIKE '%kw%' 全表扫描。
+-- 直接以词元数组构造 tsvector，不依赖数据库 locale 与文本解析器。存量数据由 V11 回填。
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_tokens TEXT;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector
+  GENERATED ALWAYS AS (array_to_tsvector(string_to_array(coalesce(search_tokens, ''), ' '))) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING GIN (search_vector);
@@ -0,0 +1,20 @@
+-- V12__add_active_listing_indexes.sql
+-- 商品/求购列表查询固定带 status = 'active'，按分类、价格筛选并按发布时间倒序（游标翻页再以主键兜底排序）。
+-- 新增仅覆盖在售记录的部分复合索引，使分类 + 时间排序、纯时间排序与价格区间查询均可走索引，而不是扫描全部状态的数据；
+-- 同时删除 V1 中与 idx_items_category 完全重复的 idx_items_active_category。
+
+CREATE INDEX IF NOT EXISTS idx_items_active_category_created
+  ON items(category, created_at DESC, item_id DESC) WHERE status = 'active';
+CREATE INDEX IF NOT EXISTS idx_items_active_created
+  ON items(created_at DESC, item_id DESC) WHERE status = 'active';
+CREATE INDEX IF NOT EXISTS idx_items_active_price
+  ON items(price) WHERE status = 'active';
+
+CREATE INDEX IF NOT EXISTS idx_demands_active_category_created
+  ON demands(category, created_at DESC, demand_id DESC) WHERE status = 'active';
+CREATE INDEX IF NOT EXISTS idx_demands_active_created
+  ON demands(created_at DESC, demand_id DESC) WHERE status = 'active';
+CREATE INDEX IF NOT EXISTS idx_demands_active_price
+  ON demands(expected_price) WHERE status = 'active';
+
+DROP INDEX IF EXISTS idx_items_active_category;
@@ -0,0 +1,49 @@
+-- V13__add_thread_participants.sql
+-- 新增会话参与者（收件箱摘要）表 thread_participants：每个会话对每位参与者一行，冗余保存对方用户、最后一条未删除消息及未读数，
+-- 由 ChatService 在发消息、已读、撤回/删除时同一事务内维护；“我的会话”列表只需按 (user_id, last_message_at) 读取一页，
+-- 不再随消息历史增长而聚合 messages 表。存量会话按现有消息回填。
+
+CREATE TABLE IF NOT EXISTS thread_participants (
+  participant_id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  thread_id           BIGINT      NOT NULL REFERENCES threads(thread_id) ON DELETE CASCADE,
+  user_id             BIGINT      NOT NULL REFERENCES users(user_id),
+  counterpart_user_id BIGINT      REFERENCES users(user_id),
+  last_message_id     BIGINT      REFERENCES messages(message_id) ON DELETE SET NULL,
+  last_message_at     TIMESTAMP WITH TIME ZONE,
+  unread_count        INTEGER     NOT NULL DEFAULT 0 CHECK (unread_count >= 0),
+  created_at          TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+  updated_at          TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+  CONSTRAINT uq_thread_participants UNIQUE (thread_id, user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_thread_participants_inbox
+  ON thread_participants(user_id, last_message_at DESC, thread_id DESC) WHERE last_message_id IS NOT NULL;
+
+INSERT INTO thread_participants (thread_id, user_id, counterpart_user_id, last_message_id, last_message_at, unread_count)
+SELECT pu.thread_id,
+       pu.user_id,
+       pu.counterpart_user_id,
+       lm.message_id,
+       lm.created_at,
+       (SELECT count(*) FROM messages um
+         WHERE um.thread_id = pu.thread_id
+           AND um.recipient_user_id = pu.user_id
+           AND um.status = 'active'
+           AND um.is_read = FALSE)
+FROM (
+  SELECT DISTINCT ON (x.thread_id, x.user_id) x.thread_id, x.user_id, x.counterpart_user_id
+  FROM (
+    SELECT thread_id, sender_user_id AS user_id, recipient_user_id AS counterpart_user_id, created_at, message_id FROM messages
+    UNION ALL
+    SELECT thread_id, recipient_user_id, sender_user_id, created_at, message_id FROM messages
+  ) x
+  ORDER BY x.thread_id, x.user_id, x.created_at DESC, x.message_id DESC
+) pu
+LEFT JOIN LATERAL (
+  SELECT m.message_id, m.created_at
+  FROM messages m
+  WHERE m.thread_id = pu.thread_id AND m.status <> 'deleted'
+  ORDER BY m.created_at DESC, m.message_id DESC
+  LIMIT 1
+) lm ON TRUE
+ON CONFLICT (thread_id, user_id) DO NOTHING;
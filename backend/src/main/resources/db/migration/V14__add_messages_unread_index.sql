@@ -0,0 +1,6 @@
+-- V14__add_messages_unread_index.sql
+-- “整会话标记已读”改为单条 UPDATE，按 (thread_id, recipient_user_id) 定位未读且有效的消息；
+-- 新增仅覆盖未读有效消息的部分索引，已读消息不进入索引，索引体积随未读量而非消息总量增长。
+
+CREATE INDEX IF NOT EXISTS idx_messages_thread_recipient_unread
+  ON messages(thread_id, recipient_user_id) WHERE is_read = FALSE AND status = 'active';
@@ -0,0 +1,8 @@
+-- V15__add_rate_limit_buckets.sql
+-- 多节点部署时的共享限流计数：每个限流键一行，tat_ms 为 GCRA 算法的“理论到达时间”（数据库时钟毫秒）。
+-- 计数丢失只会让限流暂时放宽，因此使用 UNLOGGED 表省去 WAL 开销；空闲记录由应用定期清理。
+
+CREATE UNLOGGED TABLE IF NOT EXISTS rate_limit_buckets (
+  bucket_key VARCHAR(200) PRIMARY KEY,
+  tat_ms     BIGINT       NOT NULL
+);
@@ -0,0 +1,22 @@
+-- V16__add_image_assets.sql
+-- 上传图片的元数据：以内容 SHA-256 作为主键（内容寻址），相同内容只存一份；原图与缩略图本身存放在 BlobStore（本地磁盘或 S3 兼容存储）。
+-- 缩略图由后台线程异步生成，thumbnail_status 记录生成进度。
+
+CREATE TABLE IF NOT EXISTS image_assets (
+  image_hash             CHAR(64)     PRIMARY KEY,
+  content_type           VARCHAR(64)  NOT NULL,
+  byte_size              BIGINT       NOT NULL,
+  width                  INT          NOT NULL,
+  height                 INT          NOT NULL,
+  thumbnail_status       VARCHAR(16)  NOT NULL DEFAULT 'pending',
+  thumbnail_content_type VARCHAR(64),
+  uploaded_by_user_id    BIGINT       NOT NULL REFERENCES users(user_id),
+  created_at             TIMESTAMP WITH TIME ZONE  NOT NULL DEFAULT now(),
+  updated_at             TIMESTAMP WITH TIME ZONE  NOT NULL DEFAULT now(),
+  CONSTRAINT chk_image_assets_thumbnail_status CHECK (thumbnail_status IN ('pending', 'ready', 'failed'))
+);
+
+-- 启动时补做未完成的缩略图
+CREATE INDEX IF NOT EXISTS idx_image_assets_pending
+  ON image_assets (created_at)
+  WHERE thumbnail_status = 'pending';
@@ -0,0 +1,20 @@
+-- V17__pooled_id_sequences.sql
+-- JPA 实体改为 SEQUENCE 主键（pooled 优化器，allocationSize = 50）：每次 nextval 预留 50 个 id，
+-- Hibernate 在内存中依次分配，插入因此可以按 JDBC 批量执行（IDENTITY 主键会让 Hibernate 关闭插入批处理）。
+-- 这里把各表 identity 列背后的序列步长调整为 50，与实体上的 allocationSize 保持一致；
+-- 直接用 SQL 插入的行仍走列默认值，只是会跳过一段 id，不会与 Hibernate 预留的区间冲突。
+-- notifications 与 audit_logs 由后台线程以 JDBC 批量插入，不经过 Hibernate，保持步长 1。
+
+ALTER TABLE users               ALTER COLUMN user_id        SET INCREMENT BY 50;
+ALTER TABLE items               ALTER COLUMN item_id        SET INCREMENT BY 50;
+ALTER TABLE demands             ALTER COLUMN demand_id      SET INCREMENT BY 50;
+ALTER TABLE offers              ALTER COLUMN offer_id       SET INCREMENT BY 50;
+ALTER TABLE orders              ALTER COLUMN order_id       SET INCREMENT BY 50;
+ALTER TABLE order_items         ALTER COLUMN order_item_id  SET INCREMENT BY 50;
+ALTER TABLE reviews             ALTER COLUMN review_id      SET INCREMENT BY 50;
+ALTER TABLE comments            ALTER COLUMN comment_id     SET INCREMENT BY 50;
+ALTER TABLE threads             ALTER COLUMN thread_id      SET INCREMENT BY 50;
+ALTER TABLE thread_participants ALTER COLUMN participant_id SET INCREMENT BY 50;
+ALTER TABLE messages            ALTER COLUMN message_id     SET INCREMENT BY 50;
+ALTER TABLE reports             ALTER COLUMN report_id      SET INCREMENT BY 50;
+ALTER TABLE user_bans           ALTER COLUMN ban_id         SET INCREMENT BY 50;
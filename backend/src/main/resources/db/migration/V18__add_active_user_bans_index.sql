@@ -0,0 +1,6 @@
+-- V18__add_active_user_bans_index.sql
+-- 各节点的封禁缓存每隔几秒整表重读一次生效中的封禁（status = 'active'），以便尽快看到其它节点新增或撤销的封禁；
+-- 新增仅覆盖生效封禁的部分索引，重读只扫描生效记录，开销不随历史封禁数量增长。
+
+CREATE INDEX IF NOT EXISTS idx_user_bans_active
+  ON user_bans(user_id) WHERE status = 'active';
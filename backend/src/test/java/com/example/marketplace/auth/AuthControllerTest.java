@@ -1,11 +1,27 @@
 package com.example.marketplace.auth;
 
 import com.example.marketplace.BaseIntegrationTest;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -93,6 +109,7 @@ class AuthControllerTest extends BaseIntegrationTest {
                 { \"username\": \"not_exists_rate\", \"password\": \"wrong\" }
                 """;
 
+        long started = System.nanoTime();
         for (int i = 0; i < 10; i++) {
             mockMvc.perform(post("/api/login")
                             .contentType(MediaType.APPLICATION_JSON)
@@ -101,10 +118,45 @@ class AuthControllerTest extends BaseIntegrationTest {
                     .andExpect(jsonPath("$.code").value("AUTH_FAILED"));
         }
 
-        mockMvc.perform(post("/api/login")
+        String retryAfter = mockMvc.perform(post("/api/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
                 .andExpect(status().isTooManyRequests())
-                .andExpect(jsonPath("$.code").value("RATE_LIMITED"));
+                .andExpect(jsonPath("$.code").value("RATE_LIMITED"))
+                .andReturn().getResponse().getHeader("Retry-After");
+
+        // 10 per 60 s emits one attempt every 6 s: the 11th waits one interval, less the time the burst took.
+        assertNotNull(retryAfter);
+        long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started);
+        long seconds = Long.parseLong(retryAfter);
+        assertTrue(seconds <= 6 && seconds >= 5 - elapsedSeconds, "Retry-After=" + retryAfter);
+    }
+
+    @Test
+    void authenticatedRequest_withCachedToken_shouldRejectForgedAndExpiredTokens() throws Exception {
+        Cookie owner = authCookie("jwt_cache_owner");
+        Cookie other = authCookie("jwt_cache_other");
+
+        mockMvc.perform(get("/api/notifications/me").cookie(owner))
+                .andExpect(status().isOk());
+        assertSame(jwtTokenProvider.authenticate(owner.getValue()), jwtTokenProvider.authenticate(owner.getValue()));
+
+        // The owner's claims with someone else's signature must not be served from the cache.
+        String[] ownerParts = owner.getValue().split("\\.");
+        String[] otherParts = other.getValue().split("\\.");
+        String forged = ownerParts[0] + "." + ownerParts[1] + "." + otherParts[2];
+        mockMvc.perform(get("/api/notifications/me").cookie(new Cookie(jwtProperties.getCookieName(), forged)))
+                .andExpect(status().isUnauthorized());
+
+        String expired = Jwts.builder()
+                .setSubject("jwt_cache_owner")
+                .claim("userId", 1L)
+                .claim("role", "MEMBER")
+                .setIssuedAt(Date.from(Instant.now().minusSeconds(120)))
+                .setExpiration(Date.from(Instant.now().minusSeconds(60)))
+                .signWith(Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8)),
+                        SignatureAlgorithm.HS256)
+                .compact();
+        assertNull(jwtTokenProvider.authenticate(expired));
     }
 }
@@ -0,0 +1,136 @@
+package com.example.marketplace.ban;
+
+import com.example.marketplace.BaseIntegrationTest;
+import com.example.marketplace.domain.ban.BanStatus;
+import com.example.marketplace.domain.ban.UserBan;
+import com.example.marketplace.domain.user.User;
+import com.example.marketplace.domain.user.UserRole;
+import com.example.marketplace.repository.UserBanRepository;
+import com.example.marketplace.service.NotificationDispatcher;
+import com.example.marketplace.service.UserBanCache;
+import com.example.marketplace.service.UserBanService;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UserBanControllerTest extends BaseIntegrationTest {
+
+    @Autowired
+    private UserBanRepository userBanRepository;
+
+    @Autowired
+    private UserBanCache userBanCache;
+
+    @Autowired
+    private UserBanService userBanService;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void banAndRevoke_shouldTakeEffectOnNextRequestAfterCommit() throws Exception {
+        String suffix = String.valueOf(System.nanoTime());
+        User admin = saveUser("ban_admin_" + suffix, UserRole.ADMIN);
+        User target = saveUser("ban_target_" + suffix, UserRole.MEMBER);
+        Cookie adminCookie = authCookie(admin.getUsername());
+        Cookie targetCookie = authCookie(target.getUsername());
+        // Each request below commits on its own, so the cache sees bans exactly as production would.
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        try {
+            mockMvc.perform(get("/api/notifications/me").cookie(targetCookie))
+                    .andExpect(status().isOk());
+
+            String created = mockMvc.perform(post("/api/admin/user-bans")
+                            .cookie(adminCookie)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"userId\":" + target.getUserId() + ",\"reason\":\"spam\"}"))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            Number banId = JsonPath.read(created, "$.banId");
+
+            mockMvc.perform(get("/api/notifications/me").cookie(targetCookie))
+                    .andExpect(status().isForbidden())
+                    .andExpect(jsonPath("$.code").value("USER_BANNED"));
+
+            mockMvc.perform(patch("/api/admin/user-bans/" + banId + "/revoke").cookie(adminCookie))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(get("/api/notifications/me").cookie(targetCookie))
+                    .andExpect(status().isOk());
+        } finally {
+            assertTrue(notificationDispatcher.flush(5000));
+            jdbcTemplate.update("DELETE FROM notifications WHERE user_id = ?", target.getUserId());
+            jdbcTemplate.update("DELETE FROM user_bans WHERE user_id = ?", target.getUserId());
+            jdbcTemplate.update("DELETE FROM audit_logs WHERE actor_user_id IN (?, ?)",
+                    admin.getUserId(), target.getUserId());
+            jdbcTemplate.update("DELETE FROM users WHERE user_id IN (?, ?)", admin.getUserId(), target.getUserId());
+        }
+    }
+
+    @Test
+    void refresh_shouldPickUpBansMadeOnOtherInstances() {
+        User target = saveUser("ban_remote_" + System.nanoTime(), UserRole.MEMBER);
+        assertFalse(userBanCache.isBanned(target.getUserId()));
+
+        // Written by another instance: this instance's cache is not told.
+        UserBan ban = new UserBan();
+        ban.setUserId(target.getUserId());
+        ban.setStatus(BanStatus.active);
+        ban.setStartAt(Instant.now());
+        userBanRepository.saveAndFlush(ban);
+        assertFalse(userBanCache.isBanned(target.getUserId()));
+
+        userBanCache.refresh();
+
+        assertTrue(userBanCache.isBanned(target.getUserId()));
+    }
+
+    @Test
+    void expireEndedBans_shouldExpireBansPastEndAt() {
+        User target = saveUser("ban_expired_" + System.nanoTime(), UserRole.MEMBER);
+        Instant now = Instant.now();
+        UserBan ban = new UserBan();
+        ban.setUserId(target.getUserId());
+        ban.setStatus(BanStatus.active);
+        ban.setStartAt(now.minus(2, ChronoUnit.DAYS));
+        ban.setEndAt(now.minus(1, ChronoUnit.DAYS));
+        ban = userBanRepository.saveAndFlush(ban);
+
+        assertFalse(userBanCache.isBanned(target.getUserId()));
+
+        userBanService.expireEndedBans();
+
+        assertEquals(BanStatus.expired, userBanRepository.findById(ban.getBanId()).orElseThrow().getStatus());
+        assertFalse(userBanCache.isBanned(target.getUserId()));
+    }
+
+    private User saveUser(String username, UserRole role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPasswordHash(passwordEncoder.encode("password123"));
+        user.setRole(role);
+        user.setStatus("active");
+        return userRepository.save(user);
+    }
+}
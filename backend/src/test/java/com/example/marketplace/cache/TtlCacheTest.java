@@ -0,0 +1,51 @@
+package com.example.marketplace.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TtlCacheTest {
+
+    @Test
+    void invalidatingAnotherKey_shouldNotStopAnInFlightLoadFromBeingCached() {
+        TtlCache<Long, String> cache = new TtlCache<>(100, 60, TimeUnit.SECONDS);
+
+        assertEquals("v1", cache.get(1L, () -> {
+            cache.invalidate(2L);
+            return "v1";
+        }));
+
+        assertEquals("v1", cache.get(1L, () -> "reloaded"));
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    void invalidatingTheKey_shouldDiscardTheInFlightLoad() {
+        TtlCache<Long, String> cache = new TtlCache<>(100, 60, TimeUnit.SECONDS);
+
+        // The loader read the old value, then a writer changed it and invalidated.
+        assertEquals("old", cache.get(1L, () -> {
+            cache.invalidate(1L);
+            return "old";
+        }));
+
+        assertEquals("new", cache.get(1L, () -> "new"));
+        assertEquals("new", cache.get(1L, () -> "reloaded"));
+    }
+
+    @Test
+    void overCapacity_shouldDropExpiredEntriesFirst() throws Exception {
+        TtlCache<Long, String> cache = new TtlCache<>(10, 50, TimeUnit.MILLISECONDS);
+        for (long key = 0; key < 10; key++) {
+            cache.get(key, () -> "expiring");
+        }
+        Thread.sleep(60);
+
+        cache.get(100L, () -> "live");
+
+        assertEquals(1, cache.size());
+        assertEquals(10, cache.evictionCount());
+    }
+}
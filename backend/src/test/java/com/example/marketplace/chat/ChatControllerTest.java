@@ -1,24 +1,36 @@
 package com.example.marketplace.chat;
 
 import com.example.marketplace.BaseIntegrationTest;
-import com.example.marketplace.domain.message.Message;
-import com.example.marketplace.domain.message.MessageStatus;
-import com.example.marketplace.domain.thread.ChatThread;
 import com.example.marketplace.domain.thread.ThreadTargetType;
 import com.example.marketplace.domain.user.User;
+import com.example.marketplace.push.PushBroker;
 import com.example.marketplace.repository.ChatThreadRepository;
-import com.example.marketplace.repository.MessageRepository;
+import com.example.marketplace.repository.ThreadParticipantRepository;
 import com.example.marketplace.repository.UserRepository;
+import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class ChatControllerTest extends BaseIntegrationTest {
@@ -30,7 +42,13 @@ class ChatControllerTest extends BaseIntegrationTest {
     private ChatThreadRepository chatThreadRepository;
 
     @Autowired
-    private MessageRepository messageRepository;
+    private PushBroker pushBroker;
+
+    @Autowired
+    private ThreadParticipantRepository threadParticipantRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @Test
     void listMyThreads_and_markReadAndRevokeMessage_flow() throws Exception {
@@ -61,19 +79,17 @@ class ChatControllerTest extends BaseIntegrationTest {
         Number threadIdNumber = com.jayway.jsonpath.JsonPath.read(response, "$.threadId");
         long threadId = threadIdNumber.longValue();
 
-        // userA sends another message directly via repository for simplicity
-        ChatThread thread = chatThreadRepository.findById(threadId).orElseThrow();
-        Instant now = Instant.now();
-        Message msg2 = new Message();
-        msg2.setThreadId(thread.getThreadId());
-        msg2.setSenderUserId(userA.getUserId());
-        msg2.setRecipientUserId(userB.getUserId());
-        msg2.setContent("second to b");
-        msg2.setRead(false);
-        msg2.setStatus(MessageStatus.active);
-        msg2.setCreatedAt(now);
-        msg2.setUpdatedAt(now);
-        msg2 = messageRepository.save(msg2);
+        // userA sends another message; the inbox summary is maintained by the service
+        String sendResponse = mockMvc.perform(post("/api/threads/{id}/messages", threadId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\": \"second to b\"}")
+                        .cookie(cookieA))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Number msg2IdNumber = com.jayway.jsonpath.JsonPath.read(sendResponse, "$.messageId");
+        long msg2Id = msg2IdNumber.longValue();
 
         // userB list my threads and see unreadCount > 0
         mockMvc.perform(get("/api/threads")
@@ -99,11 +115,352 @@ class ChatControllerTest extends BaseIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.threads[0].unreadCount").value(0));
 
+        mockMvc.perform(get("/api/threads/{id}/messages", threadId)
+                        .param("page", "1")
+                        .param("size", "20")
+                        .cookie(cookieB))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.messages[0].read").value(true))
+                .andExpect(jsonPath("$.messages[1].read").value(true));
+
         // sender revoke the second message within window
-        mockMvc.perform(patch("/api/messages/{id}", msg2.getMessageId())
+        mockMvc.perform(patch("/api/messages/{id}", msg2Id)
                         .param("action", "revoke")
                         .cookie(cookieA))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.result").value("ok"));
+
+        mockMvc.perform(get("/api/threads")
+                        .param("page", "1")
+                        .param("size", "20")
+                        .cookie(cookieB))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.threads[0].lastMessageId").value(msg2Id))
+                .andExpect(jsonPath("$.threads[0].lastMessageStatus").value("recalled"));
+    }
+
+    @Test
+    void manageMessage_delete_shouldUpdateInboxSummary() throws Exception {
+        var cookieA = authCookie("chat_delete_a");
+        var cookieB = authCookie("chat_delete_b");
+        User userB = userRepository.findByUsername("chat_delete_b").orElseThrow();
+
+        String body = """
+                {
+                  \"targetType\": \"system\",
+                  \"recipientUserId\": %d,
+                  \"content\": \"first\"
+                }
+                """.formatted(userB.getUserId());
+        String response = mockMvc.perform(post("/api/threads")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body)
+                        .cookie(cookieA))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Number threadIdNumber = com.jayway.jsonpath.JsonPath.read(response, "$.threadId");
+
+        String sendResponse = mockMvc.perform(post("/api/threads/{id}/messages", threadIdNumber.longValue())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\": \"second\"}")
+                        .cookie(cookieA))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Number secondIdNumber = com.jayway.jsonpath.JsonPath.read(sendResponse, "$.messageId");
+
+        mockMvc.perform(get("/api/threads")
+                        .param("page", "1")
+                        .param("size", "20")
+                        .cookie(cookieB))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.threads[0].lastMessageContent").value("second"))
+                .andExpect(jsonPath("$.threads[0].unreadCount").value(2));
+
+        mockMvc.perform(patch("/api/messages/{id}", secondIdNumber.longValue())
+                        .param("action", "delete")
+                        .cookie(cookieA))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/threads")
+                        .param("page", "1")
+                        .param("size", "20")
+                        .cookie(cookieB))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.threads[0].lastMessageContent").value("first"))
+                .andExpect(jsonPath("$.threads[0].unreadCount").value(1));
+    }
+
+    @Test
+    void manageMessage_deleteOlderMessage_shouldKeepInboxSummary() throws Exception {
+        var cookieA = authCookie("chat_delete_old_a");
+        var cookieB = authCookie("chat_delete_old_b");
+        User userB = userRepository.findByUsername("chat_delete_old_b").orElseThrow();
+        long threadId = startThread(cookieA, userB.getUserId(), "first");
+        long secondId = sendMessage(cookieA, threadId, "second");
+        long firstId = jdbcTemplate.queryForObject(
+                "SELECT message_id FROM messages WHERE thread_id = ? AND message_id <> ?", Long.class, threadId, secondId);
+
+        mockMvc.perform(patch("/api/messages/{id}", firstId)
+                        .param("action", "delete")
+                        .cookie(cookieA))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/threads")
+                        .param("page", "1")
+                        .param("size", "20")
+                        .cookie(cookieB))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.threads[0].lastMessageId").value(secondId))
+                .andExpect(jsonPath("$.threads[0].lastMessageContent").value("second"))
+                .andExpect(jsonPath("$.threads[0].unreadCount").value(1));
+
+        // A delete whose summary lookup raced a newer message: the rows no longer point at it, so nothing moves.
+        int replaced = threadParticipantRepository.replaceLastMessage(threadId, firstId, null, null, Instant.now());
+        assertEquals(0, replaced);
+        assertEquals(List.of(secondId, secondId), jdbcTemplate.queryForList(
+                "SELECT last_message_id FROM thread_participants WHERE thread_id = ?", Long.class, threadId));
+    }
+
+    @Test
+    void listMyThreads_shouldPageByLatestMessage() throws Exception {
+        var cookieA = authCookie("chat_page_a");
+        authCookie("chat_page_b");
+        authCookie("chat_page_c");
+        User userB = userRepository.findByUsername("chat_page_b").orElseThrow();
+        User userC = userRepository.findByUsername("chat_page_c").orElseThrow();
+
+        for (User recipient : new User[]{userB, userC}) {
+            String body = """
+                    {
+                      \"targetType\": \"system\",
+                      \"recipientUserId\": %d,
+                      \"content\": \"hi\"
+                    }
+                    """.formatted(recipient.getUserId());
+            mockMvc.perform(post("/api/threads")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body)
+                            .cookie(cookieA))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/threads")
+                        .param("page", "1")
+                        .param("size", "1")
+                        .cookie(cookieA))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.threads.length()").value(1))
+                .andExpect(jsonPath("$.threads[0].otherUsername").value("chat_page_c"))
+                .andExpect(jsonPath("$.threads[0].unreadCount").value(0));
+
+        mockMvc.perform(get("/api/threads")
+                        .param("page", "2")
+                        .param("size", "1")
+                        .cookie(cookieA))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.threads[0].otherUsername").value("chat_page_b"))
+                .andExpect(jsonPath("$.threads[0].lastMessageContent").value("hi"));
+    }
+
+    @Test
+    void recordMessage_olderMessage_shouldNotMoveSummaryBack() throws Exception {
+        var cookieA = authCookie("chat_order_a");
+        authCookie("chat_order_b");
+        User userB = userRepository.findByUsername("chat_order_b").orElseThrow();
+        long threadId = startThread(cookieA, userB.getUserId(), "first");
+        long secondId = sendMessage(cookieA, threadId, "second");
+        Map<String, Object> first = jdbcTemplate.queryForMap(
+                "SELECT message_id, created_at FROM messages WHERE thread_id = ? AND message_id <> ?", threadId, secondId);
+
+        // The first message's summary update arriving after the second's (it committed later).
+        int updated = threadParticipantRepository.recordMessage(threadId, userB.getUserId(),
+                ((Number) first.get("message_id")).longValue(), ((Timestamp) first.get("created_at")).toInstant());
+
+        assertEquals(2, updated);
+        List<Long> lastMessageIds = jdbcTemplate.queryForList(
+                "SELECT last_message_id FROM thread_participants WHERE thread_id = ?", Long.class, threadId);
+        assertEquals(List.of(secondId, secondId), lastMessageIds);
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM thread_participants "
+                + "WHERE thread_id = ? AND last_message_at < (SELECT created_at FROM messages WHERE message_id = ?)",
+                Integer.class, threadId, secondId));
+    }
+
+    @Test
+    void sendMessage_missingParticipantRow_shouldRestoreIt() throws Exception {
+        var cookieA = authCookie("chat_restore_a");
+        var cookieB = authCookie("chat_restore_b");
+        User userB = userRepository.findByUsername("chat_restore_b").orElseThrow();
+        long threadId = startThread(cookieA, userB.getUserId(), "first");
+        jdbcTemplate.update("DELETE FROM thread_participants WHERE thread_id = ? AND user_id = ?",
+                threadId, userB.getUserId());
+
+        long messageId = sendMessage(cookieA, threadId, "after the row went missing");
+
+        mockMvc.perform(get("/api/threads")
+                        .param("page", "1")
+                        .param("size", "20")
+                        .cookie(cookieB))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.threads[0].threadId").value(threadId))
+                .andExpect(jsonPath("$.threads[0].lastMessageId").value(messageId))
+                .andExpect(jsonPath("$.threads[0].unreadCount").value(2));
+        // And the recipient is a member again.
+        sendMessage(cookieB, threadId, "reply");
+    }
+
+    private long startThread(Cookie cookie, Long recipientUserId, String content) throws Exception {
+        String response = mockMvc.perform(post("/api/threads")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"targetType\": \"system\", \"recipientUserId\": %d, \"content\": \"%s\"}"
+                                .formatted(recipientUserId, content))
+                        .cookie(cookie))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return ((Number) com.jayway.jsonpath.JsonPath.read(response, "$.threadId")).longValue();
+    }
+
+    private long sendMessage(Cookie cookie, long threadId, String content) throws Exception {
+        String response = mockMvc.perform(post("/api/threads/{id}/messages", threadId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\": \"%s\"}".formatted(content))
+                        .cookie(cookie))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return ((Number) com.jayway.jsonpath.JsonPath.read(response, "$.messageId")).longValue();
+    }
+
+    @Test
+    void sendMessage_nonParticipant_shouldBeForbidden() throws Exception {
+        var cookieA = authCookie("chat_member_a");
+        authCookie("chat_member_b");
+        var cookieC = authCookie("chat_member_c");
+        User userB = userRepository.findByUsername("chat_member_b").orElseThrow();
+
+        String body = """
+                {
+                  \"targetType\": \"system\",
+                  \"recipientUserId\": %d,
+                  \"content\": \"members only\"
+                }
+                """.formatted(userB.getUserId());
+        String response = mockMvc.perform(post("/api/threads")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body)
+                        .cookie(cookieA))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Number threadIdNumber = com.jayway.jsonpath.JsonPath.read(response, "$.threadId");
+
+        mockMvc.perform(post("/api/threads/{id}/messages", threadIdNumber.longValue())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\": \"let me in\"}")
+                        .cookie(cookieC))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("FORBIDDEN_OWNER"));
+
+        mockMvc.perform(post("/api/threads/{id}/messages", Long.MAX_VALUE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\": \"anyone there\"}")
+                        .cookie(cookieA))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("NOT_FOUND"));
+    }
+
+    @Test
+    void sendMessage_shouldPushToRecipientStreamAfterCommit() throws Exception {
+        var cookieA = authCookie("chat_push_a");
+        var cookieB = authCookie("chat_push_b");
+        User userB = userRepository.findByUsername("chat_push_b").orElseThrow();
+
+        MvcResult stream = mockMvc.perform(get("/api/push/stream").cookie(cookieB))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = """
+                {
+                  \"targetType\": \"system\",
+                  \"recipientUserId\": %d,
+                  \"content\": \"push first\"
+                }
+                """.formatted(userB.getUserId());
+        String response = mockMvc.perform(post("/api/threads")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body)
+                        .cookie(cookieA))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Number threadIdNumber = com.jayway.jsonpath.JsonPath.read(response, "$.threadId");
+
+        mockMvc.perform(post("/api/threads/{id}/messages", threadIdNumber.longValue())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\": \"push second\"}")
+                        .cookie(cookieA))
+                .andExpect(status().isCreated());
+
+        assertFalse(stream.getResponse().getContentAsString().contains("push"));
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        try {
+            // Delivery happens on a push thread after commit.
+            String events = awaitContent(stream, "push second");
+            assertTrue(events.contains("event:message"), events);
+            assertTrue(events.contains("push first"), events);
+            assertTrue(events.contains("push second"), events);
+            assertTrue(events.indexOf("push first") < events.indexOf("push second"), events);
+        } finally {
+            TestTransaction.start();
+            chatThreadRepository.deleteById(threadIdNumber.longValue());
+            TestTransaction.flagForCommit();
+            TestTransaction.end();
+        }
+    }
+
+    @Test
+    void pushStream_shouldHeartbeatAndDropOldestStreamOverPerUserCap() throws Exception {
+        var cookie = authCookie("chat_push_tabs");
+        User user = userRepository.findByUsername("chat_push_tabs").orElseThrow();
+
+        List<MvcResult> streams = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            streams.add(mockMvc.perform(get("/api/push/stream").cookie(cookie))
+                    .andExpect(request().asyncStarted())
+                    .andReturn());
+        }
+        assertEquals(5, pushBroker.connectionCount(user.getUserId()));
+
+        pushBroker.heartbeat();
+
+        // One delivery task writes to all of the user's streams, so once the newest has it the others do too.
+        assertTrue(awaitContent(streams.get(5), ":heartbeat").contains(":heartbeat"));
+        for (MvcResult stream : streams.subList(1, 5)) {
+            assertTrue(stream.getResponse().getContentAsString().contains(":heartbeat"));
+        }
+        assertFalse(streams.get(0).getResponse().getContentAsString().contains(":heartbeat"));
+    }
+
+    private static String awaitContent(MvcResult stream, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            content = stream.getResponse().getContentAsString();
+        }
+        return content;
     }
 }
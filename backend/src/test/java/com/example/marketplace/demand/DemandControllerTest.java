@@ -243,4 +243,49 @@ String body = """
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.code").value("INVALID_RANGE"));
     }
+
+    @Test
+    void searchDemands_cursor_shouldWalkNewestFirstWithoutTotal() throws Exception {
+        authCookie("demand_cursor_buyer");
+        var buyer = userRepository.findByUsername("demand_cursor_buyer").orElseThrow();
+        Instant now = Instant.now();
+        Demand oldest = saveActiveDemand(buyer.getUserId(), now.minusSeconds(30));
+        Demand middle = saveActiveDemand(buyer.getUserId(), now.minusSeconds(20));
+        Demand newest = saveActiveDemand(buyer.getUserId(), now.minusSeconds(10));
+
+        String body = mockMvc.perform(get("/api/demands")
+                        .param("category", "cursor_cat")
+                        .param("size", "2")
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").doesNotExist())
+                .andExpect(jsonPath("$.demands.length()").value(2))
+                .andExpect(jsonPath("$.demands[0].demandId").value(newest.getDemandId()))
+                .andExpect(jsonPath("$.demands[1].demandId").value(middle.getDemandId()))
+                .andExpect(jsonPath("$.nextCursor").isString())
+                .andReturn().getResponse().getContentAsString();
+        String nextCursor = com.jayway.jsonpath.JsonPath.read(body, "$.nextCursor");
+
+        mockMvc.perform(get("/api/demands")
+                        .param("category", "cursor_cat")
+                        .param("size", "2")
+                        .param("cursor", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.demands.length()").value(1))
+                .andExpect(jsonPath("$.demands[0].demandId").value(oldest.getDemandId()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    private Demand saveActiveDemand(Long buyerId, Instant createdAt) {
+        Demand demand = new Demand();
+        demand.setBuyerId(buyerId);
+        demand.setTitle("cursor demand");
+        demand.setDescription("desc");
+        demand.setCategory("cursor_cat");
+        demand.setExpectedPrice(new BigDecimal("50.00"));
+        demand.setStatus(ItemStatus.active.name());
+        demand.setCreatedAt(createdAt);
+        demand.setUpdatedAt(createdAt);
+        return demandRepository.save(demand);
+    }
 }
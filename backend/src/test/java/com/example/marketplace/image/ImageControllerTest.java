@@ -0,0 +1,220 @@
+package com.example.marketplace.image;
+
+import com.example.marketplace.BaseIntegrationTest;
+import com.example.marketplace.domain.image.ImageAsset;
+import com.example.marketplace.domain.image.ThumbnailStatus;
+import com.example.marketplace.media.BlobStore;
+import com.example.marketplace.media.ThumbnailWorker;
+import com.example.marketplace.repository.ImageAssetRepository;
+import com.example.marketplace.service.MediaProperties;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ImageControllerTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ImageAssetRepository imageAssetRepository;
+
+    @Autowired
+    private ThumbnailWorker thumbnailWorker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private MediaProperties mediaProperties;
+
+    @Test
+    void upload_shouldStoreByHashAndServeImmutableThumbnail() throws Exception {
+        byte[] png = randomPng(640, 480);
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(png));
+        Cookie cookie = authCookie("image_uploader");
+        // The thumbnail is only scheduled once the upload commits.
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        try {
+            mockMvc.perform(multipart("/api/images").file(new MockMultipartFile("file", "a.png", "image/png", png))
+                            .cookie(cookie))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.hash").value(hash))
+                    .andExpect(jsonPath("$.url").value("/api/images/" + hash))
+                    .andExpect(jsonPath("$.thumbnailUrl").value("/api/images/" + hash + "/thumb"))
+                    .andExpect(jsonPath("$.contentType").value("image/png"))
+                    .andExpect(jsonPath("$.width").value(640))
+                    .andExpect(jsonPath("$.height").value(480));
+
+            // Same bytes under another name and type: deduplicated onto the same asset.
+            mockMvc.perform(multipart("/api/images").file(new MockMultipartFile("file", "b.jpg", "image/jpeg", png))
+                            .cookie(cookie))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.hash").value(hash))
+                    .andExpect(jsonPath("$.contentType").value("image/png"));
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM image_assets WHERE image_hash = ?", Integer.class, hash));
+
+            assertTrue(thumbnailWorker.flush(10_000));
+            ImageAsset asset = imageAssetRepository.findById(hash).orElseThrow();
+            assertEquals(ThumbnailStatus.ready, asset.getThumbnailStatus());
+
+            byte[] original = mockMvc.perform(get("/api/images/" + hash))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "\""))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                    .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+                    .andReturn().getResponse().getContentAsByteArray();
+            assertEquals(png.length, original.length);
+
+            mockMvc.perform(get("/api/images/" + hash).header(HttpHeaders.IF_NONE_MATCH, "\"" + hash + "\""))
+                    .andExpect(status().isNotModified());
+
+            byte[] thumb = mockMvc.perform(get("/api/images/" + hash + "/thumb"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                    .andReturn().getResponse().getContentAsByteArray();
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(thumb));
+            assertEquals(320, decoded.getWidth());
+            assertEquals(240, decoded.getHeight());
+            assertTrue(thumb.length < png.length, "thumbnail should be smaller than the original");
+        } finally {
+            jdbcTemplate.update("DELETE FROM image_assets WHERE image_hash = ?", hash);
+            jdbcTemplate.update("DELETE FROM users WHERE username = ?", "image_uploader");
+        }
+    }
+
+    @Test
+    void upload_shouldRejectNonImagesAndAnonymousCallers() throws Exception {
+        MockMultipartFile text = new MockMultipartFile("file", "x.png", "image/png", "not an image".getBytes());
+
+        mockMvc.perform(multipart("/api/images").file(text))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(multipart("/api/images").file(text).cookie(authCookie("image_rejected")))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.code").value("CONTENT_INVALID"));
+
+        mockMvc.perform(get("/api/images/" + "0".repeat(64)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/images/not-a-hash/thumb"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void pendingThumbnail_shouldRedirectToOriginalAndSearchShouldUseThumbnail() throws Exception {
+        Cookie cookie = authCookie("image_seller");
+        String upload = mockMvc.perform(multipart("/api/images")
+                        .file(new MockMultipartFile("file", "c.png", "image/png", randomPng(400, 300)))
+                        .cookie(cookie))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String url = JsonPath.read(upload, "$.url");
+
+        // Still inside the test transaction, so the thumbnail has not been scheduled.
+        mockMvc.perform(get(url + "/thumb"))
+                .andExpect(status().isTemporaryRedirect())
+                .andExpect(header().string(HttpHeaders.LOCATION, url))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+
+        mockMvc.perform(post("/api/items")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"image item\",\"desc\":\"desc\",\"category\":\"image_thumb_cat\","
+                                + "\"price\":10,\"images\":[\"" + url + "\"]}")
+                        .cookie(cookie))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/items").param("category", "image_thumb_cat"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].thumbnailUrl").value(url + "/thumb"));
+    }
+
+    @Test
+    void rescan_shouldRequeueEveryStalePendingThumbnailAcrossPages() throws Exception {
+        authCookie("image_rescan");
+        Long userId = userRepository.findByUsername("image_rescan").orElseThrow().getUserId();
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        byte[] png = randomPng(64, 48);
+        List<String> stale = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            stale.add(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(
+                    UUID.randomUUID().toString().getBytes())));
+        }
+        String fresh = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(
+                UUID.randomUUID().toString().getBytes()));
+        int pageSize = mediaProperties.getThumbnailRescanPageSize();
+        try {
+            // As if their tasks were rejected by a full queue an hour ago; the fresh one may still be queued.
+            for (String hash : stale) {
+                insertPending(hash, userId, "now() - interval '1 hour'", png);
+            }
+            insertPending(fresh, userId, "now()", png);
+            mediaProperties.setThumbnailRescanPageSize(2);
+
+            thumbnailWorker.rescanStale();
+
+            assertTrue(thumbnailWorker.flush(10_000));
+            for (String hash : stale) {
+                assertEquals(ThumbnailStatus.ready, imageAssetRepository.findById(hash).orElseThrow().getThumbnailStatus());
+            }
+            assertEquals(ThumbnailStatus.pending, imageAssetRepository.findById(fresh).orElseThrow().getThumbnailStatus());
+        } finally {
+            mediaProperties.setThumbnailRescanPageSize(pageSize);
+            stale.forEach(hash -> jdbcTemplate.update("DELETE FROM image_assets WHERE image_hash = ?", hash));
+            jdbcTemplate.update("DELETE FROM image_assets WHERE image_hash = ?", fresh);
+            jdbcTemplate.update("DELETE FROM users WHERE username = ?", "image_rescan");
+        }
+    }
+
+    private void insertPending(String hash, Long userId, String updatedAt, byte[] png) {
+        blobStore.put(ThumbnailWorker.originalKey(hash), png, "image/png");
+        jdbcTemplate.update("INSERT INTO image_assets (image_hash, content_type, byte_size, width, height, "
+                + "thumbnail_status, uploaded_by_user_id, created_at, updated_at) "
+                + "VALUES (?, 'image/png', ?, 64, 48, 'pending', ?, " + updatedAt + ", " + updatedAt + ")",
+                hash, png.length, userId);
+    }
+
+    private static byte[] randomPng(int width, int height) throws Exception {
+        Random random = new Random(System.nanoTime());
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt(0xFFFFFF));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -4,6 +4,7 @@ import com.example.marketplace.BaseIntegrationTest;
 import com.example.marketplace.domain.item.Item;
 import com.example.marketplace.domain.item.ItemStatus;
 import com.example.marketplace.repository.ItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
@@ -15,6 +16,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -23,6 +25,9 @@ class ItemControllerTest extends BaseIntegrationTest {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void createItem_invalidPrice_shouldFailValidation() throws Exception {
         String body = """
@@ -107,6 +112,89 @@ class ItemControllerTest extends BaseIntegrationTest {
         assertEquals("new title", updated.getTitle());
     }
 
+    @Test
+    void getItem_shouldBeCachedUntilManaged() throws Exception {
+        var cookie = authCookie("item_cache_owner");
+        var user = userRepository.findByUsername("item_cache_owner").orElseThrow();
+
+        Item item = new Item();
+        item.setSellerId(user.getUserId());
+        item.setTitle("cached title");
+        item.setDescription("desc");
+        item.setCategory("cat");
+        item.setPrice(new BigDecimal("100.00"));
+        item.setStatus(ItemStatus.active.name());
+        item.setCreatedAt(Instant.now());
+        item.setUpdatedAt(Instant.now());
+        Item saved = itemRepository.save(item);
+        double hitsBefore = itemDetailHits();
+
+        mockMvc.perform(get("/api/items/" + saved.getItemId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("cached title"));
+
+        // Written behind the service's back: the cached response is still served.
+        saved.setTitle("changed directly");
+        itemRepository.saveAndFlush(saved);
+        mockMvc.perform(get("/api/items/" + saved.getItemId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("cached title"));
+        assertEquals(hitsBefore + 1, itemDetailHits());
+
+        mockMvc.perform(patch("/api/items/" + saved.getItemId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"action\": \"update\", \"payload\": { \"title\": \"managed title\" }}")
+                        .cookie(cookie))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/items/" + saved.getItemId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("managed title"));
+    }
+
+    @Test
+    void getItem_imageStyleSwitch_shouldRewriteCachedDetail() throws Exception {
+        authCookie("item_style_owner");
+        var user = userRepository.findByUsername("item_style_owner").orElseThrow();
+
+        Item item = new Item();
+        item.setSellerId(user.getUserId());
+        item.setTitle("styled item");
+        item.setDescription("desc");
+        item.setCategory("cat");
+        item.setPrice(new BigDecimal("10.00"));
+        item.setStatus(ItemStatus.active.name());
+        item.setImages(new String[]{"/demo-assets/photo/phone_01.webp", "https://cdn.example.com/a.webp"});
+        item.setCreatedAt(Instant.now());
+        item.setUpdatedAt(Instant.now());
+        Item saved = itemRepository.save(item);
+
+        mockMvc.perform(get("/api/items/" + saved.getItemId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.images[0]").value("/demo-assets/photo/phone_01.webp"));
+
+        try {
+            mockMvc.perform(put("/api/system/image-style")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"style\": \"cartoon\"}"))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(get("/api/items/" + saved.getItemId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.images[0]").value("/demo-assets/cartoon/phone_01.svg"))
+                    .andExpect(jsonPath("$.images[1]").value("https://cdn.example.com/a.webp"));
+        } finally {
+            mockMvc.perform(put("/api/system/image-style")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"style\": \"photo\"}"));
+        }
+    }
+
+    private double itemDetailHits() {
+        return meterRegistry.get("cache.gets").tag("cache", "itemDetail").tag("result", "hit")
+                .functionCounter().count();
+    }
+
     @Test
     void manageItem_update_forbiddenForNonOwner() throws Exception {
         var ownerCookie = authCookie("item_owner2");
@@ -248,4 +336,122 @@ class ItemControllerTest extends BaseIntegrationTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.code").value("INVALID_RANGE"));
     }
+
+    @Test
+    void searchItems_keywords_shouldMatchTokensInTitleAndDescription() throws Exception {
+        authCookie("item_search_seller");
+        var seller = userRepository.findByUsername("item_search_seller").orElseThrow();
+
+        saveActiveItem(seller.getUserId(), "北欧风圆形落地灯 zzsearchlamp", "光源柔和，带遥控器");
+        saveActiveItem(seller.getUserId(), "zzsearchlamp 台灯", "Nike box included");
+
+        mockMvc.perform(get("/api/items")
+                        .param("keywords", "落地灯 zzsearchlamp")
+                        .param("page", "1")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("北欧风圆形落地灯 zzsearchlamp"));
+
+        mockMvc.perform(get("/api/items")
+                        .param("keywords", "zzsearchl NIK")
+                        .param("page", "1")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("zzsearchlamp 台灯"));
+    }
+
+    @Test
+    void searchItems_keywords_shouldReflectUpdatedTitle() throws Exception {
+        var cookie = authCookie("item_search_owner");
+        var owner = userRepository.findByUsername("item_search_owner").orElseThrow();
+        Item saved = saveActiveItem(owner.getUserId(), "zzrenamed old", "desc");
+
+        String body = """
+                {
+                  \"action\": \"update\",
+                  \"payload\": { "title": \"zzrenamed 空军一号\" }
+                }
+                """;
+
+        mockMvc.perform(patch("/api/items/" + saved.getItemId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body)
+                        .cookie(cookie))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/items")
+                        .param("keywords", "zzrenamed 空军")
+                        .param("page", "1")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.items[0].itemId").value(saved.getItemId()));
+    }
+
+    @Test
+    void searchItems_cursor_shouldWalkNewestFirstWithoutTotal() throws Exception {
+        authCookie("item_cursor_seller");
+        var seller = userRepository.findByUsername("item_cursor_seller").orElseThrow();
+        Instant now = Instant.now();
+        Item oldest = saveActiveItem(seller.getUserId(), "zzcursor one", "desc", "cursor_cat", now.minusSeconds(30));
+        Item middle = saveActiveItem(seller.getUserId(), "zzcursor two", "desc", "cursor_cat", now.minusSeconds(20));
+        Item newest = saveActiveItem(seller.getUserId(), "zzcursor three", "desc", "cursor_cat", now.minusSeconds(10));
+
+        String body = mockMvc.perform(get("/api/items")
+                        .param("category", "cursor_cat")
+                        .param("size", "2")
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").doesNotExist())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].itemId").value(newest.getItemId()))
+                .andExpect(jsonPath("$.items[1].itemId").value(middle.getItemId()))
+                .andExpect(jsonPath("$.nextCursor").isString())
+                .andReturn().getResponse().getContentAsString();
+        String nextCursor = com.jayway.jsonpath.JsonPath.read(body, "$.nextCursor");
+
+        mockMvc.perform(get("/api/items")
+                        .param("category", "cursor_cat")
+                        .param("size", "2")
+                        .param("cursor", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].itemId").value(oldest.getItemId()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/items")
+                        .param("keywords", "zzcursor")
+                        .param("size", "2")
+                        .param("cursor", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].itemId").value(oldest.getItemId()));
+    }
+
+    @Test
+    void searchItems_invalidCursor_shouldFailValidation() throws Exception {
+        mockMvc.perform(get("/api/items")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+    }
+
+    private Item saveActiveItem(Long sellerId, String title, String description) {
+        return saveActiveItem(sellerId, title, description, "cat", Instant.now());
+    }
+
+    private Item saveActiveItem(Long sellerId, String title, String description, String category, Instant createdAt) {
+        Item item = new Item();
+        item.setSellerId(sellerId);
+        item.setTitle(title);
+        item.setDescription(description);
+        item.setCategory(category);
+        item.setPrice(new BigDecimal("100.00"));
+        item.setStatus(ItemStatus.active.name());
+        item.setCreatedAt(createdAt);
+        item.setUpdatedAt(createdAt);
+        return itemRepository.save(item);
+    }
 }
@@ -0,0 +1,160 @@
+package com.example.marketplace.media;
+
+import com.example.marketplace.service.DemoAssetProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DemoAssetHandlerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private byte[] photo;
+    private byte[] svg;
+    private DemoAssetHandler handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path root = tempDir.resolve("assets");
+        Files.createDirectories(root.resolve("photo"));
+        Files.createDirectories(root.resolve("cartoon"));
+        photo = new byte[50_000];
+        for (int i = 0; i < photo.length; i++) {
+            photo[i] = (byte) (i * 31);
+        }
+        Files.write(root.resolve("photo/phone_01.webp"), photo);
+        svg = ("<svg xmlns=\"http://www.w3.org/2000/svg\">" + "<rect width=\"10\" height=\"10\"/>".repeat(50) + "</svg>")
+                .getBytes(StandardCharsets.UTF_8);
+        Files.write(root.resolve("cartoon/phone_01.svg"), svg);
+
+        DemoAssetProperties properties = new DemoAssetProperties();
+        properties.setDir(root.toString());
+        properties.setCompressedDir(tempDir.resolve("compressed").toString());
+        handler = new DemoAssetHandler(properties);
+    }
+
+    @Test
+    void get_shouldServeWholeFileWithValidators() throws Exception {
+        MockHttpServletResponse response = send(request("/demo-assets/photo/phone_01.webp"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("image/webp", response.getContentType());
+        assertEquals("public, max-age=604800", response.getHeader("Cache-Control"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertArrayEquals(photo, response.getContentAsByteArray());
+        String etag = response.getHeader("ETag");
+
+        MockHttpServletRequest revalidate = request("/demo-assets/photo/phone_01.webp");
+        revalidate.addHeader("If-None-Match", etag);
+        MockHttpServletResponse notModified = send(revalidate);
+        assertEquals(304, notModified.getStatus());
+        assertEquals(0, notModified.getContentAsByteArray().length);
+    }
+
+    @Test
+    void range_shouldServeOnlyTheRequestedBytes() throws Exception {
+        MockHttpServletRequest partial = request("/demo-assets/photo/phone_01.webp");
+        partial.addHeader("Range", "bytes=100-199");
+        MockHttpServletResponse response = send(partial);
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 100-199/50000", response.getHeader("Content-Range"));
+        assertArrayEquals(Arrays.copyOfRange(photo, 100, 200), response.getContentAsByteArray());
+
+        MockHttpServletRequest suffix = request("/demo-assets/photo/phone_01.webp");
+        suffix.addHeader("Range", "bytes=-10");
+        assertArrayEquals(Arrays.copyOfRange(photo, 49_990, 50_000), send(suffix).getContentAsByteArray());
+
+        MockHttpServletRequest beyond = request("/demo-assets/photo/phone_01.webp");
+        beyond.addHeader("Range", "bytes=50000-");
+        MockHttpServletResponse unsatisfiable = send(beyond);
+        assertEquals(416, unsatisfiable.getStatus());
+        assertEquals("bytes */50000", unsatisfiable.getHeader("Content-Range"));
+
+        // A range against an older version must not be spliced into the new one.
+        MockHttpServletRequest stale = request("/demo-assets/photo/phone_01.webp");
+        stale.addHeader("Range", "bytes=0-9");
+        stale.addHeader("If-Range", "\"outdated\"");
+        MockHttpServletResponse whole = send(stale);
+        assertEquals(200, whole.getStatus());
+        assertEquals(photo.length, whole.getContentAsByteArray().length);
+    }
+
+    @Test
+    void svg_shouldBeServedPrecompressedWhenAccepted() throws Exception {
+        MockHttpServletRequest gzipRequest = request("/demo-assets/cartoon/phone_01.svg");
+        gzipRequest.addHeader("Accept-Encoding", "br;q=0, gzip, deflate");
+        MockHttpServletResponse gzipped = send(gzipRequest);
+        assertEquals(200, gzipped.getStatus());
+        assertEquals("gzip", gzipped.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", gzipped.getHeader("Vary"));
+        assertEquals("image/svg+xml", gzipped.getContentType());
+        assertTrue(gzipped.getContentAsByteArray().length < svg.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getContentAsByteArray()))) {
+            assertArrayEquals(svg, in.readAllBytes());
+        }
+
+        MockHttpServletResponse plain = send(request("/demo-assets/cartoon/phone_01.svg"));
+        assertNull(plain.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", plain.getHeader("Vary"));
+        assertArrayEquals(svg, plain.getContentAsByteArray());
+        assertNotEquals(gzipped.getHeader("ETag"), plain.getHeader("ETag"));
+    }
+
+    @Test
+    void unknownPathsAndMethods_shouldBeRejected() throws Exception {
+        assertEquals(404, send(request("/demo-assets/photo/missing.webp")).getStatus());
+        assertEquals(404, send(request("/demo-assets/../assets/photo/phone_01.webp")).getStatus());
+        assertEquals(404, send(request("/demo-assets/cartoon/phone_01.svg.gz")).getStatus());
+
+        MockHttpServletRequest post = request("/demo-assets/photo/phone_01.webp");
+        post.setMethod("POST");
+        assertEquals(405, send(post).getStatus());
+
+        MockHttpServletRequest head = request("/demo-assets/photo/phone_01.webp");
+        head.setMethod("HEAD");
+        MockHttpServletResponse headResponse = send(head);
+        assertEquals(200, headResponse.getStatus());
+        assertEquals(String.valueOf(photo.length), headResponse.getHeader("Content-Length"));
+        assertEquals(0, headResponse.getContentAsByteArray().length);
+    }
+
+    @Test
+    void sendfile_shouldHandTheFileToTheConnector() throws Exception {
+        MockHttpServletRequest request = request("/demo-assets/photo/phone_01.webp");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader("Range", "bytes=10-19");
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertTrue(request.getAttribute("org.apache.tomcat.sendfile.filename").toString().endsWith("phone_01.webp"));
+        assertEquals(10L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(20L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.handleRequest(request, response);
+        return response;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.marketplace.media;
+
+import com.example.marketplace.BaseIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DemoAssetServingTest extends BaseIntegrationTest {
+
+    @Test
+    void demoAssets_shouldBeServedAnonymouslyFromTheFrontendDirectory() throws Exception {
+        mockMvc.perform(get("/demo-assets/cartoon/appliance_01.svg").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/svg+xml"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().exists(HttpHeaders.ETAG));
+
+        mockMvc.perform(get("/demo-assets/cartoon/no_such_asset.svg"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.marketplace.media;
+
+import com.example.marketplace.domain.image.ThumbnailStatus;
+import com.example.marketplace.repository.ImageAssetRepository;
+import com.example.marketplace.service.MediaProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Which outcomes end a thumbnail as {@code failed} and which leave it {@code pending} for the re-scan.
+ */
+class ThumbnailWorkerTest {
+
+    private static final String HASH = "ab".repeat(32);
+
+    private final FakeBlobStore blobStore = new FakeBlobStore();
+    private final ImageAssetRepository imageAssetRepository = mock(ImageAssetRepository.class);
+    private ThumbnailWorker worker;
+
+    @BeforeEach
+    void createWorker() {
+        worker = new ThumbnailWorker(blobStore, imageAssetRepository, new MediaProperties());
+    }
+
+    @AfterEach
+    void stopWorker() throws InterruptedException {
+        worker.shutdown();
+    }
+
+    @Test
+    void generate_decodableOriginal_shouldStoreThumbnailAndMarkReady() throws Exception {
+        blobStore.objects.put(ThumbnailWorker.originalKey(HASH), png(640, 480));
+
+        generate();
+
+        assertTrue(blobStore.objects.keySet().stream().anyMatch(key -> key.startsWith("thumbnails/")));
+        verify(imageAssetRepository).updateThumbnail(eq(HASH), eq(ThumbnailStatus.ready), eq("image/png"), any());
+    }
+
+    @Test
+    void generate_undecodableOriginal_shouldMarkFailed() throws Exception {
+        blobStore.objects.put(ThumbnailWorker.originalKey(HASH), "not an image".getBytes());
+
+        generate();
+
+        verify(imageAssetRepository).updateThumbnail(eq(HASH), eq(ThumbnailStatus.failed), isNull(), any());
+    }
+
+    @Test
+    void generate_blobStoreUnavailable_shouldLeavePending() throws Exception {
+        blobStore.unavailable = true;
+
+        generate();
+
+        verify(imageAssetRepository).updateThumbnail(eq(HASH), eq(ThumbnailStatus.pending), isNull(), any());
+        verify(imageAssetRepository, never()).updateThumbnail(eq(HASH), eq(ThumbnailStatus.failed), any(), any());
+    }
+
+    @Test
+    void generate_connectionDroppedWhileReading_shouldLeavePending() throws Exception {
+        blobStore.objects.put(ThumbnailWorker.originalKey(HASH), png(640, 480));
+        blobStore.dropConnection = true;
+
+        generate();
+
+        verify(imageAssetRepository).updateThumbnail(eq(HASH), eq(ThumbnailStatus.pending), isNull(), any());
+        verify(imageAssetRepository, never()).updateThumbnail(eq(HASH), eq(ThumbnailStatus.failed), any(), any());
+    }
+
+    @Test
+    void generate_originalNotVisibleYet_shouldLeavePending() throws Exception {
+        generate();
+
+        verify(imageAssetRepository).updateThumbnail(eq(HASH), eq(ThumbnailStatus.pending), isNull(), any());
+        verify(imageAssetRepository, never()).updateThumbnail(eq(HASH), eq(ThumbnailStatus.failed), any(), any());
+    }
+
+    private void generate() throws InterruptedException {
+        worker.submitAfterCommit(HASH);
+        assertTrue(worker.flush(5000));
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private static final class FakeBlobStore implements BlobStore {
+
+        private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        private volatile boolean unavailable;
+        private volatile boolean dropConnection;
+
+        @Override
+        public void put(String key, byte[] data, String contentType) {
+            objects.put(key, data);
+        }
+
+        @Override
+        public Optional<Resource> get(String key) {
+            if (unavailable) {
+                throw new IllegalStateException("S3 GET " + key + " failed with status 503");
+            }
+            byte[] data = objects.get(key);
+            if (data == null) {
+                return Optional.empty();
+            }
+            if (dropConnection) {
+                return Optional.of(new InputStreamResource(new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("connection reset");
+                    }
+                }));
+            }
+            return Optional.of(new ByteArrayResource(data));
+        }
+
+        @Override
+        public boolean exists(String key) {
+            return objects.containsKey(key);
+        }
+    }
+}
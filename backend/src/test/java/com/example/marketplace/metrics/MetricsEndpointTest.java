@@ -0,0 +1,68 @@
+package com.example.marketplace.metrics;
+
+import com.example.marketplace.BaseIntegrationTest;
+import com.example.marketplace.domain.common.TargetType;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureObservability
+class MetricsEndpointTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    @Test
+    void prometheusEndpoint_shouldExposeRequestRepositoryPoolAndBusinessMetrics() throws Exception {
+        mockMvc.perform(get("/api/items").param("size", "5"))
+                .andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{application=\"marketplace\""), "request histogram");
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith("http_server_requests_seconds_count")
+                && line.contains("uri=\"/api/items\"")), "per-endpoint request timer");
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith("spring_data_repository_invocations_seconds_bucket")
+                && line.contains("repository=\"ItemRepository\"")), "per-repository query histogram");
+        assertTrue(scrape.contains("hikaricp_connections_active{"), "connection pool gauges");
+        assertTrue(scrape.contains("jvm_gc_memory_allocated_bytes_total{"), "allocation counter");
+        assertTrue(scrape.contains("marketplace_orders_created_total{"), "orders counter");
+        assertTrue(scrape.contains("marketplace_offers_accepted_total{"), "offers counter");
+        assertTrue(scrape.contains("marketplace_messages_sent_total{"), "messages counter");
+    }
+
+    @Test
+    void businessCounters_shouldCountOnlyAfterCommit() {
+        double orders = ordersCreated();
+        businessMetrics.orderCreated(TargetType.item);
+        assertEquals(orders, ordersCreated(), "not counted while the transaction is open");
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        assertEquals(orders + 1, ordersCreated());
+
+        TestTransaction.start();
+        businessMetrics.orderCreated(TargetType.item);
+        TestTransaction.flagForRollback();
+        TestTransaction.end();
+        assertEquals(orders + 1, ordersCreated(), "rolled back events are not counted");
+    }
+
+    private double ordersCreated() {
+        return meterRegistry.get("marketplace.orders.created").tag("target_type", "item").counter().count();
+    }
+}
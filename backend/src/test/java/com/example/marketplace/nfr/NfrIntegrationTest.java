@@ -2,16 +2,31 @@ package com.example.marketplace.nfr;
 
 import com.example.marketplace.BaseIntegrationTest;
 import com.example.marketplace.domain.audit.AuditLog;
+import com.example.marketplace.domain.user.User;
+import com.example.marketplace.domain.user.UserRole;
 import com.example.marketplace.repository.AuditLogRepository;
+import com.example.marketplace.service.AuditLogWriter;
+import com.example.marketplace.service.AuditService;
+import com.example.marketplace.service.NotificationDispatcher;
+import com.example.marketplace.service.NotificationService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
 
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
@@ -23,6 +38,27 @@ class NfrIntegrationTest extends BaseIntegrationTest {
     @Autowired
     private AuditLogRepository auditLogRepository;
 
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void traceId_generatedWhenMissing_shouldReturnHeader() throws Exception {
         mockMvc.perform(get("/api/items")
@@ -85,4 +121,147 @@ class NfrIntegrationTest extends BaseIntegrationTest {
         assertNotNull(log.getActorUserId());
         assertEquals(log.getActorUserId(), log.getEntityId());
     }
+
+    @Test
+    void asyncAuditAction_shouldBeWrittenByBackgroundWriter() throws Exception {
+        // Outside a transaction, async entries are queued immediately instead of after commit.
+        TestTransaction.end();
+        String marker = "async-audit-" + System.nanoTime();
+        try {
+            auditService.auditInfo(null, "LOGIN", "USER", null, marker);
+
+            assertTrue(auditLogWriter.flush(5000));
+            assertEquals(1, countAuditLogs(marker));
+        } finally {
+            jdbcTemplate.update("DELETE FROM audit_logs WHERE message = ?", marker);
+        }
+    }
+
+    @Test
+    void asyncAuditAction_rolledBack_shouldNotBeWritten() throws Exception {
+        String marker = "rolled-back-audit-" + System.nanoTime();
+        auditService.auditInfo(null, "LOGIN", "USER", null, marker);
+        TestTransaction.end();
+
+        assertTrue(auditLogWriter.flush(5000));
+        assertEquals(0, countAuditLogs(marker));
+    }
+
+    @Test
+    void notification_shouldBeWrittenByDispatcherAfterCommit() throws Exception {
+        User user = createUser("notify_commit_" + System.nanoTime());
+        String marker = "notify-commit-" + System.nanoTime();
+        try {
+            notificationService.sendNotification(user.getUserId(), "SYSTEM", marker, null, null, null);
+            assertEquals(0, countNotifications(marker));
+
+            TestTransaction.flagForCommit();
+            TestTransaction.end();
+
+            assertTrue(notificationDispatcher.flush(5000));
+            assertEquals(1, countNotifications(marker));
+        } finally {
+            jdbcTemplate.update("DELETE FROM notifications WHERE user_id = ?", user.getUserId());
+            jdbcTemplate.update("DELETE FROM users WHERE user_id = ?", user.getUserId());
+        }
+    }
+
+    @Test
+    void notification_rolledBack_shouldNotBeWritten() throws Exception {
+        User user = createUser("notify_rollback_" + System.nanoTime());
+        String marker = "notify-rollback-" + System.nanoTime();
+        notificationService.sendNotification(user.getUserId(), "SYSTEM", marker, null, null, null);
+        TestTransaction.end();
+
+        assertTrue(notificationDispatcher.flush(5000));
+        assertEquals(0, countNotifications(marker));
+    }
+
+    @Test
+    void notificationDispatcher_shouldCountDispatchedRetriedAndFailedRows() throws Exception {
+        User user = createUser("notify_meters_" + System.nanoTime());
+        String marker = "notify-meters-" + System.nanoTime();
+        double dispatched = counter("marketplace.notifications.dispatched");
+        double retried = counter("marketplace.notifications.retried");
+        double failed = counter("marketplace.notifications.failed");
+        try {
+            notificationService.sendNotification(user.getUserId(), "SYSTEM", marker, null, null, null);
+            // No such user: the foreign key rejects this row on every attempt.
+            notificationService.sendNotification(Long.MAX_VALUE, "SYSTEM", marker, null, null, null);
+            TestTransaction.flagForCommit();
+            TestTransaction.end();
+
+            assertTrue(notificationDispatcher.flush(5000));
+            assertEquals(1, countNotifications(marker));
+            assertEquals(dispatched + 1, counter("marketplace.notifications.dispatched"));
+            // max-attempts 3: the failing batch is retried twice before rows are written one by one.
+            assertEquals(retried + 2, counter("marketplace.notifications.retried"));
+            assertEquals(failed + 1, counter("marketplace.notifications.failed"));
+            Gauge depth = meterRegistry.find("marketplace.notifications.queue.depth").gauge();
+            assertNotNull(depth);
+            assertEquals(0.0, depth.value());
+        } finally {
+            jdbcTemplate.update("DELETE FROM notifications WHERE user_id = ?", user.getUserId());
+            jdbcTemplate.update("DELETE FROM users WHERE user_id = ?", user.getUserId());
+        }
+    }
+
+    @Test
+    void entityInserts_shouldShareOneBatchedStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean wasEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            String prefix = "batch_user_" + System.nanoTime() + "_";
+            List<User> users = IntStream.range(0, 10).mapToObj(i -> newUser(prefix + i)).toList();
+            userRepository.saveAll(users);
+            userRepository.flush();
+
+            users.forEach(user -> assertNotNull(user.getUserId()));
+            // One pooled sequence call (two if the block runs out midway) plus one batched INSERT,
+            // where IDENTITY ids needed a separate INSERT per row.
+            assertTrue(statistics.getPrepareStatementCount() <= 3,
+                    "prepared statements: " + statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(wasEnabled);
+        }
+    }
+
+    @Test
+    void connectionPool_shouldPublishMetrics() {
+        Gauge max = meterRegistry.find("hikaricp.connections.max").tag("pool", "marketplace-db").gauge();
+        assertNotNull(max);
+        assertEquals(10.0, max.value());
+        assertNotNull(meterRegistry.find("hikaricp.connections.pending").tag("pool", "marketplace-db").gauge());
+    }
+
+    private User createUser(String username) {
+        return userRepository.save(newUser(username));
+    }
+
+    private User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPasswordHash(passwordEncoder.encode("password123"));
+        user.setRole(UserRole.MEMBER);
+        user.setStatus("active");
+        return user;
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private int countNotifications(String title) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM notifications WHERE title = ?", Integer.class, title);
+        return count == null ? 0 : count;
+    }
+
+    private int countAuditLogs(String message) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM audit_logs WHERE message = ?", Integer.class, message);
+        return count == null ? 0 : count;
+    }
 }
@@ -0,0 +1,219 @@
+package com.example.marketplace.nfr;
+
+import com.example.marketplace.BaseIntegrationTest;
+import com.example.marketplace.domain.user.User;
+import com.example.marketplace.domain.user.UserRole;
+import com.example.marketplace.repository.DemandRepository;
+import com.example.marketplace.repository.ItemRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the partial indexes from V12. Each test calls the real search repository method, captures the SQL that
+ * Hibernate sends for it, and EXPLAINs that statement as a generic plan: the plan a prepared statement can end up
+ * with once the server stops planning per execution, made without knowing the filter values.
+ * The tables are filled inside the test transaction (rolled back afterwards) with a share of inactive rows,
+ * twenty categories and a spread of prices, then reindexed and analysed, so each asserted index is the planner's
+ * own choice.
+ */
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.marketplace.nfr.SearchQueryPlanTest$CapturingStatementInspector")
+class SearchQueryPlanTest extends BaseIntegrationTest {
+
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private DemandRepository demandRepository;
+
+    @BeforeEach
+    void fillListings() {
+        User owner = new User();
+        owner.setUsername("plan_owner");
+        owner.setPasswordHash(passwordEncoder.encode("password123"));
+        owner.setRole(UserRole.MEMBER);
+        owner.setStatus("active");
+        Long ownerId = userRepository.saveAndFlush(owner).getUserId();
+
+        // 80% active, 5% per category, prices spread over 1..10000; created_at is a permutation of one row a minute
+        // so that, as in real data, it is not correlated with the heap order.
+        jdbcTemplate.update("""
+                insert into items (seller_id, title, category, price, status, created_at)
+                select ?, 'plan item ' || g, case when g % 20 = 1 then 'electronics' else 'category-' || g % 20 end,
+                       1 + (g * 7919) % 10000, case when g % 5 = 0 then 'off' else 'active' end,
+                       now() - (g * 104729 % ?) * interval '1 minute'
+                from generate_series(1, ?) g
+                """, ownerId, ROWS, ROWS);
+        jdbcTemplate.update("""
+                insert into demands (buyer_id, title, category, expected_price, status, created_at)
+                select ?, 'plan demand ' || g, case when g % 20 = 1 then 'electronics' else 'category-' || g % 20 end,
+                       1 + (g * 7919) % 10000, case when g % 5 = 0 then 'off' else 'active' end,
+                       now() - (g * 104729 % ?) * interval '1 minute'
+                from generate_series(1, ?) g
+                """, ownerId, ROWS, ROWS);
+        // Every run's rolled-back rows leave dead index pages behind that vacuum never returns, and the planner
+        // prices an index scan by its size; rebuilding (rolled back with the rest) keeps the costs the fixture's own.
+        jdbcTemplate.execute("REINDEX TABLE items");
+        jdbcTemplate.execute("REINDEX TABLE demands");
+        jdbcTemplate.execute("ANALYZE items");
+        jdbcTemplate.execute("ANALYZE demands");
+    }
+
+    @Test
+    void activeItems_byCategory_shouldUseActiveCategoryCreatedIndex() {
+        String plan = explain(() -> itemRepository.searchActiveItems("electronics", null, null, firstPage()));
+        assertTrue(plan.contains("idx_items_active_category_created"), plan);
+    }
+
+    @Test
+    void activeItems_unfiltered_shouldUseActiveCreatedIndex() {
+        String plan = explain(() -> itemRepository.searchActiveItems(null, null, null, firstPage()));
+        assertTrue(plan.contains("idx_items_active_created"), plan);
+    }
+
+    @Test
+    void activeItems_byPriceRange_shouldUseActivePriceIndex() {
+        String plan = explain(() -> itemRepository.searchActiveItems(
+                null, new BigDecimal("10"), new BigDecimal("20"), firstPage()));
+        assertTrue(plan.contains("idx_items_active_price"), plan);
+    }
+
+    @Test
+    void activeDemands_byCategory_shouldUseActiveCategoryCreatedIndex() {
+        String plan = explain(() -> demandRepository.searchActiveDemands(
+                null, "electronics", null, null, firstPage()));
+        assertTrue(plan.contains("idx_demands_active_category_created"), plan);
+    }
+
+    @Test
+    void activeDemands_unfiltered_shouldUseActiveCreatedIndex() {
+        String plan = explain(() -> demandRepository.searchActiveDemands(null, null, null, null, firstPage()));
+        assertTrue(plan.contains("idx_demands_active_created"), plan);
+    }
+
+    @Test
+    void activeDemands_byPriceRange_shouldUseActivePriceIndex() {
+        String plan = explain(() -> demandRepository.searchActiveDemands(
+                null, null, new BigDecimal("10"), new BigDecimal("20"), firstPage()));
+        assertTrue(plan.contains("idx_demands_active_price"), plan);
+    }
+
+    // Keyset pages: the row-value seek must become an index bound on both ordering columns, so a cursor deep in
+    // the listing starts there instead of filtering every newer row (the OR-expanded form only gets a Filter).
+
+    @Test
+    void activeItems_deepCursor_shouldSeekOnCreatedAtAndId() {
+        String plan = explain(() -> itemRepository.findActiveItemsBefore(
+                null, null, null, deepCursor(), Long.MAX_VALUE, 21));
+        assertTrue(plan.contains("idx_items_active_created"), plan);
+        assertTrue(plan.contains("Index Cond: (ROW(created_at, item_id) < ROW("), plan);
+    }
+
+    @Test
+    void activeItems_byCategory_deepCursor_shouldSeekOnCreatedAtAndId() {
+        String plan = explain(() -> itemRepository.findActiveItemsBefore(
+                "electronics", null, null, deepCursor(), Long.MAX_VALUE, 21));
+        assertTrue(plan.contains("idx_items_active_category_created"), plan);
+        assertTrue(plan.contains("AND (ROW(created_at, item_id) < ROW("), plan);
+    }
+
+    @Test
+    void activeDemands_deepCursor_shouldSeekOnCreatedAtAndId() {
+        String plan = explain(() -> demandRepository.findActiveDemandsBefore(
+                null, null, null, null, deepCursor(), Long.MAX_VALUE, 21));
+        assertTrue(plan.contains("idx_demands_active_created"), plan);
+        assertTrue(plan.contains("Index Cond: (ROW(created_at, demand_id) < ROW("), plan);
+    }
+
+    private static PageRequest firstPage() {
+        return PageRequest.of(0, 20);
+    }
+
+    // Three quarters of the way down the generated listing.
+    private static Instant deepCursor() {
+        return Instant.now().minus(Duration.ofMinutes(ROWS * 3L / 4));
+    }
+
+    /**
+     * Runs the search and EXPLAINs the listing statement it sent (not the count query of a page). The statement
+     * is prepared server-side with its JDBC placeholders numbered and executed under a forced generic plan, so the
+     * NULLs passed for the parameters cannot shape the plan.
+     */
+    private String explain(Runnable search) {
+        List<String> statements = CapturingStatementInspector.capture(search);
+        String sql = statements.stream()
+                .filter(statement -> statement.contains(" order by "))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no listing query in " + statements));
+
+        StringBuilder numbered = new StringBuilder();
+        List<String> nulls = new ArrayList<>();
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                nulls.add("null");
+                numbered.append('$').append(nulls.size());
+            } else {
+                numbered.append(c);
+            }
+        }
+
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+        jdbcTemplate.execute("PREPARE search_plan AS " + numbered);
+        try {
+            String plan = String.join("\n", jdbcTemplate.queryForList(
+                    "EXPLAIN EXECUTE search_plan(" + String.join(", ", nulls) + ")", String.class));
+            assertFalse(plan.contains("Seq Scan"), plan);
+            return plan;
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE search_plan");
+        }
+    }
+
+    /**
+     * Records the SQL Hibernate prepares on the calling thread while {@link #capture} runs.
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+        static List<String> capture(Runnable work) {
+            List<String> statements = new ArrayList<>();
+            STATEMENTS.set(statements);
+            try {
+                work.run();
+            } finally {
+                STATEMENTS.remove();
+            }
+            return statements;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = STATEMENTS.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.marketplace.nfr;
+
+import com.example.marketplace.BaseIntegrationTest;
+import com.example.marketplace.repository.ThreadParticipantRepository;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.stubbing.Answer;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(OutputCaptureExtension.class)
+@TestPropertySource(properties = {
+        "app.sql-monitor.response-headers=true",
+        "app.sql-monitor.statement-threshold=0",
+        "app.sql-monitor.repeated-statement-threshold=" + SqlActivityMonitorTest.REPEATED_THRESHOLD
+})
+class SqlActivityMonitorTest extends BaseIntegrationTest {
+
+    static final int REPEATED_THRESHOLD = 5;
+
+    // Spied so a test can put back the per-thread lookup the inbox used to do before thread_participants.
+    @SpyBean
+    private ThreadParticipantRepository threadParticipantRepository;
+
+    @Test
+    void request_shouldReportStatementCountAndTime(CapturedOutput output) throws Exception {
+        String count = mockMvc.perform(get("/api/items")
+                        .param("size", "5")
+                        .header("X-Trace-Id", "sql-monitor-test"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("X-SQL-Time-Ms"))
+                .andReturn()
+                .getResponse()
+                .getHeader("X-SQL-Count");
+
+        assertTrue(Integer.parseInt(count) > 0);
+        assertTrue(output.getOut().contains("SQL budget exceeded traceId=sql-monitor-test GET /api/items"));
+    }
+
+    @Test
+    void requestWithoutSql_shouldNotWarn(CapturedOutput output) throws Exception {
+        mockMvc.perform(get("/actuator/health").header("X-Trace-Id", "sql-monitor-quiet"))
+                .andExpect(header().string("X-SQL-Count", "0"));
+
+        assertFalse(output.getOut().contains("traceId=sql-monitor-quiet"));
+    }
+
+    @Test
+    void listMyThreads_withPerThreadQuery_shouldWarnLikelyNPlusOne(CapturedOutput output) throws Exception {
+        Cookie owner = inboxWithThreads("sql_monitor_inbox", REPEATED_THRESHOLD);
+        // The spy of a repository proxy forwards to the real repository through its default answer.
+        Answer<?> realRepository = mockingDetails(threadParticipantRepository)
+                .getMockCreationSettings()
+                .getDefaultAnswer();
+        doAnswer(invocation -> {
+            Page<?> page = (Page<?>) realRepository.answer(invocation);
+            for (Object row : page.getContent()) {
+                Long threadId = ((ThreadParticipantRepository.ThreadSummary) row).getThreadId();
+                threadParticipantRepository.findByThreadId(threadId);
+            }
+            return page;
+        }).when(threadParticipantRepository).findInbox(anyLong(), any(Pageable.class));
+
+        mockMvc.perform(get("/api/threads")
+                        .param("page", "1")
+                        .param("size", "20")
+                        .cookie(owner)
+                        .header("X-Trace-Id", "sql-monitor-n-plus-one"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(REPEATED_THRESHOLD));
+
+        String warning = output.getOut().lines()
+                .filter(line -> line.contains("SQL budget exceeded traceId=sql-monitor-n-plus-one GET /api/threads"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no SQL budget warning for the inbox request"));
+        assertTrue(warning.contains("most repeated " + REPEATED_THRESHOLD + "x (likely N+1): select"), warning);
+        assertTrue(warning.contains("thread_participants"), warning);
+    }
+
+    @Test
+    void listMyThreads_shouldNotWarnNPlusOne(CapturedOutput output) throws Exception {
+        Cookie owner = inboxWithThreads("sql_monitor_inbox_ok", REPEATED_THRESHOLD);
+
+        mockMvc.perform(get("/api/threads")
+                        .param("page", "1")
+                        .param("size", "20")
+                        .cookie(owner)
+                        .header("X-Trace-Id", "sql-monitor-inbox"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(REPEATED_THRESHOLD));
+
+        assertFalse(output.getOut().lines()
+                .anyMatch(line -> line.contains("traceId=sql-monitor-inbox ") && line.contains("likely N+1")));
+    }
+
+    private Cookie inboxWithThreads(String username, int threads) throws Exception {
+        Cookie owner = authCookie(username);
+        for (int i = 0; i < threads; i++) {
+            authCookie(username + "_peer_" + i);
+            Long peerId = userRepository.findByUsername(username + "_peer_" + i).orElseThrow().getUserId();
+            mockMvc.perform(post("/api/threads")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"targetType\": \"system\", \"recipientUserId\": %d, \"content\": \"hi\"}"
+                                    .formatted(peerId))
+                            .cookie(owner))
+                    .andExpect(status().isCreated());
+        }
+        return owner;
+    }
+}
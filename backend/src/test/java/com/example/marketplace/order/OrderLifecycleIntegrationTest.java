@@ -1,24 +1,33 @@
 package com.example.marketplace.order;
 
 import com.example.marketplace.BaseIntegrationTest;
+import com.example.marketplace.domain.common.TargetType;
 import com.example.marketplace.domain.item.Item;
 import com.example.marketplace.domain.item.ItemStatus;
 import com.example.marketplace.domain.order.Order;
+import com.example.marketplace.domain.order.OrderItem;
 import com.example.marketplace.repository.ItemRepository;
+import com.example.marketplace.repository.OrderItemRepository;
 import com.example.marketplace.repository.OrderRepository;
+import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.ResultActions;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+// The X-SQL-Count header lets a test see how many statements a request ran.
+@TestPropertySource(properties = "app.sql-monitor.response-headers=true")
 class OrderLifecycleIntegrationTest extends BaseIntegrationTest {
 
     @Autowired
@@ -27,6 +36,9 @@ class OrderLifecycleIntegrationTest extends BaseIntegrationTest {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
     @Test
     void offerToOrderHappyPath_shouldSucceed() throws Exception {
         var sellerCookie = authCookie("lifecycle_seller");
@@ -181,4 +193,74 @@ class OrderLifecycleIntegrationTest extends BaseIntegrationTest {
                 .andExpect(status().isConflict())
                 .andExpect(jsonPath("$.code").value("CONFLICT_STATE"));
     }
+
+    @Test
+    void listMyOrders_shouldAttachEachOrdersOwnItems() throws Exception {
+        var buyerCookie = authCookie("list_orders_buyer");
+        var buyer = userRepository.findByUsername("list_orders_buyer").orElseThrow();
+        authCookie("list_orders_seller");
+        var seller = userRepository.findByUsername("list_orders_seller").orElseThrow();
+
+        Order older = saveOrder(buyer.getUserId(), seller.getUserId(), Instant.now().minusSeconds(60));
+        saveOrderItem(older.getOrderId(), 11L, "10.00");
+        saveOrderItem(older.getOrderId(), 12L, "20.00");
+        // The first request also warms the per-user caches, so only the second one is the steady-state count.
+        listBuyerOrders(buyerCookie);
+        int oneOrderStatements = sqlCount(listBuyerOrders(buyerCookie));
+
+        Order newer = saveOrder(buyer.getUserId(), seller.getUserId(), Instant.now());
+        saveOrderItem(newer.getOrderId(), 13L, "30.00");
+        Order empty = saveOrder(buyer.getUserId(), seller.getUserId(), Instant.now().minusSeconds(120));
+
+        ResultActions result = listBuyerOrders(buyerCookie);
+        // The items of every order on the page come from one query, so more orders cost no more statements.
+        assertThat(sqlCount(result)).isEqualTo(oneOrderStatements);
+        result
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.orders[0].orderId").value(newer.getOrderId()))
+                .andExpect(jsonPath("$.orders[0].items.length()").value(1))
+                .andExpect(jsonPath("$.orders[0].items[0].targetId").value(13))
+                .andExpect(jsonPath("$.orders[1].orderId").value(older.getOrderId()))
+                .andExpect(jsonPath("$.orders[1].items.length()").value(2))
+                .andExpect(jsonPath("$.orders[1].items[0].targetId").value(11))
+                .andExpect(jsonPath("$.orders[1].items[1].targetId").value(12))
+                .andExpect(jsonPath("$.orders[2].orderId").value(empty.getOrderId()))
+                .andExpect(jsonPath("$.orders[2].items.length()").value(0));
+    }
+
+    private ResultActions listBuyerOrders(Cookie cookie) throws Exception {
+        // Pending inserts would otherwise be flushed inside the request and counted with it.
+        orderItemRepository.flush();
+        return mockMvc.perform(get("/api/orders")
+                        .param("role", "buyer")
+                        .cookie(cookie))
+                .andExpect(status().isOk());
+    }
+
+    private static int sqlCount(ResultActions result) {
+        return Integer.parseInt(result.andReturn().getResponse().getHeader("X-SQL-Count"));
+    }
+
+    private Order saveOrder(Long buyerId, Long sellerId, Instant createdAt) {
+        Order order = new Order();
+        order.setBuyerId(buyerId);
+        order.setSellerId(sellerId);
+        order.setTotalAmount(new BigDecimal("30.00"));
+        order.setShippingName("buyer");
+        order.setShippingPhone("123456");
+        order.setShippingAddress("addr");
+        order.setCreatedAt(createdAt);
+        order.setUpdatedAt(createdAt);
+        return orderRepository.save(order);
+    }
+
+    private void saveOrderItem(Long orderId, Long targetId, String price) {
+        OrderItem item = new OrderItem();
+        item.setOrderId(orderId);
+        item.setTargetType(TargetType.item);
+        item.setTargetId(targetId);
+        item.setQuantity(1);
+        item.setPrice(new BigDecimal(price));
+        orderItemRepository.save(item);
+    }
 }
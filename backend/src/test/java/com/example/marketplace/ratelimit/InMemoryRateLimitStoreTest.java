@@ -0,0 +1,59 @@
+package com.example.marketplace.ratelimit;
+
+import com.example.marketplace.service.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryRateLimitStoreTest {
+
+    @Test
+    void limit_shouldAllowNThenRejectForOneEmissionInterval() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(properties(1000));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, store.acquire("login:ip:10.0.0.1", 5, 60_000));
+        }
+        // 5 per minute emits one request every 12 s; a burst that used them all waits one interval.
+        long retryAfter = store.acquire("login:ip:10.0.0.1", 5, 60_000);
+        assertTrue(retryAfter > 11_000 && retryAfter <= 12_000, "retryAfter=" + retryAfter);
+        assertTrue(store.acquire("login:ip:10.0.0.1", 5, 60_000) > 0);
+        assertEquals(0, store.acquire("login:ip:10.0.0.2", 5, 60_000));
+    }
+
+    @Test
+    void window_shouldRefillOneRequestPerInterval() throws Exception {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(properties(1000));
+
+        assertEquals(0, store.acquire("offer-create:user:1", 2, 200));
+        assertEquals(0, store.acquire("offer-create:user:1", 2, 200));
+        assertTrue(store.acquire("offer-create:user:1", 2, 200) > 0);
+
+        Thread.sleep(120);
+        assertEquals(0, store.acquire("offer-create:user:1", 2, 200));
+        assertTrue(store.acquire("offer-create:user:1", 2, 200) > 0);
+    }
+
+    @Test
+    void overCapacity_shouldNotEvictThrottledKey() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(properties(100));
+        for (int i = 0; i < 5; i++) {
+            store.acquire("login:ip:victim", 5, 60_000);
+        }
+        assertTrue(store.acquire("login:ip:victim", 5, 60_000) > 0);
+
+        // A client spraying fresh addresses pushes the store far past max-keys.
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, store.acquire("login:ip:spray-" + i, 5, 60_000));
+        }
+
+        assertTrue(store.acquire("login:ip:victim", 5, 60_000) > 0, "victim's limit was reset by eviction");
+    }
+
+    private static RateLimitProperties properties(int maxKeys) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxKeys(maxKeys);
+        return properties;
+    }
+}
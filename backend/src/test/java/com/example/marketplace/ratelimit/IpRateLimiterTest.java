@@ -0,0 +1,61 @@
+package com.example.marketplace.ratelimit;
+
+import com.example.marketplace.exception.RateLimitExceededException;
+import com.example.marketplace.service.IpRateLimiter;
+import com.example.marketplace.service.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IpRateLimiterTest {
+
+    private static final RateLimitStore UNAVAILABLE = (key, limit, windowMillis) -> {
+        throw new UncheckedIOException("rate limit store unavailable", new IOException("refused"));
+    };
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void storeFailure_failOpen_shouldAllowAndCount() {
+        IpRateLimiter limiter = new IpRateLimiter(properties(RateLimitProperties.FailureMode.OPEN), UNAVAILABLE,
+                meterRegistry);
+
+        assertDoesNotThrow(() -> limiter.checkRateLimit(IpRateLimiter.LOGIN, "ip:10.0.0.1"));
+        assertDoesNotThrow(() -> limiter.checkRateLimit(IpRateLimiter.LOGIN, "ip:10.0.0.1"));
+
+        assertEquals(2, failures(IpRateLimiter.LOGIN, "allowed"));
+        assertEquals(0, failures(IpRateLimiter.LOGIN, "rejected"));
+    }
+
+    @Test
+    void storeFailure_failClosed_shouldRejectAndCount() {
+        IpRateLimiter limiter = new IpRateLimiter(properties(RateLimitProperties.FailureMode.CLOSED), UNAVAILABLE,
+                meterRegistry);
+
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> limiter.checkRateLimit(IpRateLimiter.MESSAGE_SEND, "user:1"));
+
+        assertEquals(1, ex.getRetryAfterSeconds());
+        assertEquals(1, failures(IpRateLimiter.MESSAGE_SEND, "rejected"));
+        assertEquals(0, failures(IpRateLimiter.MESSAGE_SEND, "allowed"));
+    }
+
+    private double failures(String policy, String outcome) {
+        var counter = meterRegistry.find("marketplace.ratelimit.store.failures")
+                .tags("policy", policy, "outcome", outcome)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static RateLimitProperties properties(RateLimitProperties.FailureMode failureMode) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setFailureMode(failureMode);
+        return properties;
+    }
+}
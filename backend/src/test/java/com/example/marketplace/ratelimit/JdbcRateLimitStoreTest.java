@@ -0,0 +1,50 @@
+package com.example.marketplace.ratelimit;
+
+import com.example.marketplace.BaseIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JdbcRateLimitStoreTest extends BaseIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void limit_shouldBeSharedAcrossNodes() {
+        // Two store instances stand in for two API nodes sharing one database.
+        JdbcRateLimitStore nodeA = new JdbcRateLimitStore(jdbcTemplate);
+        JdbcRateLimitStore nodeB = new JdbcRateLimitStore(jdbcTemplate);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, nodeA.acquire("login:ip:10.0.0.1", 5, 60_000));
+        }
+        assertEquals(0, nodeB.acquire("login:ip:10.0.0.1", 5, 60_000));
+        assertEquals(0, nodeB.acquire("login:ip:10.0.0.1", 5, 60_000));
+
+        long retryAfter = nodeA.acquire("login:ip:10.0.0.1", 5, 60_000);
+        assertTrue(retryAfter > 11_000 && retryAfter <= 12_000, "retryAfter=" + retryAfter);
+        assertEquals(0, nodeB.acquire("login:ip:10.0.0.2", 5, 60_000));
+    }
+
+    @Test
+    void deleteIdleBuckets_shouldKeepActiveBuckets() {
+        JdbcRateLimitStore store = new JdbcRateLimitStore(jdbcTemplate);
+        store.acquire("register:ip:10.0.0.3", 5, 60_000);
+        jdbcTemplate.update("INSERT INTO rate_limit_buckets (bucket_key, tat_ms) VALUES ('register:ip:idle', 0)");
+
+        store.deleteIdleBuckets();
+
+        assertEquals(1, countBuckets("register:ip:10.0.0.3"));
+        assertEquals(0, countBuckets("register:ip:idle"));
+    }
+
+    private int countBuckets(String key) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM rate_limit_buckets WHERE bucket_key = ?", Integer.class, key);
+        return count == null ? 0 : count;
+    }
+}
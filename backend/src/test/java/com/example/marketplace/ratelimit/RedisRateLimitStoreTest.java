@@ -0,0 +1,177 @@
+package com.example.marketplace.ratelimit;
+
+import com.example.marketplace.service.RateLimitProperties;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.embedded.RedisServer;
+
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisRateLimitStoreTest {
+
+    private static RedisServer server;
+    private static int port;
+
+    private RespConnection admin;
+    private RedisRateLimitStore nodeA;
+    private RedisRateLimitStore nodeB;
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = RedisServer.newRedisServer().port(port).bind("127.0.0.1").setting("save \"\"").build();
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() throws Exception {
+        server.stop();
+    }
+
+    @BeforeEach
+    void connect() throws Exception {
+        admin = new RespConnection("127.0.0.1", port, 5000);
+        admin.pipeline(List.<String[]>of(new String[]{"FLUSHALL"}, new String[]{"SCRIPT", "FLUSH"}));
+        nodeA = new RedisRateLimitStore(properties(16, 100));
+        nodeB = new RedisRateLimitStore(properties(16, 100));
+    }
+
+    @AfterEach
+    void disconnect() throws Exception {
+        nodeA.close();
+        nodeB.close();
+        admin.close();
+    }
+
+    @Test
+    void limit_shouldBeSharedAcrossNodes() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, nodeA.acquire("login:ip:10.0.0.1", 5, 60_000));
+        }
+        assertEquals(0, nodeB.acquire("login:ip:10.0.0.1", 5, 60_000));
+        assertEquals(0, nodeB.acquire("login:ip:10.0.0.1", 5, 60_000));
+
+        // Same GCRA as the other stores: 5 per minute emits one request every 12 s.
+        long retryAfter = nodeA.acquire("login:ip:10.0.0.1", 5, 60_000);
+        assertTrue(retryAfter > 11_000 && retryAfter <= 12_000, "retryAfter=" + retryAfter);
+        assertTrue(nodeB.acquire("login:ip:10.0.0.1", 5, 60_000) > 0);
+        assertEquals(0, nodeB.acquire("login:ip:10.0.0.2", 5, 60_000));
+    }
+
+    @Test
+    void window_shouldRefillOneRequestPerInterval() throws Exception {
+        assertEquals(0, nodeA.acquire("offer-create:user:1", 2, 200));
+        assertEquals(0, nodeB.acquire("offer-create:user:1", 2, 200));
+        assertTrue(nodeA.acquire("offer-create:user:1", 2, 200) > 0);
+
+        // One interval later exactly one request is back, not a whole window's worth as with a fixed window.
+        Thread.sleep(120);
+        assertEquals(0, nodeB.acquire("offer-create:user:1", 2, 200));
+        assertTrue(nodeA.acquire("offer-create:user:1", 2, 200) > 0);
+    }
+
+    @Test
+    void script_shouldBeReloadedAfterFlush() throws Exception {
+        assertEquals(0, nodeA.acquire("message-send:user:1", 10, 60_000));
+        admin.pipeline(List.<String[]>of(new String[]{"SCRIPT", "FLUSH"}));
+
+        assertEquals(0, nodeA.acquire("message-send:user:1", 10, 60_000));
+    }
+
+    @Test
+    void brokenConnection_shouldBeReplaced() throws Exception {
+        assertEquals(0, nodeA.acquire("message-send:user:1", 10, 60_000));
+        admin.pipeline(List.<String[]>of(new String[]{"CLIENT", "KILL", "TYPE", "normal"}));
+
+        // The pooled connection is dead: that call fails, the next one reconnects.
+        assertThrows(UncheckedIOException.class, () -> nodeA.acquire("message-send:user:1", 10, 60_000));
+        assertEquals(0, nodeA.acquire("message-send:user:1", 10, 60_000));
+    }
+
+    @Test
+    void pool_shouldNeverOpenMoreThanPoolSizeConnections() throws Exception {
+        RedisRateLimitStore store = new RedisRateLimitStore(properties(2, 5000));
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Long>> calls = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                String key = "message-send:user:" + (i % 20);
+                calls.add(callers.submit(() -> store.acquire(key, 1000, 60_000)));
+            }
+            for (Future<Long> call : calls) {
+                assertEquals(0, call.get(10, TimeUnit.SECONDS));
+            }
+            // Two from the store plus the admin connection asking.
+            assertEquals(3, clientCount());
+        } finally {
+            callers.shutdownNow();
+            store.close();
+        }
+    }
+
+    @Test
+    void pool_shouldFailAfterWaitingWhenAllConnectionsAreBusy() throws Exception {
+        RedisRateLimitStore store = new RedisRateLimitStore(properties(1, 50));
+        try {
+            assertEquals(0, store.acquire("login:ip:10.0.0.1", 5, 60_000));
+
+            // Stall the server so the only connection stays checked out.
+            CompletableFuture<Object> stall = CompletableFuture.supplyAsync(() -> command("DEBUG", "SLEEP", "0.5"));
+            Thread.sleep(50);
+            CompletableFuture<Long> holder = CompletableFuture.supplyAsync(
+                    () -> store.acquire("login:ip:10.0.0.1", 5, 60_000));
+            Thread.sleep(50);
+
+            long started = System.nanoTime();
+            assertThrows(UncheckedIOException.class, () -> store.acquire("login:ip:10.0.0.2", 5, 60_000));
+            long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            assertTrue(waitedMs >= 40 && waitedMs < 400, "waitedMs=" + waitedMs);
+
+            stall.get(5, TimeUnit.SECONDS);
+            assertEquals(0, holder.get(5, TimeUnit.SECONDS));
+            assertEquals(0, store.acquire("login:ip:10.0.0.2", 5, 60_000));
+        } finally {
+            store.close();
+        }
+    }
+
+    private long clientCount() throws Exception {
+        String clients = (String) admin.pipeline(List.<String[]>of(new String[]{"CLIENT", "LIST"})).get(0);
+        return clients.lines().filter(line -> !line.isBlank()).count();
+    }
+
+    private static Object command(String... command) {
+        try (RespConnection connection = new RespConnection("127.0.0.1", port, 5000)) {
+            return connection.pipeline(List.<String[]>of(command)).get(0);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static RateLimitProperties properties(int poolSize, long poolWaitMs) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getRedis().setHost("127.0.0.1");
+        properties.getRedis().setPort(port);
+        properties.getRedis().setTimeoutMs(2000);
+        properties.getRedis().setPoolSize(poolSize);
+        properties.getRedis().setPoolWaitMs(poolWaitMs);
+        return properties;
+    }
+}
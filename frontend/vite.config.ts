@@ -17,6 +17,10 @@ export default defineConfig({
             '/api': {
                 target: 'http://localhost:8080',
                 changeOrigin: true,
+            },
+            '/demo-assets': {
+                target: 'http://localhost:8080',
+                changeOrigin: true,
             }
         }
     }